@@ -0,0 +1,83 @@
+package com.company;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Datasets shared by the benchmarks.
+ *
+ * "vote" and "nursery" are the ARFF files in the repository root (override the directory with
+ * -Dapriori.data.dir=...). "synthetic" is generated in memory from a fixed seed.
+ */
+final class BenchmarkData {
+    static final String DATA_DIR_PROPERTY = "apriori.data.dir";
+
+    private static final int SYNTHETIC_INSTANCES = 50000;
+    private static final int SYNTHETIC_ATTRIBUTES = 20;
+    private static final int SYNTHETIC_VALUES = 4;
+    private static final long SYNTHETIC_SEED = 42L;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @param dataset - "vote", "nursery" or "synthetic"
+     * @return the ARFF file of the dataset
+     */
+    static String path(String dataset) {
+        return new File(System.getProperty(DATA_DIR_PROPERTY, ".."), dataset + ".arff").getPath();
+    }
+
+    /**
+     * @param dataset - "vote", "nursery" or "synthetic"
+     * @return the encoded dataset
+     * @throws IOException - if the ARFF file can't be read
+     */
+    static EncodedDataset load(String dataset) throws IOException {
+        if (dataset.equals("synthetic")) {
+            return synthetic();
+        }
+        return StreamingLoader.load(path(dataset));
+    }
+
+    /**
+     * Mines the dataset once with the level-wise algorithm and returns its frequent itemsets by size
+     *
+     * @param dataset - the encoded data
+     * @param minSup - the minimum support to mine with
+     * @return frequent itemsets of size k at index k-1, each level sorted
+     */
+    static List<List<ItemSet>> frequentLevels(EncodedDataset dataset, double minSup) {
+        MiningConfig config = new MiningConfig().withMinSupport(minSup);
+        return new AssociationRuleMiner(config).mine(dataset).getFrequentItemSetsByLevel();
+    }
+
+    /**
+     * Nominal data with skewed value frequencies, so every attribute has one dominant value
+     */
+    private static EncodedDataset synthetic() {
+        Random random = new Random(SYNTHETIC_SEED);
+        String[] attributeNames = new String[SYNTHETIC_ATTRIBUTES];
+        ArrayList<String> itemNames = new ArrayList<>();
+        for (int a = 0; a < SYNTHETIC_ATTRIBUTES; a++) {
+            attributeNames[a] = "a" + a;
+            for (int v = 0; v < SYNTHETIC_VALUES; v++) {
+                itemNames.add(attributeNames[a] + "=v" + v);
+            }
+        }
+
+        ArrayList<ItemSet> instances = new ArrayList<>(SYNTHETIC_INSTANCES);
+        int[] row = new int[SYNTHETIC_ATTRIBUTES];
+        for (int i = 0; i < SYNTHETIC_INSTANCES; i++) {
+            for (int a = 0; a < SYNTHETIC_ATTRIBUTES; a++) {
+                int value = random.nextDouble() < 0.6 ? 0 : 1 + random.nextInt(SYNTHETIC_VALUES - 1);
+                row[a] = a * SYNTHETIC_VALUES + value;
+            }
+            instances.add(ItemSet.of(row));
+        }
+        return new EncodedDataset(attributeNames, itemNames, instances);
+    }
+}
@@ -0,0 +1,36 @@
+package com.company;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs the benchmarks with the GC profiler, so every result reports throughput and allocation rate.
+ *
+ * Arguments are regular expressions selecting benchmarks (all of them by default). The data directory
+ * is passed on to the forked benchmark JVMs.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        String dataDir = new File(System.getProperty(BenchmarkData.DATA_DIR_PROPERTY, "..")).getAbsolutePath();
+
+        OptionsBuilder builder = new OptionsBuilder();
+        if (args.length == 0) {
+            builder.include("com\\.company\\..*Benchmark");
+        }
+        for (String pattern : args) {
+            builder.include(pattern);
+        }
+
+        Options options = builder
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-D" + BenchmarkData.DATA_DIR_PROPERTY + "=" + dataDir)
+                .build();
+
+        new Runner(options).run();
+    }
+}
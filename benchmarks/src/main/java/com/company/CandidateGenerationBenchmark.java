@@ -0,0 +1,50 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Candidate generation alone: createCandidates for every level, from the frequent itemsets of a reference run
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CandidateGenerationBenchmark {
+
+    @Param({"vote", "nursery", "synthetic"})
+    public String dataset;
+
+    @Param({"0.2", "0.4"})
+    public double minSup;
+
+    private List<List<ItemSet>> frequentLevels;
+
+    @Setup
+    public void setUp() throws Exception {
+        frequentLevels = BenchmarkData.frequentLevels(BenchmarkData.load(dataset), minSup);
+    }
+
+    @Benchmark
+    public int createCandidates() {
+        int numCandidates = 0;
+        for (int k = 2; k <= frequentLevels.size(); k++) {
+            numCandidates += AprioriMiner.createCandidates(frequentLevels.get(k - 2), k).size();
+        }
+        return numCandidates;
+    }
+}
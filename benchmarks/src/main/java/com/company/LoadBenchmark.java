@@ -0,0 +1,55 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading and encoding an input file: Weka's DataSource, the streaming loader and the binary cache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadBenchmark {
+
+    @Param({"vote", "nursery"})
+    public String dataset;
+
+    @Param({"weka", "streaming", "cache"})
+    public String loader;
+
+    private String path;
+
+    @Setup
+    public void setUp() throws Exception {
+        path = BenchmarkData.path(dataset);
+        if (loader.equals("cache")) {
+            EncodedDatasetCache.write(path, StreamingLoader.load(path));
+        }
+    }
+
+    @Benchmark
+    public Object load() throws Exception {
+        switch (loader) {
+            case "weka":
+                return WekaLoader.load(path);
+            case "streaming":
+                return StreamingLoader.load(path);
+            default:
+                return EncodedDatasetCache.read(path);
+        }
+    }
+}
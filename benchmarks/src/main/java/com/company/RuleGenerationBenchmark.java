@@ -0,0 +1,58 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rule generation alone, from frequent itemsets mined once in the setup
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuleGenerationBenchmark {
+
+    @Param({"vote", "nursery", "synthetic"})
+    public String dataset;
+
+    @Param({"0.2", "0.4"})
+    public double minSup;
+
+    @Param({"0.5", "0.9"})
+    public double minConf;
+
+    private ItemSetCountMap frequentItemSets;
+    private int numInstances;
+
+    @Setup
+    public void setUp() throws Exception {
+        EncodedDataset encoded = BenchmarkData.load(dataset);
+        numInstances = encoded.getNumInstances();
+        int minCount = new MiningConfig().withMinSupport(minSup).minimumSupportCount(numInstances);
+        frequentItemSets = new AprioriMiner().mine(encoded.getInstances(), encoded.getNumItems(), minCount);
+    }
+
+    @Benchmark
+    public ArrayList<AssociationRule> allRules() {
+        return RuleGenerator.generateAll(frequentItemSets, numInstances, minSup, minConf);
+    }
+
+    @Benchmark
+    public ArrayList<AssociationRule> top100Rules() {
+        return RuleGenerator.generateTopK(frequentItemSets, numInstances, minSup, minConf, 100);
+    }
+}
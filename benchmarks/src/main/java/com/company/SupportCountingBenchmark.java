@@ -0,0 +1,72 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Support counting alone: every level's candidates are generated once in the setup, and each invocation
+ * counts all of them, level by level, with the selected counting engine (including building its tidsets or threads)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SupportCountingBenchmark {
+
+    @Param({"vote", "nursery", "synthetic"})
+    public String dataset;
+
+    @Param({"0.2", "0.4"})
+    public double minSup;
+
+    @Param({"horizontal", "vertical", "trie"})
+    public String counting;
+
+    @Param({"1"})
+    public int threads;
+
+    private EncodedDataset encoded;
+    private AprioriMiner miner;
+    private int minCount;
+    private ArrayList<ArrayList<ItemSet>> candidateLevels;
+
+    @Setup
+    public void setUp() throws Exception {
+        encoded = BenchmarkData.load(dataset);
+        miner = new AprioriMiner(AprioriMiner.Counting.valueOf(counting.toUpperCase()), threads);
+        minCount = new MiningConfig().withMinSupport(minSup).minimumSupportCount(encoded.getNumInstances());
+        List<List<ItemSet>> frequentLevels = BenchmarkData.frequentLevels(encoded, minSup);
+
+        candidateLevels = new ArrayList<>();
+        candidateLevels.add(AprioriMiner.createSizeOneItemSets(encoded.getNumItems()));
+        for (int k = 2; k <= frequentLevels.size() + 1; k++) {
+            candidateLevels.add(AprioriMiner.createCandidates(frequentLevels.get(k - 2), k));
+        }
+    }
+
+    @Benchmark
+    public ItemSetCountMap countAllLevels() {
+        ItemSetCountMap counts = new ItemSetCountMap();
+        try (AprioriMiner.LevelCounter counter = miner.levelCounter(encoded.getInstances(), encoded.getNumItems(), minCount)) {
+            for (ArrayList<ItemSet> candidates : candidateLevels) {
+                counter.count(candidates, counts);
+            }
+        }
+        return counts;
+    }
+}
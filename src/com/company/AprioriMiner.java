@@ -0,0 +1,504 @@
+package com.company;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * The level-wise Apriori algorithm: candidates of size k are joined from the frequent itemsets of size k-1
+ * and counted in the data, until a level has no frequent itemsets left.
+ *
+ * Support is counted with one of three strategies: a horizontal scan testing every candidate against every
+ * transaction, a {@link CandidateTrie} walked once per transaction, or the tidset intersections of a
+ * {@link TidsetIndex}. Horizontal and trie counting can be split across threads with {@link ParallelCounter}.
+ * Their second level, usually the most expensive one, can also count every pair of frequent items in a triangular
+ * array without building candidates, or filter the candidate pairs with DHP hash buckets counted along with the
+ * single items.
+ * All state of a run lives in its own {@link LevelCounter}, so one miner can run many jobs at the same time.
+ */
+public class AprioriMiner implements FrequentItemSetMiner {
+    /**
+     * How candidate supports are counted
+     */
+    public enum Counting {
+        HORIZONTAL, VERTICAL, TRIE
+    }
+
+    /**
+     * How the second level is counted with horizontal or trie counting
+     */
+    public enum PairCounting {
+        /** like every other level, from joined candidates */
+        CANDIDATES,
+        /** every pair of frequent items in one triangular array of counts, if it fits */
+        TRIANGULAR,
+        /** like every other level, after dropping the candidates whose DHP hash bucket, counted in the first pass, isn't frequent */
+        DHP
+    }
+
+    // The largest triangular array of pair counts, or table of DHP buckets, (in ints) for all counting threads together
+    private static final long MAX_PAIR_COUNTS = 1 << 24;
+    private static final int MAX_DHP_BUCKET_BITS = 20;
+
+    private final Counting counting;
+    private final int numThreads;
+    private final PairCounting pairCounting;
+
+    /**
+     * A single-threaded miner with horizontal counting
+     */
+    public AprioriMiner() {
+        this(Counting.HORIZONTAL, 1);
+    }
+
+    /**
+     * @param counting   - how candidate supports are counted
+     * @param numThreads - the number of threads that count horizontally or with the trie
+     */
+    public AprioriMiner(Counting counting, int numThreads) {
+        this(counting, numThreads, PairCounting.CANDIDATES);
+    }
+
+    /**
+     * @param counting     - how candidate supports are counted
+     * @param numThreads   - the number of threads that count horizontally or with the trie
+     * @param pairCounting - how the second level is counted; only candidates work with vertical counting
+     */
+    public AprioriMiner(Counting counting, int numThreads, PairCounting pairCounting) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("Counting needs at least one thread");
+        }
+        if (counting == Counting.VERTICAL && pairCounting != PairCounting.CANDIDATES) {
+            throw new IllegalArgumentException("Vertical counting only counts pairs from candidates");
+        }
+        this.counting = counting;
+        this.numThreads = numThreads;
+        this.pairCounting = pairCounting;
+    }
+
+    public Counting getCounting() {
+        return counting;
+    }
+
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    public PairCounting getPairCounting() {
+        return pairCounting;
+    }
+
+    @Override
+    public ItemSetCountMap mine(List<ItemSet> transactions, int numItems, int minCount) {
+        return mine(transactions, numItems, minCount, new MiningMetrics());
+    }
+
+    @Override
+    public ItemSetCountMap mine(List<ItemSet> transactions, int numItems, int minCount, MiningMetrics metrics) {
+        ItemSetCountMap frequentItemSets = new ItemSetCountMap();
+
+        try (LevelCounter counter = levelCounter(transactions, numItems, minCount)) {
+            ArrayList<ItemSet> currentFrequentItemSets;
+            try (MiningMetrics.Level level = metrics.startLevel(1)) {
+                ArrayList<ItemSet> currentCandidateItemSets = createSizeOneItemSets(numItems);
+                level.generated(currentCandidateItemSets.size());
+                currentFrequentItemSets = pairCounting == PairCounting.DHP
+                        ? counter.countItemsAndPairBuckets(currentCandidateItemSets, frequentItemSets)
+                        : counter.count(currentCandidateItemSets, frequentItemSets);
+                level.counted(currentFrequentItemSets.size(), counter.getNumRows());
+            }
+
+            int k = 2;
+            while (currentFrequentItemSets.size() > 0) {
+                try (MiningMetrics.Level level = metrics.startLevel(k)) {
+                    if (k == 2 && pairCounting == PairCounting.TRIANGULAR && counter.canCountPairs(currentFrequentItemSets.size())) {
+                        int numItemSets = currentFrequentItemSets.size();
+                        level.generated(numItemSets * (numItemSets - 1) / 2);
+                        currentFrequentItemSets = counter.countPairs(currentFrequentItemSets, frequentItemSets);
+                    } else {
+                        ArrayList<ItemSet> currentCandidateItemSets = createCandidates(currentFrequentItemSets, k, level);
+                        if (k == 2 && pairCounting == PairCounting.DHP) {
+                            currentCandidateItemSets = counter.filterPairs(currentCandidateItemSets, level);
+                        }
+                        level.generated(currentCandidateItemSets.size());
+                        currentFrequentItemSets = counter.count(currentCandidateItemSets, frequentItemSets);
+                    }
+                    level.counted(currentFrequentItemSets.size(), counter.getNumRows());
+                }
+                k++;
+            }
+        }
+
+        return frequentItemSets;
+    }
+
+    /**
+     * @param transactions - the encoded data
+     * @param numItems     - the number of distinct encoded items
+     * @param minCount     - the minimum number of transactions an itemset has to occur in
+     * @return a counter for the levels of one run, which has to be closed afterwards
+     */
+    LevelCounter levelCounter(List<ItemSet> transactions, int numItems, int minCount) {
+        return new LevelCounter(transactions, numItems, minCount);
+    }
+
+
+    /**
+     * Creating candidates from the current frequent itemsets
+     *
+     * @param itemSet - sets of current frequent itemsets
+     * @param k - num of items within the generated candidates itemsets
+     * @return sets of candidate itemsets, sorted
+     */
+    static ArrayList<ItemSet> createCandidates(List<ItemSet> itemSet, int k) {
+        return createCandidates(itemSet, k, null);
+    }
+
+
+    /**
+     * Creating candidates from the current frequent itemsets.
+     *
+     * In sorted order, the itemsets that share their first k-2 items sit next to each other, so every pair within
+     * such a group is joined into one candidate and itemsets of different groups are never compared. A candidate
+     * is only kept if all of its (k-1)-subsets are frequent (the Apriori property). The two subsets it was joined
+     * from are, so only the other k-2 are looked up.
+     *
+     * @param itemSet - sets of current frequent itemsets, all of size k-1
+     * @param k - num of items within the generated candidates itemsets
+     * @param level - records the number of pruned candidates, or null
+     * @return sets of candidate itemsets, sorted
+     */
+    static ArrayList<ItemSet> createCandidates(List<ItemSet> itemSet, int k, MiningMetrics.Level level) {
+        List<ItemSet> sortedItemSets = itemSet;
+        for (int i = 1; i < itemSet.size(); i++) {
+            if (itemSet.get(i - 1).compareTo(itemSet.get(i)) > 0) {
+                sortedItemSets = new ArrayList<>(itemSet);
+                Collections.sort(sortedItemSets);
+                break;
+            }
+        }
+        HashSet<ItemSet> frequentItemSets = k > 2 ? new HashSet<>(sortedItemSets) : null;
+
+        ArrayList<ItemSet> candidateSet = new ArrayList<>();
+        int numPruned = 0;
+        int groupStart = 0;
+        while (groupStart < sortedItemSets.size()) {
+            ItemSet first = sortedItemSets.get(groupStart);
+            int groupEnd = groupStart + 1;
+            while (groupEnd < sortedItemSets.size() && first.sharesPrefixWith(sortedItemSets.get(groupEnd))) {
+                groupEnd++;
+            }
+
+            for (int i = groupStart; i < groupEnd - 1; i++) {
+                ItemSet itemSet1 = sortedItemSets.get(i);
+                for (int j = i + 1; j < groupEnd; j++) {
+                    ItemSet combinedItemSet = itemSet1.append(sortedItemSets.get(j).last());
+
+                    if (frequentItemSets == null || allSubsetsFrequent(combinedItemSet, frequentItemSets)) {
+                        candidateSet.add(combinedItemSet);
+                    } else {
+                        numPruned++;
+                    }
+                }
+            }
+            groupStart = groupEnd;
+        }
+
+        if (level != null) {
+            level.pruned(numPruned);
+        }
+        return candidateSet;
+    }
+
+
+    /**
+     * @param numItems - the number of distinct encoded items
+     * @return sets of 1-itemsets, one for each encoded item
+     */
+    static ArrayList<ItemSet> createSizeOneItemSets(int numItems) {
+        ArrayList<ItemSet> sizeOneItemSets = new ArrayList<>(numItems);
+        for (int i = 0; i < numItems; i++) {
+            sizeOneItemSets.add(ItemSet.of(i));
+        }
+        return sizeOneItemSets;
+    }
+
+
+    /**
+     * @param candidate - an itemset of size k, joined from the two (k-1)-subsets without one of its last two items
+     * @param frequentItemSets - the frequent itemsets of size k-1
+     * @return true if every other (k-1)-subset of the candidate is frequent as well
+     */
+    private static boolean allSubsetsFrequent(ItemSet candidate, HashSet<ItemSet> frequentItemSets) {
+        for (int i = 0; i < candidate.size() - 2; i++) {
+            if (!frequentItemSets.contains(candidate.without(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Counts the candidates of one level after another over the same transactions. Holds the tidsets, or the
+     * compacted rows, and the worker threads of a single run, and releases the threads when closed.
+     *
+     * Horizontal and trie counting scan {@link WeightedTransactions}: identical rows are counted once, and before
+     * every level the rows lose the items no candidate uses and the rows too short to contain a candidate.
+     */
+    final class LevelCounter implements AutoCloseable {
+        private final int minCount;
+        private final TidsetIndex tidsetIndex;
+        private final ParallelCounter parallelCounter;
+        private WeightedTransactions rows;
+        private int[] pairBuckets = null;
+        private int pairBucketBits;
+
+        private LevelCounter(List<ItemSet> transactions, int numItems, int minCount) {
+            this.minCount = minCount;
+            this.rows = counting == Counting.VERTICAL ? null : WeightedTransactions.of(transactions, numItems);
+            this.tidsetIndex = counting == Counting.VERTICAL ? new TidsetIndex(transactions, numItems) : null;
+            this.parallelCounter = counting != Counting.VERTICAL && numThreads > 1 ? new ParallelCounter(numThreads) : null;
+        }
+
+        /**
+         * Counts the candidates and records every one that occurs at all
+         *
+         * @param items - sets of itemsets, all of the same size. Every level's candidates have to be larger than
+         *              the last level's and only use items the last level's candidates used.
+         * @param frequentItemSets - frequent itemsets and their respective frequencies within the data
+         * @return the itemsets that reached the minimum support
+         */
+        ArrayList<ItemSet> count(List<ItemSet> items, ItemSetCountMap frequentItemSets) {
+            if (counting == Counting.VERTICAL) {
+                return countVertical(items, frequentItemSets);
+            }
+
+            rows = rows.compactFor(items);
+            WeightedTransactions levelRows = rows;
+
+            int[] counts;
+            if (counting == Counting.TRIE) {
+                // A single pass over the data, walking every instance through a trie of all candidates
+                CandidateTrie trie = new CandidateTrie(items);
+                counts = countInstances(items.size(), (from, to, chunkCounts) -> {
+                    for (int r = from; r < to; r++) {
+                        trie.count(levelRows.get(r), levelRows.weight(r), chunkCounts);
+                    }
+                });
+            } else {
+                counts = countInstances(items.size(), (from, to, chunkCounts) -> {
+                    for (int i = 0; i < items.size(); i++) {
+                        ItemSet item = items.get(i);
+                        for (int r = from; r < to; r++) {
+                            if (levelRows.get(r).containsAll(item)) {
+                                chunkCounts[i] += levelRows.weight(r);
+                            }
+                        }
+                    }
+                });
+            }
+            return record(items, counts, frequentItemSets);
+        }
+
+        /**
+         * Counts the 1-itemsets like {@link #count}, and in the same pass hashes every pair of items of every row
+         * into the DHP buckets that {@link #filterPairs} checks the candidate pairs against. Every counting thread
+         * fills its own table, so the table shrinks as threads are added to stay within the pair count budget.
+         *
+         * @param items - the 1-itemsets
+         * @param frequentItemSets - frequent itemsets and their respective frequencies within the data
+         * @return the 1-itemsets that reached the minimum support
+         */
+        ArrayList<ItemSet> countItemsAndPairBuckets(List<ItemSet> items, ItemSetCountMap frequentItemSets) {
+            rows = rows.compactFor(items);
+            WeightedTransactions levelRows = rows;
+
+            int numTables = parallelCounter == null ? 1 : numThreads;
+            pairBucketBits = MAX_DHP_BUCKET_BITS;
+            while (pairBucketBits > 1 && (long) numTables << pairBucketBits > MAX_PAIR_COUNTS) {
+                pairBucketBits--;
+            }
+
+            // The item counts come first in every array, the buckets after them
+            int numItems = rows.getNumItems();
+            int bucketBits = pairBucketBits;
+            int[] counts = countInstances(numItems + (1 << bucketBits), (from, to, chunkCounts) -> {
+                for (int r = from; r < to; r++) {
+                    ItemSet row = levelRows.get(r);
+                    int weight = levelRows.weight(r);
+                    for (int a = 0; a < row.size(); a++) {
+                        chunkCounts[row.get(a)] += weight;
+                        for (int b = a + 1; b < row.size(); b++) {
+                            chunkCounts[numItems + bucketOf(row.get(a), row.get(b), bucketBits)] += weight;
+                        }
+                    }
+                }
+            });
+
+            pairBuckets = Arrays.copyOfRange(counts, numItems, counts.length);
+            int[] itemCounts = new int[items.size()];
+            for (int i = 0; i < itemCounts.length; i++) {
+                itemCounts[i] = counts[items.get(i).get(0)];
+            }
+            return record(items, itemCounts, frequentItemSets);
+        }
+
+        /**
+         * Records every candidate that occurs at all
+         *
+         * @param counts - the count of every candidate, in the same order
+         * @return the candidates that reached the minimum support
+         */
+        private ArrayList<ItemSet> record(List<ItemSet> items, int[] counts, ItemSetCountMap frequentItemSets) {
+            ArrayList<ItemSet> itemSet = new ArrayList<>();
+            for (int i = 0; i < items.size(); i++) {
+                if (counts[i] == 0) continue;
+
+                ItemSet item = items.get(i);
+                frequentItemSets.add(item, counts[i]);
+                if (counts[i] >= minCount) {
+                    itemSet.add(item);
+                }
+            }
+            return itemSet;
+        }
+
+        /**
+         * @param numItems - the number of frequent items
+         * @return true if the counts of all their pairs fit in the triangular arrays of every counting thread
+         */
+        boolean canCountPairs(int numItems) {
+            long numPairs = (long) numItems * (numItems - 1) / 2;
+            return numPairs * (parallelCounter == null ? 1 : numThreads) <= MAX_PAIR_COUNTS;
+        }
+
+        /**
+         * Counts every pair of the frequent items in a triangular array, in one pass and without candidate itemsets,
+         * and records every pair that occurs at all
+         *
+         * @param items - the frequent 1-itemsets, sorted
+         * @param frequentItemSets - frequent itemsets and their respective frequencies within the data
+         * @return the pairs that reached the minimum support, sorted
+         */
+        ArrayList<ItemSet> countPairs(List<ItemSet> items, ItemSetCountMap frequentItemSets) {
+            int numItems = items.size();
+            int[] positions = new int[items.get(numItems - 1).get(0) + 1];
+            boolean[] usedItems = new boolean[rows.getNumItems()];
+            for (int i = 0; i < numItems; i++) {
+                positions[items.get(i).get(0)] = i;
+                usedItems[items.get(i).get(0)] = true;
+            }
+            rows = rows.compact(usedItems, 2);
+            WeightedTransactions levelRows = rows;
+
+            // The pair (i, j) with i < j of the frequent items is at i * (2n - i - 1) / 2 + (j - i - 1)
+            int[] counts = countInstances(numItems * (numItems - 1) / 2, (from, to, chunkCounts) -> {
+                for (int r = from; r < to; r++) {
+                    ItemSet row = levelRows.get(r);
+                    int weight = levelRows.weight(r);
+                    for (int a = 0; a < row.size() - 1; a++) {
+                        int i = positions[row.get(a)];
+                        int offset = i * (2 * numItems - i - 1) / 2 - i - 1;
+                        for (int b = a + 1; b < row.size(); b++) {
+                            chunkCounts[offset + positions[row.get(b)]] += weight;
+                        }
+                    }
+                }
+            });
+
+            ArrayList<ItemSet> itemSet = new ArrayList<>();
+            int index = 0;
+            for (int i = 0; i < numItems - 1; i++) {
+                for (int j = i + 1; j < numItems; j++, index++) {
+                    if (counts[index] == 0) continue;
+
+                    ItemSet pair = ItemSet.ofSorted(new int[]{items.get(i).get(0), items.get(j).get(0)});
+                    frequentItemSets.add(pair, counts[index]);
+                    if (counts[index] >= minCount) {
+                        itemSet.add(pair);
+                    }
+                }
+            }
+            return itemSet;
+        }
+
+        /**
+         * Direct Hashing and Pruning (Park, Chen and Yu): drops the candidate pairs whose bucket, counted by
+         * {@link #countItemsAndPairBuckets} in the first pass, doesn't reach the minimum support. A bucket counts
+         * all pairs hashed into it, so it's never below the count of one of its pairs.
+         *
+         * @param candidates - the candidate pairs
+         * @param level - records the number of dropped candidates
+         * @return the candidates whose bucket reached the minimum support, in the same order
+         */
+        ArrayList<ItemSet> filterPairs(ArrayList<ItemSet> candidates, MiningMetrics.Level level) {
+            if (pairBuckets == null) {
+                return candidates;
+            }
+
+            ArrayList<ItemSet> filtered = new ArrayList<>(candidates.size());
+            for (ItemSet candidate : candidates) {
+                if (pairBuckets[bucketOf(candidate.get(0), candidate.get(1), pairBucketBits)] >= minCount) {
+                    filtered.add(candidate);
+                }
+            }
+            pairBuckets = null;
+            level.pruned(candidates.size() - filtered.size());
+            return filtered;
+        }
+
+        private int bucketOf(int item1, int item2, int bucketBits) {
+            return ((item1 * 0x9E3779B1) ^ item2) * 0x85EBCA6B >>> (32 - bucketBits);
+        }
+
+        /**
+         * Counts the candidates by intersecting tidsets instead of scanning the data.
+         * Produces the same itemsets and counts as the horizontal scan.
+         */
+        private ArrayList<ItemSet> countVertical(List<ItemSet> items, ItemSetCountMap frequentItemSets) {
+            ArrayList<ItemSet> itemSet = new ArrayList<>();
+
+            for (ItemSet item : items) {
+                int count = tidsetIndex.count(item);
+                if (count == 0) continue;
+
+                frequentItemSets.put(item, count);
+                if (count >= minCount) {
+                    itemSet.add(item);
+                }
+            }
+
+            tidsetIndex.advanceLevel(itemSet);
+            return itemSet;
+        }
+
+        /**
+         * Runs the chunk counter over all rows, split across worker threads when more than one is configured
+         */
+        private int[] countInstances(int numCandidates, ParallelCounter.ChunkCounter chunkCounter) {
+            if (parallelCounter == null) {
+                int[] counts = new int[numCandidates];
+                chunkCounter.count(0, rows.size(), counts);
+                return counts;
+            }
+            return parallelCounter.count(rows.size(), numCandidates, chunkCounter);
+        }
+
+        /**
+         * @return the number of rows the last level scanned, or -1 when counting with tidsets
+         */
+        int getNumRows() {
+            return rows == null ? -1 : rows.size();
+        }
+
+        @Override
+        public void close() {
+            if (parallelCounter != null) {
+                parallelCounter.shutdown();
+            }
+        }
+    }
+}
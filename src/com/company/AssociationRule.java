@@ -2,15 +2,14 @@ package com.company;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.ArrayList;
 
 /**
  * Created by Jacob Warner on 2/17/2018.
  */
 public class AssociationRule {
-    private ArrayList<Integer> premise;
+    private ItemSet premise;
     private int premiseCount;
-    private ArrayList<Integer> implication;
+    private ItemSet implication;
     private int implicationCount;
     private double confidence;
     private double support;
@@ -25,8 +24,8 @@ public class AssociationRule {
      * @param confidence       - the confidence of the rule
      * @param support          - the support of the rule
      */
-    public AssociationRule(ArrayList<Integer> premise, int premiseCount,
-                           ArrayList<Integer> implication, int implicationCount,
+    public AssociationRule(ItemSet premise, int premiseCount,
+                           ItemSet implication, int implicationCount,
                            double confidence, double support) {
         this.premise = premise;
         this.premiseCount = premiseCount;
@@ -36,7 +35,7 @@ public class AssociationRule {
         this.support = support;
     }
 
-    public ArrayList<Integer> getPremise() {
+    public ItemSet getPremise() {
         return premise;
     }
 
@@ -44,7 +43,7 @@ public class AssociationRule {
         return premiseCount;
     }
 
-    public ArrayList<Integer> getImplication() {
+    public ItemSet getImplication() {
         return implication;
     }
 
@@ -75,4 +74,20 @@ public class AssociationRule {
     public double getSupport() {
         return support;
     }
+
+    /**
+     * Two rules are the same if they have the same premise and the same implication
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AssociationRule)) return false;
+        AssociationRule other = (AssociationRule) o;
+        return premise.equals(other.premise) && implication.equals(other.implication);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * premise.hashCode() + implication.hashCode();
+    }
 }
@@ -0,0 +1,276 @@
+package com.company;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+/**
+ * Entry point for mining association rules from code.
+ *
+ * <pre>
+ * MiningConfig config = new MiningConfig().withMinSupport(0.3).withEngine(FrequentItemSetMiner.FP_GROWTH);
+ * MiningResult result = new AssociationRuleMiner(config).mine(StreamingLoader.load("vote.arff"));
+ * </pre>
+ *
+ * The miner, its config and the datasets are immutable, and every job keeps its state to itself, so one miner
+ * can run many jobs at the same time from different threads.
+ */
+public final class AssociationRuleMiner {
+    private final MiningConfig config;
+
+    /**
+     * @param config - the settings every job of this miner runs with
+     */
+    public AssociationRuleMiner(MiningConfig config) {
+        this.config = config;
+    }
+
+    public MiningConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Finds the frequent itemsets of the dataset with the configured engine and generates their rules.
+     * Closed itemsets get their non-redundant rules instead, and maximal itemsets get none.
+     *
+     * @param dataset - the encoded data
+     * @return the frequent itemsets and rules, with the metrics of the mining and the rule generation
+     */
+    public MiningResult mine(EncodedDataset dataset) {
+        int minCount = config.minimumSupportCount(dataset.getNumInstances());
+        EncodedDataset names = new EncodedDataset(dataset.getAttributeNames(), dataset.getItemNames(), Collections.emptyList());
+        MiningMetrics metrics = new MiningMetrics();
+
+        switch (config.getItemSets()) {
+            case CLOSED: {
+                ItemSetCountMap closedItemSets;
+                try (MiningMetrics.Phase mining = metrics.getMining().start()) {
+                    closedItemSets = ClosedItemSetMiner.mine(dataset.getInstances(), dataset.getNumItems(), minCount, false);
+                    mining.produced(closedItemSets.size());
+                }
+
+                ArrayList<AssociationRule> rules;
+                try (MiningMetrics.Phase ruleGeneration = metrics.getRules().start()) {
+                    rules = NonRedundantRules.generate(dataset.getInstances(), closedItemSets, config);
+                    ruleGeneration.produced(rules.size());
+                }
+                return new MiningResult(names, dataset.getNumInstances(), config, closedItemSets, rules, metrics);
+            }
+            case MAXIMAL: {
+                ItemSetCountMap maximalItemSets;
+                try (MiningMetrics.Phase mining = metrics.getMining().start()) {
+                    maximalItemSets = ClosedItemSetMiner.mine(dataset.getInstances(), dataset.getNumItems(), minCount, true);
+                    mining.produced(maximalItemSets.size());
+                }
+                return new MiningResult(names, dataset.getNumInstances(), config, maximalItemSets, new ArrayList<>(), metrics);
+            }
+            default:
+                ItemSetCountMap frequentItemSets;
+                try (MiningMetrics.Phase mining = metrics.getMining().start()) {
+                    frequentItemSets = config.getEngine().mine(dataset.getInstances(), dataset.getNumItems(), minCount, metrics);
+                    mining.produced(countFrequent(frequentItemSets, minCount));
+                }
+                return withRules(names, dataset.getNumInstances(), frequentItemSets, metrics);
+        }
+    }
+
+    /**
+     * Mines like {@link #mine} but hands the frequent itemsets and then the rules to the sink as they are produced,
+     * so neither has to be kept apart from the engine's own counts. The itemsets come level by level, straight from
+     * the counts: one pass finds how many there are of every size, then one pass per size hands them over, in no
+     * particular order within a size. Rules arrive in no particular order either, unless the config keeps only
+     * the top ones.
+     *
+     * @param dataset - the encoded data
+     * @param sink - receives the itemsets and rules; it's closed afterwards
+     * @return the metrics of the mining and the rule generation
+     * @throws IOException - if the sink can't write
+     */
+    public MiningMetrics mineTo(EncodedDataset dataset, ResultSink sink) throws IOException {
+        try (ResultSink out = sink) {
+            int numInstances = dataset.getNumInstances();
+            int minCount = config.minimumSupportCount(numInstances);
+            MiningMetrics metrics = new MiningMetrics();
+
+            ItemSetCountMap itemSets;
+            try (MiningMetrics.Phase mining = metrics.getMining().start()) {
+                switch (config.getItemSets()) {
+                    case CLOSED:
+                        itemSets = ClosedItemSetMiner.mine(dataset.getInstances(), dataset.getNumItems(), minCount, false);
+                        break;
+                    case MAXIMAL:
+                        itemSets = ClosedItemSetMiner.mine(dataset.getInstances(), dataset.getNumItems(), minCount, true);
+                        break;
+                    default:
+                        itemSets = config.getEngine().mine(dataset.getInstances(), dataset.getNumItems(), minCount, metrics);
+                }
+                mining.produced(countFrequent(itemSets, minCount));
+            }
+
+            int[] numItemSetsBySize = countFrequentBySize(itemSets, minCount);
+            out.begin(dataset.getItemNames(), numInstances);
+            try {
+                for (int k = 1; k < numItemSetsBySize.length; k++) {
+                    out.startLevel(k, numItemSetsBySize[k]);
+                    int size = k;
+                    itemSets.forEach((itemSet, count) -> {
+                        if (itemSet.size() == size && count >= minCount) {
+                            try {
+                                out.itemSet(itemSet, count);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }
+                    });
+                }
+
+                int[] numRules = {0};
+                Consumer<AssociationRule> writeRule = rule -> {
+                    try {
+                        out.rule(rule);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    numRules[0]++;
+                };
+                try (MiningMetrics.Phase ruleGeneration = metrics.getRules().start()) {
+                    if (config.getItemSets() == MiningConfig.ItemSets.CLOSED) {
+                        NonRedundantRules.generateTo(dataset.getInstances(), itemSets, config, writeRule);
+                    } else if (config.getItemSets() == MiningConfig.ItemSets.ALL) {
+                        RuleGenerator.generateTo(itemSets, numInstances, config, writeRule);
+                    }
+                    ruleGeneration.produced(numRules[0]);
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return metrics;
+        }
+    }
+
+    /**
+     * @param partitionRows - the number of rows mined together in pass one
+     * @return a two-pass miner for files that don't fit in memory, with this miner's support and engine
+     */
+    public PartitionedMiner partitioned(int partitionRows) {
+        return new PartitionedMiner(config.getMinSupport(), partitionRows, config.getEngine());
+    }
+
+    /**
+     * Mines the file in partitions without loading it, and generates the rules
+     *
+     * @param partitionedMiner - the miner from {@link #partitioned}; its statistics describe this job afterwards
+     * @param fileName - the file path of the data (encoded, ARFF, CSV or baskets)
+     * @return the frequent itemsets and rules, with the metrics of both passes together and the rule generation
+     * @throws IOException - if the file can't be read
+     */
+    public MiningResult mine(PartitionedMiner partitionedMiner, String fileName) throws IOException {
+        MiningMetrics metrics = new MiningMetrics();
+        ItemSetCountMap frequentItemSets;
+        try (MiningMetrics.Phase mining = metrics.getMining().start()) {
+            frequentItemSets = partitionedMiner.mine(fileName);
+            mining.produced(frequentItemSets.size());
+        }
+        return withRules(partitionedMiner.getNames(), partitionedMiner.getNumInstances(), frequentItemSets, metrics);
+    }
+
+    /**
+     * Mines the shards of the counting workers: this process only generates the candidates of every level and sums
+     * the counts the workers send back, then generates the rules like a single process would
+     *
+     * @param distributedMiner - the coordinator, connected to the workers
+     * @return the frequent itemsets and rules, with the metrics of every level and the rule generation
+     * @throws IOException - if a worker fails or doesn't send its counts in time
+     */
+    public MiningResult mine(DistributedMiner distributedMiner) throws IOException {
+        int minCount = config.minimumSupportCount(distributedMiner.getNumInstances());
+        MiningMetrics metrics = new MiningMetrics();
+        ItemSetCountMap frequentItemSets;
+        try (MiningMetrics.Phase mining = metrics.getMining().start()) {
+            frequentItemSets = distributedMiner.mine(minCount, metrics);
+            mining.produced(countFrequent(frequentItemSets, minCount));
+        }
+        return withRules(distributedMiner.getNames(), distributedMiner.getNumInstances(), frequentItemSets, metrics);
+    }
+
+    /**
+     * @param snapshot - the result of the earlier runs
+     * @return an incremental miner on top of the snapshot, with this miner's support
+     */
+    public IncrementalMiner incremental(ItemSetSnapshot snapshot) {
+        return new IncrementalMiner(snapshot, config.getMinSupport());
+    }
+
+    /**
+     * Adds a new batch to the data of the snapshot and generates the rules over all of it
+     *
+     * @param incrementalMiner - the miner from {@link #incremental}; its statistics describe this job afterwards
+     * @param batch - the new transactions, encoded with their own item ids
+     * @return the frequent itemsets and rules over the old and new data, with the metrics of the update and the rule generation
+     * @throws IOException - if an old data file can't be read or has changed since it was mined
+     */
+    public MiningResult update(IncrementalMiner incrementalMiner, EncodedDataset batch) throws IOException {
+        MiningMetrics metrics = new MiningMetrics();
+        ItemSetCountMap frequentItemSets;
+        try (MiningMetrics.Phase mining = metrics.getMining().start()) {
+            frequentItemSets = incrementalMiner.update(batch);
+            mining.produced(frequentItemSets.size());
+        }
+        return withRules(incrementalMiner.getNames(), incrementalMiner.getNumInstances(), frequentItemSets, metrics);
+    }
+
+    /**
+     * Generates the rules of frequent itemsets that were mined some other way, e.g. partitioned or incrementally.
+     * The itemsets have to be all the frequent ones, so the result's config keeps every itemset whatever this
+     * miner's config asks for.
+     *
+     * @param names - the attribute and item names of the mined data; its rows aren't used
+     * @param numInstances - the number of instances the itemsets were counted in
+     * @param frequentItemSets - at least every frequent itemset with its frequency; it must not be changed afterwards
+     * @return the frequent itemsets and rules, with the metrics of the rule generation
+     */
+    public MiningResult withRules(EncodedDataset names, int numInstances, ItemSetCountMap frequentItemSets) {
+        return withRules(names, numInstances, frequentItemSets, new MiningMetrics());
+    }
+
+    private MiningResult withRules(EncodedDataset names, int numInstances, ItemSetCountMap frequentItemSets, MiningMetrics metrics) {
+        MiningConfig allConfig = config.withItemSets(MiningConfig.ItemSets.ALL);
+        ArrayList<AssociationRule> rules;
+        try (MiningMetrics.Phase ruleGeneration = metrics.getRules().start()) {
+            rules = RuleGenerator.generate(frequentItemSets, numInstances, allConfig);
+            ruleGeneration.produced(rules.size());
+        }
+        return new MiningResult(names, numInstances, allConfig, frequentItemSets, rules, metrics);
+    }
+
+    /**
+     * @return the number of frequent itemsets of every size, at the index of the size, up to the largest size
+     */
+    private static int[] countFrequentBySize(ItemSetCountMap itemSets, int minCount) {
+        int[][] numBySize = {new int[1]};
+        itemSets.forEach((itemSet, count) -> {
+            if (count < minCount) return;
+            if (itemSet.size() >= numBySize[0].length) {
+                numBySize[0] = Arrays.copyOf(numBySize[0], itemSet.size() + 1);
+            }
+            numBySize[0][itemSet.size()]++;
+        });
+        return numBySize[0];
+    }
+
+    /**
+     * @return the number of itemsets that reach the minimum count; engines may also return infrequent ones
+     */
+    private static int countFrequent(ItemSetCountMap itemSets, int minCount) {
+        int numFrequent = 0;
+        for (ItemSet itemSet : itemSets.keys()) {
+            if (itemSets.getOrDefault(itemSet, 0) >= minCount) {
+                numFrequent++;
+            }
+        }
+        return numFrequent;
+    }
+}
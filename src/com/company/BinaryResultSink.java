@@ -0,0 +1,97 @@
+package com.company;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes the itemsets and rules as they arrive in a compact binary format meant to be memory-mapped by loaders.
+ *
+ * Layout (big-endian, every int 4-byte aligned):
+ * <ul>
+ *     <li>magic, version, the number of instances and the number of items</li>
+ *     <li>every item name as its UTF-8 length and bytes, padded with zeros to a multiple of 4 bytes</li>
+ *     <li>one record per itemset: tag 1, count, size, the item ids</li>
+ *     <li>one record per rule: tag 2, premise count, implication count, confidence and support as doubles,
+ *     premise size, the premise item ids, implication size, the implication item ids</li>
+ *     <li>tag 0, then the number of itemsets and of rules as longs</li>
+ * </ul>
+ * The item ids index the names of the header.
+ */
+public class BinaryResultSink implements ResultSink {
+    private static final int MAGIC = 0x41525253;
+    private static final int VERSION = 1;
+    private static final int END_TAG = 0;
+    private static final int ITEM_SET_TAG = 1;
+    private static final int RULE_TAG = 2;
+
+    private final DataOutputStream out;
+    private long numItemSets = 0;
+    private long numRules = 0;
+
+    /**
+     * @param file - the file to (over)write
+     * @throws IOException - if the file can't be opened
+     */
+    public BinaryResultSink(File file) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+    }
+
+    @Override
+    public void begin(List<String> itemNames, int numInstances) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(numInstances);
+        out.writeInt(itemNames.size());
+        for (String name : itemNames) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            for (int padding = (4 - bytes.length % 4) % 4; padding > 0; padding--) {
+                out.writeByte(0);
+            }
+        }
+    }
+
+    @Override
+    public void itemSet(ItemSet itemSet, int count) throws IOException {
+        out.writeInt(ITEM_SET_TAG);
+        out.writeInt(count);
+        writeItems(itemSet);
+        numItemSets++;
+    }
+
+    @Override
+    public void rule(AssociationRule rule) throws IOException {
+        out.writeInt(RULE_TAG);
+        out.writeInt(rule.getPremiseCount());
+        out.writeInt(rule.getImplicationCount());
+        out.writeDouble(rule.getConfidence());
+        out.writeDouble(rule.getSupport());
+        writeItems(rule.getPremise());
+        writeItems(rule.getImplication());
+        numRules++;
+    }
+
+    private void writeItems(ItemSet itemSet) throws IOException {
+        out.writeInt(itemSet.size());
+        for (int i = 0; i < itemSet.size(); i++) {
+            out.writeInt(itemSet.get(i));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.writeInt(END_TAG);
+            out.writeLong(numItemSets);
+            out.writeLong(numRules);
+        } finally {
+            out.close();
+        }
+    }
+}
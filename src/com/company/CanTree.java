@@ -0,0 +1,152 @@
+package com.company;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Canonical-order prefix tree (CanTree) over a changing set of transactions, after Leung, Khan and Hoque.
+ *
+ * Unlike an FP-tree, items are always inserted in a fixed canonical order (ascending item id) instead of by
+ * frequency, so the tree never has to be restructured when frequencies shift or new items appear. That makes
+ * it cheap to add a transaction when it enters a sliding window and to remove it again when it leaves.
+ * The tree itself is only a compressed copy of the window; mining hands its distinct paths, weighted by how
+ * many transactions end there, to {@link FPGrowth}.
+ */
+public class CanTree {
+    private final Node root = new Node(-1);
+    private int numTransactions;
+    private int numNodes;
+
+    /**
+     * @param transaction - an encoded data row
+     */
+    public void add(ItemSet transaction) {
+        Node node = root;
+        for (int i = 0; i < transaction.size(); i++) {
+            int item = transaction.get(i);
+            if (node.children == null) {
+                node.children = new HashMap<>();
+            }
+
+            Node child = node.children.get(item);
+            if (child == null) {
+                child = new Node(item);
+                node.children.put(item, child);
+                numNodes++;
+            }
+            child.count++;
+            node = child;
+        }
+        root.count++;
+        numTransactions++;
+    }
+
+    /**
+     * Removes a transaction that was added before, dropping the nodes no transaction passes through anymore
+     *
+     * @param transaction - an encoded data row that is in the tree
+     */
+    public void remove(ItemSet transaction) {
+        // Found first, so a transaction that isn't in the tree leaves the counts alone
+        Node[] path = new Node[transaction.size()];
+        Node node = root;
+        for (int i = 0; i < path.length; i++) {
+            node = node.children == null ? null : node.children.get(transaction.get(i));
+            if (node == null) {
+                throw new IllegalStateException("Transaction " + transaction + " is not in the tree");
+            }
+            path[i] = node;
+        }
+
+        Node parent = root;
+        for (Node child : path) {
+            child.count--;
+            if (child.count == 0) {
+                parent.children.remove(child.item);
+                numNodes -= child.size();
+                break;
+            }
+            parent = child;
+        }
+        root.count--;
+        numTransactions--;
+    }
+
+    /**
+     * @return the number of transactions in the tree
+     */
+    public int getNumTransactions() {
+        return numTransactions;
+    }
+
+    /**
+     * @return the number of item nodes in the tree
+     */
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    /**
+     * Mines every itemset that occurs in at least minCount of the transactions in the tree
+     *
+     * @param numItems - the number of distinct encoded items
+     * @param minCount - the minimum number of transactions an itemset has to occur in
+     * @return (Key,Value) pairs of frequent itemsets and their respective frequencies in the tree
+     */
+    public ItemSetCountMap mine(int numItems, int minCount) {
+        ArrayList<ItemSet> paths = new ArrayList<>();
+        ArrayList<Integer> weights = new ArrayList<>();
+        collectPaths(root, new int[0], paths, weights);
+
+        int[] weightArray = new int[weights.size()];
+        for (int i = 0; i < weightArray.length; i++) {
+            weightArray[i] = weights.get(i);
+        }
+        return FPGrowth.mine(paths, weightArray, numItems, minCount);
+    }
+
+    /**
+     * Emits every path that transactions end at, with the number of transactions ending there
+     */
+    private static void collectPaths(Node node, int[] path, ArrayList<ItemSet> paths, ArrayList<Integer> weights) {
+        int endingHere = node.count;
+        if (node.children != null) {
+            for (Node child : node.children.values()) {
+                endingHere -= child.count;
+
+                int[] childPath = new int[path.length + 1];
+                System.arraycopy(path, 0, childPath, 0, path.length);
+                childPath[path.length] = child.item;
+                collectPaths(child, childPath, paths, weights);
+            }
+        }
+
+        if (endingHere > 0 && path.length > 0) {
+            paths.add(ItemSet.ofSorted(path));
+            weights.add(endingHere);
+        }
+    }
+
+    private static final class Node {
+        private final int item;
+        private int count;
+        private HashMap<Integer, Node> children;
+
+        private Node(int item) {
+            this.item = item;
+        }
+
+        /**
+         * @return the number of nodes in the subtree rooted at this node
+         */
+        private int size() {
+            int size = 1;
+            if (children != null) {
+                for (Node child : children.values()) {
+                    size += child.size();
+                }
+            }
+            return size;
+        }
+    }
+}
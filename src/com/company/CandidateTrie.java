@@ -0,0 +1,123 @@
+package com.company;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Prefix trie over the candidates of one Apriori level, keyed on their sorted encoded item ids.
+ *
+ * Instead of scanning the whole data once per candidate, every transaction is walked through the trie
+ * once and increments the count of each candidate it contains. Children of a node are kept in a sorted
+ * array so a transaction and a node's children can be intersected with a single merge.
+ */
+public class CandidateTrie {
+    private final Node root = new Node();
+    private final int depth;
+    private final int[] counts;
+
+    /**
+     * @param candidates - the candidates of one level, all of the same size
+     */
+    public CandidateTrie(List<ItemSet> candidates) {
+        this.depth = candidates.isEmpty() ? 0 : candidates.get(0).size();
+        this.counts = new int[candidates.size()];
+
+        // Inserting in lexicographic order means a new child always goes at the end of its parent's arrays
+        Integer[] order = new Integer[candidates.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> candidates.get(a).compareTo(candidates.get(b)));
+
+        for (int index : order) {
+            ItemSet candidate = candidates.get(index);
+            Node node = root;
+            for (int d = 0; d < depth; d++) {
+                node = node.childFor(candidate.get(d));
+            }
+            node.candidateIndex = index;
+        }
+    }
+
+    /**
+     * Increments the count of every candidate that is contained in the transaction
+     *
+     * @param transaction - an encoded data row
+     */
+    public void count(ItemSet transaction) {
+        count(transaction, counts);
+    }
+
+    /**
+     * Increments the given counts for every candidate contained in the transaction.
+     * The trie itself is only read, so several threads can count into their own arrays at the same time.
+     *
+     * @param transaction - an encoded data row
+     * @param counts      - one counter per candidate, in the order they were passed to the constructor
+     */
+    public void count(ItemSet transaction, int[] counts) {
+        count(transaction, 1, counts);
+    }
+
+    /**
+     * Adds the weight of a collapsed row to the given counts of every candidate contained in it
+     *
+     * @param transaction - an encoded data row
+     * @param weight      - the number of transactions the row stands for
+     * @param counts      - one counter per candidate, in the order they were passed to the constructor
+     */
+    public void count(ItemSet transaction, int weight, int[] counts) {
+        if (depth == 0 || transaction.size() < depth) return;
+        walk(root, transaction, 0, 0, weight, counts);
+    }
+
+    /**
+     * @return the counts of the candidates, in the order they were passed to the constructor
+     */
+    public int[] getCounts() {
+        return counts;
+    }
+
+    private void walk(Node node, ItemSet transaction, int start, int level, int weight, int[] counts) {
+        if (level == depth) {
+            counts[node.candidateIndex] += weight;
+            return;
+        }
+
+        // The remaining levels need at least (depth - level - 1) items after the one chosen here
+        int end = transaction.size() - (depth - level - 1);
+        int c = 0;
+        for (int t = start; t < end && c < node.numChildren; t++) {
+            int item = transaction.get(t);
+            while (c < node.numChildren && node.childItems[c] < item) c++;
+            if (c < node.numChildren && node.childItems[c] == item) {
+                walk(node.children[c], transaction, t + 1, level + 1, weight, counts);
+                c++;
+            }
+        }
+    }
+
+    private static final class Node {
+        private int[] childItems = new int[0];
+        private Node[] children = new Node[0];
+        private int numChildren;
+        private int candidateIndex = -1;
+
+        private Node childFor(int item) {
+            if (numChildren > 0 && childItems[numChildren - 1] == item) {
+                return children[numChildren - 1];
+            }
+
+            if (numChildren == childItems.length) {
+                int capacity = Math.max(2, numChildren * 2);
+                childItems = Arrays.copyOf(childItems, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            Node child = new Node();
+            childItems[numChildren] = item;
+            children[numChildren] = child;
+            numChildren++;
+            return child;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.company;
+
+import java.util.List;
+
+/**
+ * Closed and maximal frequent itemset mining in the style of Uno, Kiyomi and Arimura's LCM.
+ *
+ * An itemset is closed if no superset occurs in the same transactions, and maximal if no superset is frequent
+ * at all. The closed itemsets keep the exact support of every frequent itemset (it's the support of its smallest
+ * closed superset) while usually being orders of magnitude fewer; the maximal ones are fewer still but only tell
+ * which itemsets are frequent.
+ *
+ * The search walks from closed itemset to closed itemset: extending one by an item e and taking the closure (every
+ * item shared by all transactions that contain the extension) gives the next closed itemset. An extension is only
+ * followed if the closure adds no item smaller than e (prefix-preserving closure extension), which reaches every
+ * closed itemset exactly once without remembering the ones already found. The transactions of every extension are
+ * gathered in one pass over the current transactions (occurrence deliver).
+ *
+ * A closed itemset is maximal if none of its single-item extensions is frequent, which the item counts of its own
+ * transactions already show, so maximal mining is the same search with a stricter output test.
+ */
+public class ClosedItemSetMiner {
+    private final List<ItemSet> transactions;
+    private final int numItems;
+    private final int minCount;
+    private final boolean maximalOnly;
+    private final ItemSetCountMap closedItemSets = new ItemSetCountMap();
+
+    private ClosedItemSetMiner(List<ItemSet> transactions, int numItems, int minCount, boolean maximalOnly) {
+        this.transactions = transactions;
+        this.numItems = numItems;
+        this.minCount = Math.max(1, minCount);
+        this.maximalOnly = maximalOnly;
+    }
+
+    /**
+     * Mines every closed itemset that occurs in at least minCount transactions
+     *
+     * @param transactions - the encoded data
+     * @param numItems     - the number of distinct encoded items
+     * @param minCount     - the minimum number of transactions an itemset has to occur in
+     * @param maximalOnly  - true to keep only the maximal itemsets
+     * @return (Key,Value) pairs of closed (or maximal) frequent itemsets and their respective frequencies in the data
+     */
+    public static ItemSetCountMap mine(List<ItemSet> transactions, int numItems, int minCount, boolean maximalOnly) {
+        ClosedItemSetMiner miner = new ClosedItemSetMiner(transactions, numItems, minCount, maximalOnly);
+        if (transactions.size() >= miner.minCount) {
+            int[] tids = new int[transactions.size()];
+            for (int i = 0; i < tids.length; i++) {
+                tids[i] = i;
+            }
+            int[] counts = miner.countItems(tids);
+            miner.expand(miner.closure(counts, tids.length), tids, counts, -1);
+        }
+        return miner.closedItemSets;
+    }
+
+    /**
+     * Records a closed itemset and follows all of its prefix-preserving closure extensions
+     *
+     * @param itemSet - the closed itemset, sorted
+     * @param tids    - the transactions that contain it
+     * @param counts  - the frequency of every item within those transactions
+     * @param core    - the item the itemset was extended by; only larger items extend it further
+     */
+    private void expand(int[] itemSet, int[] tids, int[] counts, int core) {
+        boolean maximal = true;
+        for (int e = 0; e < numItems && maximal; e++) {
+            // Items of the itemset itself occur in every transaction; any other frequent item is a frequent extension
+            if (counts[e] >= minCount && counts[e] < tids.length) {
+                maximal = false;
+            }
+        }
+        if (itemSet.length > 0 && (maximal || !maximalOnly)) {
+            closedItemSets.put(ItemSet.ofSorted(itemSet), tids.length);
+        }
+
+        int[][] occurrences = deliverOccurrences(tids, counts, core);
+        for (int e = core + 1; e < numItems; e++) {
+            int[] extensionTids = occurrences[e];
+            if (extensionTids == null) continue;
+
+            int[] extensionCounts = countItems(extensionTids);
+
+            // The closure may not add an item smaller than e that the itemset doesn't have yet
+            boolean prefixPreserved = true;
+            for (int i = 0; i < e && prefixPreserved; i++) {
+                if (extensionCounts[i] == extensionTids.length && counts[i] < tids.length) {
+                    prefixPreserved = false;
+                }
+            }
+            if (prefixPreserved) {
+                expand(closure(extensionCounts, extensionTids.length), extensionTids, extensionCounts, e);
+            }
+        }
+    }
+
+    /**
+     * Gathers, in one pass, the transactions of every frequent item larger than core that isn't in every transaction
+     *
+     * @return the transactions of each such item, indexed by item, or null for every other item
+     */
+    private int[][] deliverOccurrences(int[] tids, int[] counts, int core) {
+        int[][] occurrences = new int[numItems][];
+        int[] sizes = new int[numItems];
+        for (int e = core + 1; e < numItems; e++) {
+            if (counts[e] >= minCount && counts[e] < tids.length) {
+                occurrences[e] = new int[counts[e]];
+            }
+        }
+
+        for (int tid : tids) {
+            ItemSet transaction = transactions.get(tid);
+            for (int i = transaction.size() - 1; i >= 0; i--) {
+                int item = transaction.get(i);
+                if (item <= core) break;
+                if (occurrences[item] != null) {
+                    occurrences[item][sizes[item]++] = tid;
+                }
+            }
+        }
+        return occurrences;
+    }
+
+    /**
+     * @return the frequency of every item within the given transactions
+     */
+    private int[] countItems(int[] tids) {
+        int[] counts = new int[numItems];
+        for (int tid : tids) {
+            ItemSet transaction = transactions.get(tid);
+            for (int i = 0; i < transaction.size(); i++) {
+                counts[transaction.get(i)]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * @return the sorted items that occur in every one of numTids transactions
+     */
+    private int[] closure(int[] counts, int numTids) {
+        int size = 0;
+        for (int count : counts) {
+            if (count == numTids) size++;
+        }
+
+        int[] closure = new int[size];
+        int i = 0;
+        for (int item = 0; item < counts.length; item++) {
+            if (counts[item] == numTids) {
+                closure[i++] = item;
+            }
+        }
+        return closure;
+    }
+}
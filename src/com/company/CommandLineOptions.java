@@ -0,0 +1,631 @@
+package com.company;
+
+import java.io.File;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The settings of one command line run. Positional arguments come first, optional "--name=value" flags may
+ * appear anywhere. Invalid values are reported and replaced by their defaults, just like before.
+ *
+ * Usage: Main [input [minSup [minConf [numRulesToPrint [output [testRunTime(y/n)]]]]]] [--options]
+ */
+final class CommandLineOptions {
+    /**
+     * What kind of run the options ask for
+     */
+    enum Mode {
+        // Load the whole input and mine it
+        BATCH,
+        // Mine the input in two passes over fixed-size partitions
+        PARTITIONED,
+        // Add the input as a new batch on top of an existing itemset snapshot
+        INCREMENTAL,
+        // Follow a feed of basket lines over a sliding window
+        WINDOW,
+        // Mine the input once and print the rules of every support and confidence of a grid
+        SWEEP,
+        // Load the whole input, mine it and write the itemsets and rules in the stream format as they're produced
+        STREAM,
+        // Count the candidates of the workers' shards and mine them from here
+        DISTRIBUTED,
+        // Load the input as a shard and count it for coordinators until stopped
+        WORKER
+    }
+
+    private double minSup = 0.55;
+    private double minConf = 0.9;
+    private int numRulesToPrint = 10;
+    private int topK = 0;
+    private String inputFilePath = "vote.arff";
+    private String outputFilePath = "result.txt";
+    private boolean testRunTime = false;
+    private String loader = "weka";
+    private boolean useCache = false;
+    private String miningEngine = "apriori";
+    private String countingEngine = "horizontal";
+    private String pairCounting = "candidates";
+    private int numThreads = 1;
+    private int partitionRows = 0;
+    private String snapshotFilePath = null;
+    private int windowSize = 0;
+    private long windowMillis = 0;
+    private int emitEveryTransactions = 0;
+    private long emitEveryMillis = 10000;
+    private double[] sweepSupports = null;
+    private double[] sweepConfidences = null;
+    private String itemSetMode = "all";
+    private String ruleMode = "all";
+    private String metricsFormat = "none";
+    private String streamFormat = "none";
+    private int workerPort = 0;
+    private InetAddress workerBindAddress = InetAddress.getLoopbackAddress();
+    private int workerTimeoutMillis = DistributedMiner.DEFAULT_TIMEOUT_MILLIS;
+    private String workersArgument = null;
+    private List<InetSocketAddress> workerAddresses = null;
+    private Mode mode;
+
+    private CommandLineOptions() {
+    }
+
+    /**
+     * @param args - the command line arguments
+     * @return the options, with every invalid value reported and replaced by its default
+     */
+    static CommandLineOptions parse(String[] args) {
+        CommandLineOptions options = new CommandLineOptions();
+        int position = 0;
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                options.handleOption(arg);
+            } else {
+                options.handlePositional(position++, arg);
+            }
+        }
+        options.mode = options.resolveMode();
+        return options;
+    }
+
+    private void handlePositional(int position, String arg) {
+        switch (position) {
+            case 0:
+                inputFilePath = arg;
+                break;
+            case 1:
+                minSup = Double.parseDouble(arg);
+                if (minSup < 0.0 || minSup > 1.0) {
+                    System.out.println("Invalid minimum support. Using default of 0.55");
+                    minSup = 0.55;
+                }
+                break;
+            case 2:
+                minConf = Double.parseDouble(arg);
+                if (minConf < 0.0 || minConf > 1.0) {
+                    System.out.println("Invalid minimum confidence. Using default of 0.9");
+                    minConf = 0.9;
+                }
+                break;
+            case 3:
+                numRulesToPrint = Integer.parseInt(arg);
+                if (numRulesToPrint < 0) {
+                    System.out.println("Invalid number of rules to print. Using default of 10");
+                    numRulesToPrint = 10;
+                }
+                break;
+            case 4:
+                outputFilePath = arg;
+                break;
+            case 5:
+                if (!arg.equalsIgnoreCase("y") && !arg.equalsIgnoreCase("n")) {
+                    System.out.println("Invalid input for runtime testing. Using default answer (n).");
+                }
+                testRunTime = arg.equalsIgnoreCase("y");
+                break;
+        }
+    }
+
+    /**
+     * Handles an optional "--name=value" argument
+     *
+     * @param arg - the raw command line argument
+     */
+    private void handleOption(String arg) {
+        int equalsIndex = arg.indexOf('=');
+        String name = equalsIndex < 0 ? arg.substring(2) : arg.substring(2, equalsIndex);
+        String value = equalsIndex < 0 ? "" : arg.substring(equalsIndex + 1);
+
+        switch (name) {
+            case "loader":
+                if (value.equalsIgnoreCase("weka") || value.equalsIgnoreCase("streaming")) {
+                    loader = value.toLowerCase();
+                } else {
+                    System.out.println("Invalid loader. Using default (weka).");
+                }
+                break;
+            case "cache":
+                if (!value.equalsIgnoreCase("y") && !value.equalsIgnoreCase("n")) {
+                    System.out.println("Invalid input for the encoded data cache. Using default answer (n).");
+                }
+                useCache = value.equalsIgnoreCase("y");
+                break;
+            case "engine":
+                if (value.equalsIgnoreCase("apriori") || value.equalsIgnoreCase("fpgrowth")
+                        || value.equalsIgnoreCase("eclat") || value.equalsIgnoreCase("declat")) {
+                    miningEngine = value.toLowerCase();
+                } else {
+                    System.out.println("Invalid mining engine. Using default (apriori).");
+                }
+                break;
+            case "counting":
+                if (value.equalsIgnoreCase("horizontal") || value.equalsIgnoreCase("vertical") || value.equalsIgnoreCase("trie")) {
+                    countingEngine = value.toLowerCase();
+                } else {
+                    System.out.println("Invalid counting engine. Using default (horizontal).");
+                }
+                break;
+            case "pairs":
+                if (value.equalsIgnoreCase("candidates") || value.equalsIgnoreCase("triangular") || value.equalsIgnoreCase("dhp")) {
+                    pairCounting = value.toLowerCase();
+                } else {
+                    System.out.println("Invalid pair counting. Using default (candidates).");
+                }
+                break;
+            case "topk":
+                topK = parseCount(value);
+                if (topK < 0) {
+                    System.out.println("Invalid number of top rules. Generating all rules instead.");
+                    topK = 0;
+                }
+                break;
+            case "partition-rows":
+                partitionRows = parseCount(value);
+                if (partitionRows < 0) {
+                    System.out.println("Invalid partition size. Mining the data in memory instead.");
+                    partitionRows = 0;
+                }
+                break;
+            case "incremental":
+                if (value.isEmpty()) {
+                    System.out.println("Missing snapshot file for incremental mining. Mining from scratch without one.");
+                } else {
+                    snapshotFilePath = value;
+                }
+                break;
+            case "window":
+                long windowDuration = parseDurationMillis(value);
+                if (windowDuration > 0) {
+                    windowMillis = windowDuration;
+                } else if (windowDuration < 0 && parseCount(value) > 0) {
+                    windowSize = parseCount(value);
+                } else {
+                    System.out.println("Invalid sliding window. Mining the input as a batch instead.");
+                }
+                break;
+            case "emit-every":
+                long emitDuration = parseDurationMillis(value);
+                if (emitDuration > 0) {
+                    emitEveryMillis = emitDuration;
+                    emitEveryTransactions = 0;
+                } else if (emitDuration < 0 && parseCount(value) > 0) {
+                    emitEveryTransactions = parseCount(value);
+                    emitEveryMillis = 0;
+                } else {
+                    System.out.println("Invalid emit interval. Using default (10s).");
+                }
+                break;
+            case "itemsets":
+                if (value.equalsIgnoreCase("all") || value.equalsIgnoreCase("closed") || value.equalsIgnoreCase("maximal")) {
+                    itemSetMode = value.toLowerCase();
+                } else {
+                    System.out.println("Invalid itemsets. Using default (all).");
+                }
+                break;
+            case "rules":
+                if (value.equalsIgnoreCase("all") || value.equalsIgnoreCase("nonredundant")) {
+                    ruleMode = value.toLowerCase();
+                } else {
+                    System.out.println("Invalid rules. Using default (all).");
+                }
+                break;
+            case "metrics":
+                if (value.equalsIgnoreCase("none") || value.equalsIgnoreCase("json") || value.equalsIgnoreCase("prometheus")) {
+                    metricsFormat = value.toLowerCase();
+                } else {
+                    System.out.println("Invalid metrics format. Using default (none).");
+                }
+                break;
+            case "stream":
+                if (value.equalsIgnoreCase("none") || value.equalsIgnoreCase("weka") || value.equalsIgnoreCase("jsonl")
+                        || value.equalsIgnoreCase("csv") || value.equalsIgnoreCase("binary")) {
+                    streamFormat = value.toLowerCase();
+                } else {
+                    System.out.println("Invalid stream format. Using default (none).");
+                }
+                break;
+            case "sweep-support":
+                sweepSupports = parseThresholds(value);
+                if (sweepSupports == null) {
+                    System.out.println("Invalid sweep supports. Using the minimum support only.");
+                }
+                break;
+            case "sweep-confidence":
+                sweepConfidences = parseThresholds(value);
+                if (sweepConfidences == null) {
+                    System.out.println("Invalid sweep confidences. Using the minimum confidence only.");
+                }
+                break;
+            case "worker":
+                workerPort = parseCount(value);
+                if (workerPort < 1 || workerPort > 65535) {
+                    System.out.println("Invalid worker port. Mining the input file instead.");
+                    workerPort = 0;
+                }
+                break;
+            case "bind":
+                try {
+                    workerBindAddress = InetAddress.getByName(value);
+                } catch (UnknownHostException e) {
+                    System.out.println("Invalid bind address. Using default (loopback).");
+                }
+                break;
+            case "worker-timeout":
+                long timeout = parseDurationMillis(value);
+                if (timeout > 0 && timeout <= Integer.MAX_VALUE) {
+                    workerTimeoutMillis = (int) timeout;
+                } else {
+                    System.out.println("Invalid worker timeout. Using default (10m).");
+                }
+                break;
+            case "workers":
+                workerAddresses = parseWorkerAddresses(value);
+                if (workerAddresses == null) {
+                    System.out.println("Invalid workers. Mining the input file instead.");
+                } else {
+                    workersArgument = value;
+                }
+                break;
+            case "threads":
+                numThreads = parseCount(value);
+                if (numThreads < 1) {
+                    System.out.println("Invalid number of threads. Using default of 1");
+                    numThreads = 1;
+                }
+                break;
+            default:
+                System.out.println("Unknown option " + arg + ". Ignoring it.");
+                break;
+        }
+    }
+
+    /**
+     * Picks the kind of run once every argument is known, reporting options that the chosen run ignores
+     */
+    private Mode resolveMode() {
+        boolean sweep = sweepSupports != null || sweepConfidences != null;
+
+        if (workerPort > 0) {
+            if (workerAddresses != null) {
+                System.out.println("A counting worker doesn't coordinate other workers. Ignoring the workers.");
+            }
+            if (!miningEngine.equals("apriori")) {
+                System.out.println("Workers count Apriori candidates. Ignoring the mining engine.");
+                miningEngine = "apriori";
+            }
+            if (countingEngine.equals("vertical")) {
+                System.out.println("Workers count horizontally or with the trie. Using default (horizontal).");
+                countingEngine = "horizontal";
+            }
+            if (!pairCounting.equals("candidates")) {
+                System.out.println("Workers count the candidate pairs the coordinator sends. Ignoring the pair counting.");
+                pairCounting = "candidates";
+            }
+            return Mode.WORKER;
+        }
+        if (workerAddresses != null) {
+            if (windowSize > 0 || windowMillis > 0 || snapshotFilePath != null || partitionRows > 0) {
+                System.out.println("The workers own the data in distributed mode. Ignoring the window, snapshot and partition size.");
+                windowSize = 0;
+                windowMillis = 0;
+                snapshotFilePath = null;
+                partitionRows = 0;
+            }
+            // The report names the workers in place of an input file
+            inputFilePath = workersArgument;
+        }
+
+        if (ruleMode.equals("nonredundant") && !itemSetMode.equals("closed")) {
+            System.out.println("Non-redundant rules are generated from closed itemsets. Mining closed itemsets.");
+            itemSetMode = "closed";
+        }
+        if (!itemSetMode.equals("all") && (windowSize > 0 || windowMillis > 0 || partitionRows > 0 || snapshotFilePath != null
+                || workerAddresses != null || sweep)) {
+            System.out.println("Closed and maximal itemsets are only mined in memory in a single run. Mining every frequent itemset instead.");
+            itemSetMode = "all";
+        }
+        if (!pairCounting.equals("candidates") && countingEngine.equals("vertical")) {
+            System.out.println("Vertical counting only counts pairs from candidates. Ignoring the pair counting.");
+            pairCounting = "candidates";
+        }
+        if (!metricsFormat.equals("none") && (windowSize > 0 || windowMillis > 0 || sweep)) {
+            System.out.println("Metrics are only exported for a single mining run. Not exporting them.");
+            metricsFormat = "none";
+        }
+        if (!streamFormat.equals("none") && (windowSize > 0 || windowMillis > 0 || sweep)) {
+            System.out.println("Streaming output is only written for a single mining run. Writing the usual report instead.");
+            streamFormat = "none";
+        }
+        if (!streamFormat.equals("none") && (partitionRows > 0 || snapshotFilePath != null || workerAddresses != null)) {
+            System.out.println("Streaming output needs all the data in memory. Writing the usual report instead.");
+            streamFormat = "none";
+        }
+
+        if (windowSize > 0 || windowMillis > 0) {
+            return Mode.WINDOW;
+        }
+
+        if (workerAddresses != null) {
+            if (sweep) {
+                System.out.println("Threshold sweeps need all the data in memory. Mining the given thresholds only.");
+            }
+            return Mode.DISTRIBUTED;
+        }
+
+        // Without a snapshot yet, this run mines from scratch and leaves the first snapshot behind
+        if (snapshotFilePath != null && new File(snapshotFilePath).isFile()) {
+            if (partitionRows > 0) {
+                System.out.println("New batches are mined in memory in incremental mode. Ignoring the partition size.");
+                partitionRows = 0;
+            }
+            if (sweep) {
+                System.out.println("Threshold sweeps need all the data in memory. Mining the given thresholds only.");
+            }
+            return Mode.INCREMENTAL;
+        }
+
+        if (partitionRows > 0) {
+            if (sweep) {
+                System.out.println("Threshold sweeps need all the data in memory. Mining the given thresholds only.");
+            }
+            return Mode.PARTITIONED;
+        }
+
+        if (sweep) {
+            return Mode.SWEEP;
+        }
+        return streamFormat.equals("none") ? Mode.BATCH : Mode.STREAM;
+    }
+
+    /**
+     * @param value - a whole number like "4"
+     * @return the number, or -1 if the value isn't one
+     */
+    static int parseCount(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param value - comma separated worker addresses like "localhost:7001,localhost:7002"
+     * @return the addresses, or null if any of them has no host or a port that isn't valid
+     */
+    static List<InetSocketAddress> parseWorkerAddresses(String value) {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (String address : value.split(",")) {
+            address = address.trim();
+            int colonIndex = address.lastIndexOf(':');
+            if (colonIndex <= 0) {
+                return null;
+            }
+            int port = parseCount(address.substring(colonIndex + 1));
+            if (port < 1 || port > 65535) {
+                return null;
+            }
+            addresses.add(new InetSocketAddress(address.substring(0, colonIndex), port));
+        }
+        return addresses;
+    }
+
+    /**
+     * @param value - comma separated thresholds like "0.1,0.2,0.3"
+     * @return the thresholds, or null if any of them isn't between 0.0 and 1.0
+     */
+    static double[] parseThresholds(String value) {
+        String[] split = value.split(",");
+        double[] thresholds = new double[split.length];
+        for (int i = 0; i < split.length; i++) {
+            try {
+                thresholds[i] = Double.parseDouble(split[i].trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (thresholds[i] < 0.0 || thresholds[i] > 1.0) {
+                return null;
+            }
+        }
+        return thresholds;
+    }
+
+    /**
+     * @param value - a duration like "500ms", "30s", "5m" or "1h"
+     * @return the duration in milliseconds, or -1 if the value has no time unit or isn't a number
+     */
+    static long parseDurationMillis(String value) {
+        String[] units = {"ms", "s", "m", "h"};
+        long[] millis = {1, 1000, 60000, 3600000};
+        for (int i = 0; i < units.length; i++) {
+            if (value.endsWith(units[i]) && value.length() > units[i].length()
+                    && Character.isDigit(value.charAt(value.length() - units[i].length() - 1))) {
+                try {
+                    return Long.parseLong(value.substring(0, value.length() - units[i].length())) * millis[i];
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the mining settings the options ask for
+     */
+    MiningConfig toConfig() {
+        return new MiningConfig()
+                .withMinSupport(minSup)
+                .withMinConfidence(minConf)
+                .withTopK(topK)
+                .withEngine(createEngine())
+                .withItemSets(MiningConfig.ItemSets.valueOf(itemSetMode.toUpperCase()));
+    }
+
+    /**
+     * @return the selected mining engine, with the selected counting, threads and pair counting for Apriori
+     */
+    private FrequentItemSetMiner createEngine() {
+        switch (miningEngine) {
+            case "fpgrowth":
+                return FrequentItemSetMiner.FP_GROWTH;
+            case "eclat":
+                return FrequentItemSetMiner.ECLAT;
+            case "declat":
+                return FrequentItemSetMiner.DECLAT;
+            default:
+                return new AprioriMiner(AprioriMiner.Counting.valueOf(countingEngine.toUpperCase()), numThreads,
+                        AprioriMiner.PairCounting.valueOf(pairCounting.toUpperCase()));
+        }
+    }
+
+    Mode getMode() {
+        return mode;
+    }
+
+    int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * @return the supports of the sweep, or just the minimum support if only confidences are swept
+     */
+    double[] getSweepSupports() {
+        return sweepSupports != null ? sweepSupports.clone() : new double[]{minSup};
+    }
+
+    /**
+     * @return the confidences of the sweep, or just the minimum confidence if only supports are swept
+     */
+    double[] getSweepConfidences() {
+        return sweepConfidences != null ? sweepConfidences.clone() : new double[]{minConf};
+    }
+
+    /**
+     * @return the file to write the metrics of the run to, next to the output file (e.g. result.metrics.json or
+     * result.prom for result.txt), or null without --metrics
+     */
+    File getMetricsFile() {
+        if (metricsFormat.equals("none")) {
+            return null;
+        }
+
+        String basePath = outputFilePath;
+        int extensionIndex = basePath.lastIndexOf('.');
+        if (extensionIndex > basePath.lastIndexOf(File.separatorChar)) {
+            basePath = basePath.substring(0, extensionIndex);
+        }
+        return new File(basePath + (metricsFormat.equals("json") ? ".metrics.json" : ".prom"));
+    }
+
+    /**
+     * @return true if the metrics file is JSON rather than the Prometheus text format
+     */
+    boolean isJsonMetrics() {
+        return metricsFormat.equals("json");
+    }
+
+    /**
+     * @return the format the results are streamed in ("weka", "jsonl", "csv" or "binary"), or "none" for the report
+     */
+    String getStreamFormat() {
+        return streamFormat;
+    }
+
+    int getWorkerPort() {
+        return workerPort;
+    }
+
+    InetAddress getWorkerBindAddress() {
+        return workerBindAddress;
+    }
+
+    /**
+     * @return how long a worker may take to count a level, and how long a worker waits for its coordinator
+     */
+    int getWorkerTimeoutMillis() {
+        return workerTimeoutMillis;
+    }
+
+    /**
+     * @return the workers to coordinate, or null if the data isn't distributed
+     */
+    List<InetSocketAddress> getWorkerAddresses() {
+        return workerAddresses;
+    }
+
+    int getNumRulesToPrint() {
+        return numRulesToPrint;
+    }
+
+    String getInputFilePath() {
+        return inputFilePath;
+    }
+
+    String getOutputFilePath() {
+        return outputFilePath;
+    }
+
+    boolean isTestRunTime() {
+        return testRunTime;
+    }
+
+    /**
+     * @return true if the input should be read with {@link StreamingLoader} rather than Weka
+     */
+    boolean isStreamingLoader() {
+        return loader.equals("streaming");
+    }
+
+    boolean isUseCache() {
+        return useCache;
+    }
+
+    int getPartitionRows() {
+        return partitionRows;
+    }
+
+    /**
+     * @return the itemset snapshot to continue from and to write afterwards, or null without --incremental
+     */
+    String getSnapshotFilePath() {
+        return snapshotFilePath;
+    }
+
+    int getWindowSize() {
+        return windowSize;
+    }
+
+    long getWindowMillis() {
+        return windowMillis;
+    }
+
+    int getEmitEveryTransactions() {
+        return emitEveryTransactions;
+    }
+
+    long getEmitEveryMillis() {
+        return emitEveryMillis;
+    }
+}
@@ -0,0 +1,117 @@
+package com.company;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The messages between a {@link DistributedMiner} and its {@link CountingWorker}s, big-endian over a socket:
+ * <ol>
+ *     <li>coordinator: magic and version, so a worker tells nothing about its shard to anything else that connects</li>
+ *     <li>worker: magic, version, its number of instances, its attribute names and its item names</li>
+ *     <li>coordinator: the number of global items, and the global id of every item of the worker</li>
+ *     <li>coordinator: COUNT with the candidates of a level, worker: the count of every candidate in its shard.
+ *     Repeated once per level.</li>
+ *     <li>coordinator: DONE, after which the worker waits for the next coordinator</li>
+ * </ol>
+ * Every size read off the wire is checked before it's used, and lists only grow as their elements actually
+ * arrive, so a broken or hostile peer can't make the other side allocate more than it sends.
+ */
+final class CountingProtocol {
+    static final int MAGIC = 0x41504443;
+    static final int VERSION = 2;
+    static final int COUNT = 1;
+    static final int DONE = 2;
+    // The most items a job may have, and the most names or itemsets a list is given room for up front
+    static final int MAX_ITEMS = 1 << 24;
+    private static final int MAX_INITIAL_CAPACITY = 1 << 16;
+
+    private CountingProtocol() {
+    }
+
+    /**
+     * Reads the magic and version the other side starts with
+     *
+     * @param in - the stream to read from
+     * @throws IOException - if the stream can't be read or the other side doesn't speak this version of the protocol
+     */
+    static void readHello(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("The other side doesn't speak version " + VERSION + " of the counting protocol");
+        }
+    }
+
+    /**
+     * @param out - the stream to write to
+     * @param itemSets - itemsets that all have the same size
+     * @throws IOException - if the stream can't be written
+     */
+    static void writeItemSets(DataOutputStream out, List<ItemSet> itemSets) throws IOException {
+        out.writeInt(itemSets.size());
+        out.writeInt(itemSets.isEmpty() ? 0 : itemSets.get(0).size());
+        for (ItemSet itemSet : itemSets) {
+            for (int i = 0; i < itemSet.size(); i++) {
+                out.writeInt(itemSet.get(i));
+            }
+        }
+    }
+
+    /**
+     * @param in - the stream to read from
+     * @param numItems - the number of items of the job; every item id has to be below it
+     * @return the itemsets written by {@link #writeItemSets}
+     * @throws IOException - if the stream can't be read, or doesn't hold sorted itemsets of valid item ids
+     */
+    static ArrayList<ItemSet> readItemSets(DataInputStream in, int numItems) throws IOException {
+        int numItemSets = in.readInt();
+        int size = in.readInt();
+        if (numItemSets < 0 || size < 0 || size > numItems || (numItemSets > 0 && size == 0)) {
+            throw new IOException("Invalid list of " + numItemSets + " itemsets of size " + size);
+        }
+
+        ArrayList<ItemSet> itemSets = new ArrayList<>(Math.min(numItemSets, MAX_INITIAL_CAPACITY));
+        for (int i = 0; i < numItemSets; i++) {
+            int[] items = new int[size];
+            for (int j = 0; j < size; j++) {
+                items[j] = in.readInt();
+                if (items[j] < 0 || items[j] >= numItems || (j > 0 && items[j] <= items[j - 1])) {
+                    throw new IOException("Invalid item " + items[j] + " in an itemset");
+                }
+            }
+            itemSets.add(ItemSet.ofSorted(items));
+        }
+        return itemSets;
+    }
+
+    /**
+     * @param out - the stream to write to
+     * @param names - the names to write
+     * @throws IOException - if the stream can't be written
+     */
+    static void writeNames(DataOutputStream out, List<String> names) throws IOException {
+        out.writeInt(names.size());
+        for (String name : names) {
+            out.writeUTF(name);
+        }
+    }
+
+    /**
+     * @param in - the stream to read from
+     * @return the names written by {@link #writeNames}
+     * @throws IOException - if the stream can't be read, or holds more than {@link #MAX_ITEMS} names
+     */
+    static ArrayList<String> readNames(DataInputStream in) throws IOException {
+        int numNames = in.readInt();
+        if (numNames < 0 || numNames > MAX_ITEMS) {
+            throw new IOException("Invalid number of names " + numNames);
+        }
+
+        ArrayList<String> names = new ArrayList<>(Math.min(numNames, MAX_INITIAL_CAPACITY));
+        for (int i = 0; i < numNames; i++) {
+            names.add(in.readUTF());
+        }
+        return names;
+    }
+}
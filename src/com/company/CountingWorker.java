@@ -0,0 +1,160 @@
+package com.company;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Owns one shard of the transactions and counts the candidates a {@link DistributedMiner} sends it, level by level.
+ *
+ * The shard is loaded with the worker's own item encoding; the coordinator maps its items to global ids when a
+ * job starts, so shards loaded from different files can be mined together. Every level is counted with Apriori's
+ * own {@link AprioriMiner.LevelCounter}, so the shard's rows are compacted between levels like in a single process.
+ * A worker serves one coordinator at a time, job after job, until it's stopped.
+ *
+ * There is no authentication: anything that can reach the port can read the shard's item names and have it count
+ * candidates. Workers listen on the loopback address unless they are told to bind to another one.
+ */
+public class CountingWorker {
+    private final EncodedDataset shard;
+    private final AprioriMiner miner;
+
+    /**
+     * @param shard - the transactions this worker owns
+     * @param miner - the counting and threads to count them with; vertical counting isn't supported
+     */
+    public CountingWorker(EncodedDataset shard, AprioriMiner miner) {
+        if (miner.getCounting() == AprioriMiner.Counting.VERTICAL) {
+            throw new IllegalArgumentException("Workers count horizontally or with the trie");
+        }
+        this.shard = shard;
+        this.miner = miner;
+    }
+
+    /**
+     * Waits for coordinators on the port and serves their jobs, one after another
+     *
+     * @param bindAddress - the address to listen on, e.g. the loopback address
+     * @param port - the TCP port to listen on
+     * @param timeoutMillis - how long to wait for the coordinator's next message before giving up on its job
+     * @throws IOException - if the port can't be listened on
+     */
+    public void serve(InetAddress bindAddress, int port, int timeoutMillis) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 50, bindAddress)) {
+            serve(server, timeoutMillis);
+        }
+    }
+
+    /**
+     * Serves the jobs of the coordinators that connect to the server socket until it's closed
+     *
+     * @param server - a bound server socket
+     * @param timeoutMillis - how long to wait for the coordinator's next message before giving up on its job
+     * @throws IOException - if the server socket fails while it's still open
+     */
+    void serve(ServerSocket server, int timeoutMillis) throws IOException {
+        while (!server.isClosed()) {
+            Socket accepted;
+            try {
+                accepted = server.accept();
+            } catch (IOException e) {
+                if (server.isClosed()) return;
+                throw e;
+            }
+
+            try (Socket socket = accepted) {
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(timeoutMillis);
+                serveJob(socket);
+            } catch (SocketTimeoutException e) {
+                System.out.println("The coordinator sent nothing for " + timeoutMillis / 1000 + " s. Giving up on its job.");
+            } catch (EOFException e) {
+                System.out.println("The coordinator disconnected before the job was done.");
+            } catch (IOException e) {
+                System.out.println("Lost the coordinator: " + e.getLocalizedMessage());
+            }
+        }
+    }
+
+    /**
+     * Runs the protocol of {@link CountingProtocol} for one job
+     *
+     * @param socket - the connection to the coordinator
+     * @throws IOException - if the connection fails or the coordinator sends something invalid
+     */
+    void serveJob(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+
+        CountingProtocol.readHello(in);
+        out.writeInt(CountingProtocol.MAGIC);
+        out.writeInt(CountingProtocol.VERSION);
+        out.writeInt(shard.getNumInstances());
+        CountingProtocol.writeNames(out, Arrays.asList(shard.getAttributeNames()));
+        CountingProtocol.writeNames(out, shard.getItemNames());
+        out.flush();
+
+        // The global items include every item of this shard, and no two of them share an id
+        int numGlobalItems = in.readInt();
+        if (numGlobalItems < shard.getNumItems() || numGlobalItems > CountingProtocol.MAX_ITEMS) {
+            throw new IOException("Invalid number of global items " + numGlobalItems);
+        }
+        int[] globalIds = new int[shard.getNumItems()];
+        boolean[] used = new boolean[numGlobalItems];
+        for (int i = 0; i < globalIds.length; i++) {
+            globalIds[i] = in.readInt();
+            if (globalIds[i] < 0 || globalIds[i] >= numGlobalItems || used[globalIds[i]]) {
+                throw new IOException("Invalid global item id " + globalIds[i]);
+            }
+            used[globalIds[i]] = true;
+        }
+
+        ArrayList<ItemSet> rows = new ArrayList<>(shard.getNumInstances());
+        for (ItemSet row : shard.getInstances()) {
+            int[] items = new int[row.size()];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = globalIds[row.get(i)];
+            }
+            rows.add(ItemSet.of(items));
+        }
+
+        try (AprioriMiner.LevelCounter counter = miner.levelCounter(rows, numGlobalItems, 1)) {
+            int numLevels = 0;
+            int lastSize = 0;
+            int message;
+            while ((message = in.readInt()) == CountingProtocol.COUNT) {
+                List<ItemSet> candidates = CountingProtocol.readItemSets(in, numGlobalItems);
+                // The level counter relies on every level being larger than the last one
+                if (!candidates.isEmpty() && candidates.get(0).size() <= lastSize) {
+                    throw new IOException("Level of size " + candidates.get(0).size() + " after size " + lastSize);
+                }
+                if (!candidates.isEmpty()) {
+                    lastSize = candidates.get(0).size();
+                }
+
+                ItemSetCountMap counts = new ItemSetCountMap(candidates.size());
+                counter.count(candidates, counts);
+
+                for (ItemSet candidate : candidates) {
+                    out.writeInt(counts.getOrDefault(candidate, 0));
+                }
+                out.flush();
+                numLevels++;
+            }
+            if (message != CountingProtocol.DONE) {
+                throw new IOException("Unknown message " + message);
+            }
+            System.out.println("Counted " + numLevels + " levels for " + socket.getRemoteSocketAddress() + ".");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.company;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes the itemsets and rules as they arrive, one CSV (RFC 4180) row each:
+ * <pre>
+ * type,premise,implication,premise_count,count,confidence,support
+ * itemset,"[""a=y"",""b=n""]",,,12,,0.4
+ * rule,"[""a=y""]","[""b=n""]",20,12,0.6,0.4
+ * </pre>
+ * The items of a column are a JSON array of their names, quoted like any other CSV field, so item names may hold
+ * any character and a CSV reader followed by a JSON parser gets them back unchanged. An itemset only fills the
+ * premise, its count and its support.
+ */
+public class CsvSink implements ResultSink {
+    private final BufferedWriter writer;
+    private String[] names;
+    private int numInstances;
+
+    /**
+     * @param file - the file to (over)write, in UTF-8
+     * @throws IOException - if the file can't be opened
+     */
+    public CsvSink(File file) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void begin(List<String> itemNames, int numInstances) throws IOException {
+        // Every name is a JSON string, with its quotes doubled for the CSV field it ends up in
+        this.names = new String[itemNames.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = JsonLinesSink.quote(itemNames.get(i)).replace("\"", "\"\"");
+        }
+        this.numInstances = numInstances;
+
+        writer.write("type,premise,implication,premise_count,count,confidence,support\n");
+    }
+
+    @Override
+    public void itemSet(ItemSet itemSet, int count) throws IOException {
+        writer.write("itemset,");
+        writeItems(itemSet);
+        writer.write(",,,");
+        writer.write(String.valueOf(count));
+        writer.write(",,");
+        writer.write(String.valueOf((double) count / numInstances));
+        writer.write('\n');
+    }
+
+    @Override
+    public void rule(AssociationRule rule) throws IOException {
+        writer.write("rule,");
+        writeItems(rule.getPremise());
+        writer.write(',');
+        writeItems(rule.getImplication());
+        writer.write(',');
+        writer.write(String.valueOf(rule.getPremiseCount()));
+        writer.write(',');
+        writer.write(String.valueOf(rule.getImplicationCount()));
+        writer.write(',');
+        writer.write(String.valueOf(rule.getConfidence()));
+        writer.write(',');
+        writer.write(String.valueOf(rule.getSupport()));
+        writer.write('\n');
+    }
+
+    private void writeItems(ItemSet itemSet) throws IOException {
+        writer.write("\"[");
+        for (int i = 0; i < itemSet.size(); i++) {
+            if (i > 0) writer.write(',');
+            writer.write(names[itemSet.get(i)]);
+        }
+        writer.write("]\"");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,336 @@
+package com.company;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coordinates Apriori over transactions that are spread across {@link CountingWorker} processes, on one machine or
+ * several.
+ *
+ * The coordinator never sees a transaction. It merges the item names of all shards into global ids, then for every
+ * level generates the candidates, sends them to every worker at once, and sums the counts the workers send back.
+ * The workers count their shards at the same time; the coordinator only waits for the slowest one, and gives up
+ * on the job, naming the worker, if one of them takes longer than the timeout.
+ */
+public class DistributedMiner implements Closeable {
+    /**
+     * How long a worker may take to count a level unless told otherwise
+     */
+    public static final int DEFAULT_TIMEOUT_MILLIS = 10 * 60 * 1000;
+    private static final int CONNECT_TIMEOUT_MILLIS = 10 * 1000;
+
+    private final ArrayList<Worker> workers = new ArrayList<>();
+    private final ArrayList<String> itemNames = new ArrayList<>();
+    private final int timeoutMillis;
+    private final ExecutorService executor;
+    private String[] attributeNames;
+    private int numInstances = 0;
+    // Workers only expect DONE once they have their global ids, and not in the middle of a level that failed
+    private boolean connected = false;
+
+    private static final class Worker {
+        private final InetSocketAddress address;
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private int numInstances;
+
+        private Worker(InetSocketAddress address, Socket socket) throws IOException {
+            this.address = address;
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+        }
+
+        /**
+         * Sends a COUNT message and reads the worker's counts
+         *
+         * @param message - the encoded COUNT message
+         * @param numCandidates - the number of candidates in the message
+         * @return the count of every candidate in the worker's shard
+         */
+        private int[] count(ByteArrayOutputStream message, int numCandidates) throws IOException {
+            message.writeTo(out);
+            out.flush();
+
+            int[] counts = new int[numCandidates];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = in.readInt();
+                if (counts[i] < 0 || counts[i] > numInstances) {
+                    throw new IOException("Invalid count " + counts[i] + " for a shard of " + numInstances + " instances");
+                }
+            }
+            return counts;
+        }
+    }
+
+    private DistributedMiner(int numWorkers, int timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        this.executor = Executors.newFixedThreadPool(numWorkers, runnable -> {
+            Thread thread = new Thread(runnable, "distributed-miner-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Connects to every worker and merges the items of their shards, waiting {@link #DEFAULT_TIMEOUT_MILLIS} for
+     * every level
+     *
+     * @param addresses - the workers, e.g. localhost:7001
+     * @return the coordinator, which has to be closed to release the workers
+     * @throws IOException - if a worker can't be reached or doesn't speak the protocol
+     */
+    public static DistributedMiner connect(List<InetSocketAddress> addresses) throws IOException {
+        return connect(addresses, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Connects to every worker and merges the items of their shards
+     *
+     * @param addresses - the workers, e.g. localhost:7001
+     * @param timeoutMillis - how long a worker may take to answer, including counting a level
+     * @return the coordinator, which has to be closed to release the workers
+     * @throws IOException - if a worker can't be reached, doesn't answer in time or doesn't speak the protocol
+     */
+    public static DistributedMiner connect(List<InetSocketAddress> addresses, int timeoutMillis) throws IOException {
+        if (addresses.isEmpty()) {
+            throw new IllegalArgumentException("Distributed mining needs at least one worker");
+        }
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Invalid worker timeout " + timeoutMillis);
+        }
+
+        DistributedMiner miner = new DistributedMiner(addresses.size(), timeoutMillis);
+        try {
+            HashMap<String, Integer> globalIds = new HashMap<>();
+            ArrayList<int[]> workerGlobalIds = new ArrayList<>();
+            for (InetSocketAddress address : addresses) {
+                List<String> names;
+                try {
+                    names = miner.handshake(address);
+                } catch (SocketTimeoutException e) {
+                    throw new IOException("Worker " + address + " didn't answer within " + timeoutMillis / 1000 + " s", e);
+                } catch (IOException e) {
+                    throw new IOException("Worker " + address + ": " + e.getLocalizedMessage(), e);
+                }
+
+                int[] ids = new int[names.size()];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = globalIds.computeIfAbsent(names.get(i), name -> {
+                        miner.itemNames.add(name);
+                        return miner.itemNames.size() - 1;
+                    });
+                }
+                if (miner.itemNames.size() > CountingProtocol.MAX_ITEMS) {
+                    throw new IOException("The workers have more than " + CountingProtocol.MAX_ITEMS + " items together");
+                }
+                workerGlobalIds.add(ids);
+            }
+
+            // The global ids are only complete once every worker has sent its items
+            for (int w = 0; w < miner.workers.size(); w++) {
+                DataOutputStream out = miner.workers.get(w).out;
+                out.writeInt(miner.itemNames.size());
+                for (int id : workerGlobalIds.get(w)) {
+                    out.writeInt(id);
+                }
+                out.flush();
+            }
+            miner.connected = true;
+        } catch (IOException | RuntimeException e) {
+            miner.close();
+            throw e;
+        }
+        return miner;
+    }
+
+    /**
+     * Connects to a worker and reads everything it says about its shard
+     *
+     * @return the item names of the worker's shard
+     */
+    private List<String> handshake(InetSocketAddress address) throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(address, Math.min(CONNECT_TIMEOUT_MILLIS, timeoutMillis));
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(timeoutMillis);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        Worker worker = new Worker(address, socket);
+        workers.add(worker);
+
+        worker.out.writeInt(CountingProtocol.MAGIC);
+        worker.out.writeInt(CountingProtocol.VERSION);
+        worker.out.flush();
+
+        CountingProtocol.readHello(worker.in);
+        worker.numInstances = worker.in.readInt();
+        if (worker.numInstances < 0 || worker.numInstances > Integer.MAX_VALUE - numInstances) {
+            throw new IOException("Invalid number of instances " + worker.numInstances);
+        }
+        numInstances += worker.numInstances;
+
+        List<String> attributeNames = CountingProtocol.readNames(worker.in);
+        if (this.attributeNames == null) {
+            this.attributeNames = attributeNames.toArray(new String[0]);
+        }
+        return CountingProtocol.readNames(worker.in);
+    }
+
+    /**
+     * @return the attribute names of the first shard and the merged item names, without any rows
+     */
+    public EncodedDataset getNames() {
+        return new EncodedDataset(attributeNames, itemNames, new ArrayList<>());
+    }
+
+    /**
+     * @return the number of instances of all shards together
+     */
+    public int getNumInstances() {
+        return numInstances;
+    }
+
+    public int getNumWorkers() {
+        return workers.size();
+    }
+
+    /**
+     * Runs the levels of Apriori, counting every level on the workers
+     *
+     * @param minCount - the minimum number of instances of all shards an itemset has to occur in
+     * @param metrics - receives a {@link MiningMetrics.Level} for every level
+     * @return (Key,Value) pairs of every frequent itemset and its frequency, plus the counted candidates that
+     * turned out infrequent
+     * @throws IOException - if a worker fails or doesn't send its counts in time
+     */
+    public ItemSetCountMap mine(int minCount, MiningMetrics metrics) throws IOException {
+        ItemSetCountMap frequentItemSets = new ItemSetCountMap();
+
+        ArrayList<ItemSet> currentFrequentItemSets = null;
+        int k = 1;
+        do {
+            try (MiningMetrics.Level level = metrics.startLevel(k)) {
+                ArrayList<ItemSet> currentCandidateItemSets = k == 1
+                        ? AprioriMiner.createSizeOneItemSets(itemNames.size())
+                        : AprioriMiner.createCandidates(currentFrequentItemSets, k, level);
+                level.generated(currentCandidateItemSets.size());
+                int[] counts = count(currentCandidateItemSets);
+
+                currentFrequentItemSets = new ArrayList<>();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) continue;
+
+                    frequentItemSets.add(currentCandidateItemSets.get(i), counts[i]);
+                    if (counts[i] >= minCount) {
+                        currentFrequentItemSets.add(currentCandidateItemSets.get(i));
+                    }
+                }
+                // The rows are scanned on the workers
+                level.counted(currentFrequentItemSets.size(), -1);
+            }
+            k++;
+        } while (!currentFrequentItemSets.isEmpty());
+        return frequentItemSets;
+    }
+
+    /**
+     * Sends the candidates to every worker at once and sums their counts
+     *
+     * @param candidates - the candidates of one level
+     * @return the count of every candidate over all shards
+     * @throws IOException - if a worker fails or doesn't send its counts in time
+     */
+    private int[] count(List<ItemSet> candidates) throws IOException {
+        if (!connected) {
+            throw new IOException("The workers were lost in an earlier level");
+        }
+
+        // Encoded once, and written and read by one thread per worker
+        ByteArrayOutputStream message = new ByteArrayOutputStream();
+        DataOutputStream messageOut = new DataOutputStream(message);
+        messageOut.writeInt(CountingProtocol.COUNT);
+        CountingProtocol.writeItemSets(messageOut, candidates);
+        messageOut.flush();
+
+        ArrayList<Future<int[]>> replies = new ArrayList<>(workers.size());
+        for (Worker worker : workers) {
+            replies.add(executor.submit(() -> worker.count(message, candidates.size())));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        int[] counts = new int[candidates.size()];
+        for (int w = 0; w < workers.size(); w++) {
+            Worker worker = workers.get(w);
+            int[] workerCounts;
+            try {
+                workerCounts = replies.get(w).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                connected = false;
+                throw new IOException("Worker " + worker.address + " didn't send its counts within " + timeoutMillis / 1000 + " s");
+            } catch (ExecutionException e) {
+                connected = false;
+                if (e.getCause() instanceof SocketTimeoutException) {
+                    throw new IOException("Worker " + worker.address + " didn't send its counts within " + timeoutMillis / 1000 + " s");
+                }
+                throw new IOException("Worker " + worker.address + ": " + e.getCause().getLocalizedMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                connected = false;
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for worker " + worker.address);
+            }
+
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += workerCounts[i];
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Tells every worker the job is done and disconnects. Closing the sockets also releases the threads still
+     * waiting for a worker that failed.
+     */
+    @Override
+    public void close() {
+        for (Worker worker : workers) {
+            if (connected) {
+                try {
+                    worker.out.writeInt(CountingProtocol.DONE);
+                    worker.out.flush();
+                } catch (IOException e) {
+                    // The worker is gone already
+                }
+            }
+            try {
+                worker.socket.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+        }
+        workers.clear();
+        executor.shutdownNow();
+    }
+}
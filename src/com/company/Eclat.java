@@ -0,0 +1,159 @@
+package com.company;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Depth-first Eclat frequent itemset mining, with optional dEclat diffsets.
+ *
+ * Every frequent item starts with the sorted list of transaction ids that contain it. Itemsets sharing a
+ * prefix form an equivalence class, and each class is extended by intersecting the tid lists of its
+ * members, so only the classes along the current search path are ever held in memory.
+ *
+ * With diffsets, a member of a class stores the tids of its prefix that it does <i>not</i> occur in
+ * instead of the tids it does occur in. On dense data those lists are much shorter than the tidsets.
+ */
+public class Eclat {
+    private final int minCount;
+    private final boolean useDiffsets;
+    private final ItemSetCountMap frequentItemSets = new ItemSetCountMap();
+
+    private Eclat(int minCount, boolean useDiffsets) {
+        this.minCount = minCount;
+        this.useDiffsets = useDiffsets;
+    }
+
+    /**
+     * Mines every itemset that occurs in at least minCount transactions
+     *
+     * @param transactions - the encoded data
+     * @param numItems     - the number of distinct encoded items
+     * @param minCount     - the minimum number of transactions an itemset has to occur in
+     * @param useDiffsets  - true to use dEclat diffsets below the first level, false for plain tidsets
+     * @return (Key,Value) pairs of frequent itemsets and their respective frequencies in the data
+     */
+    public static ItemSetCountMap mine(List<ItemSet> transactions, int numItems, int minCount, boolean useDiffsets) {
+        int[] itemCounts = new int[numItems];
+        for (ItemSet transaction : transactions) {
+            for (int i = 0; i < transaction.size(); i++) {
+                itemCounts[transaction.get(i)]++;
+            }
+        }
+
+        int[][] tidsets = new int[numItems][];
+        for (int item = 0; item < numItems; item++) {
+            tidsets[item] = new int[itemCounts[item]];
+        }
+        int[] fill = new int[numItems];
+        int tid = 0;
+        for (ItemSet transaction : transactions) {
+            for (int i = 0; i < transaction.size(); i++) {
+                int item = transaction.get(i);
+                tidsets[item][fill[item]++] = tid;
+            }
+            tid++;
+        }
+
+        Eclat miner = new Eclat(Math.max(1, minCount), useDiffsets);
+
+        ArrayList<Atom> atoms = new ArrayList<>();
+        for (int item = 0; item < numItems; item++) {
+            if (itemCounts[item] >= miner.minCount) {
+                atoms.add(new Atom(item, tidsets[item], itemCounts[item]));
+            }
+        }
+        // Extending the least frequent items first keeps the intersections small
+        atoms.sort((a, b) -> a.support != b.support ? a.support - b.support : a.item - b.item);
+
+        miner.search(new int[0], atoms, false);
+        return miner.frequentItemSets;
+    }
+
+    /**
+     * Emits every member of the equivalence class and recursively searches the classes below it
+     *
+     * @param prefix   - the encoded items shared by every member of the class
+     * @param atoms    - the frequent extensions of the prefix
+     * @param diffsets - true if the atoms hold diffsets, false if they hold tidsets
+     */
+    private void search(int[] prefix, List<Atom> atoms, boolean diffsets) {
+        for (int i = 0; i < atoms.size(); i++) {
+            Atom atom = atoms.get(i);
+            int[] itemSet = Arrays.copyOf(prefix, prefix.length + 1);
+            itemSet[prefix.length] = atom.item;
+            frequentItemSets.put(ItemSet.of(itemSet), atom.support);
+
+            ArrayList<Atom> children = new ArrayList<>();
+            for (int j = i + 1; j < atoms.size(); j++) {
+                Atom other = atoms.get(j);
+                int[] set;
+                int support;
+
+                if (!useDiffsets) {
+                    set = intersect(atom.tids, other.tids);
+                    support = set.length;
+                } else if (!diffsets) {
+                    // d(PXY) = t(PX) - t(PY)
+                    set = subtract(atom.tids, other.tids);
+                    support = atom.support - set.length;
+                } else {
+                    // d(PXY) = d(PY) - d(PX)
+                    set = subtract(other.tids, atom.tids);
+                    support = atom.support - set.length;
+                }
+
+                if (support >= minCount) {
+                    children.add(new Atom(other.item, set, support));
+                }
+            }
+
+            if (!children.isEmpty()) {
+                search(itemSet, children, useDiffsets);
+            }
+        }
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    private static int[] subtract(int[] a, int[] b) {
+        int[] result = new int[a.length];
+        int j = 0, n = 0;
+        for (int value : a) {
+            while (j < b.length && b[j] < value) j++;
+            if (j < b.length && b[j] == value) continue;
+            result[n++] = value;
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * A member of an equivalence class: the item extending the prefix and its tidset or diffset
+     */
+    private static final class Atom {
+        private final int item;
+        private final int[] tids;
+        private final int support;
+
+        private Atom(int item, int[] tids, int support) {
+            this.item = item;
+            this.tids = tids;
+            this.support = support;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.company;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Encoded form of an input file: every "attribute=value" pair is an item with a dense integer id,
+ * and every data row is the {@link ItemSet} of its items.
+ *
+ * A dataset can't be changed once it's created, so the same one can be mined by many jobs at the same time.
+ */
+public class EncodedDataset {
+    /**
+     * Receives the encoded rows of a file one at a time, so a file can be scanned without keeping its rows
+     */
+    public interface RowConsumer {
+        void accept(ItemSet row) throws IOException;
+    }
+
+    private final String[] attributeNames;
+    private final List<String> itemNames;
+    private final List<ItemSet> instances;
+
+    /**
+     * The names are copied. The rows are not, since they can be millions; the list must not be changed afterwards.
+     *
+     * @param attributeNames - the names of the attributes, in file order
+     * @param itemNames      - the "attribute=value" name of every item, indexed by item id
+     * @param instances      - the encoded data rows
+     */
+    public EncodedDataset(String[] attributeNames, List<String> itemNames, List<ItemSet> instances) {
+        this.attributeNames = attributeNames.clone();
+        this.itemNames = Collections.unmodifiableList(new ArrayList<>(itemNames));
+        this.instances = Collections.unmodifiableList(instances);
+    }
+
+    public String[] getAttributeNames() {
+        return attributeNames.clone();
+    }
+
+    public int getNumAttributes() {
+        return attributeNames.length;
+    }
+
+    public int getNumItems() {
+        return itemNames.size();
+    }
+
+    public String getItemName(int item) {
+        return itemNames.get(item);
+    }
+
+    public List<String> getItemNames() {
+        return itemNames;
+    }
+
+    public int getNumInstances() {
+        return instances.size();
+    }
+
+    public List<ItemSet> getInstances() {
+        return instances;
+    }
+}
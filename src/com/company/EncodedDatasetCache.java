@@ -0,0 +1,321 @@
+package com.company;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary cache of an {@link EncodedDataset}, stored next to the input file as "&lt;input&gt;.enc".
+ *
+ * Layout (big-endian): magic, version, source file size and modification time, the attribute names,
+ * the item names, the row count and the offset of the row lengths, every row's sorted item ids packed
+ * back to back, then the length of every row. The cache is read through memory-mapped windows. Every row
+ * is still copied out of the mapping into an {@link ItemSet} of its own, since that's what the engines
+ * mine, so a reload saves the parse and the dictionary lookups rather than the copy. It's ignored as soon
+ * as the source file's size or mtime changes. The same format, without a source file, is used for
+ * standalone encoded data files.
+ */
+public class EncodedDatasetCache {
+    private static final int MAGIC = 0x41505249;
+    private static final int VERSION = 2;
+    private static final String EXTENSION = ".enc";
+    private static final long WINDOW_SIZE = 1L << 28;
+
+    private EncodedDatasetCache() {
+    }
+
+    /**
+     * @param inputFilePath - the source data file
+     * @return the cache file belonging to the source file
+     */
+    public static File cacheFileFor(String inputFilePath) {
+        return new File(inputFilePath + EXTENSION);
+    }
+
+    /**
+     * Reads the cached encoding of the input file
+     *
+     * @param inputFilePath - the source data file
+     * @return the cached dataset, or null if there is no cache or it's out of date
+     * @throws IOException - if the cache file exists but can't be read
+     */
+    public static EncodedDataset read(String inputFilePath) throws IOException {
+        File source = new File(inputFilePath);
+        File cache = cacheFileFor(inputFilePath);
+        if (!source.isFile() || !cache.isFile()) {
+            return null;
+        }
+        return read(cache, source, null);
+    }
+
+    /**
+     * Reads a standalone encoded file, such as one written by {@link SyntheticDataGenerator}
+     *
+     * @param encodedFile - the file in the encoded binary format
+     * @return the encoded dataset
+     * @throws IOException - if the file can't be read or isn't in the encoded format
+     */
+    public static EncodedDataset readFile(File encodedFile) throws IOException {
+        EncodedDataset dataset = read(encodedFile, null, null);
+        if (dataset == null) {
+            throw new IOException(encodedFile + " is not an encoded data file");
+        }
+        return dataset;
+    }
+
+    /**
+     * Reads a standalone encoded file one row at a time without keeping the rows
+     *
+     * @param encodedFile - the file in the encoded binary format
+     * @param rows        - receives every row, in file order
+     * @return the attribute and item names, without any rows
+     * @throws IOException - if the file can't be read or isn't in the encoded format, or the consumer fails
+     */
+    public static EncodedDataset scanFile(File encodedFile, EncodedDataset.RowConsumer rows) throws IOException {
+        EncodedDataset dataset = read(encodedFile, null, rows);
+        if (dataset == null) {
+            throw new IOException(encodedFile + " is not an encoded data file");
+        }
+        return dataset;
+    }
+
+    /**
+     * Writes the encoded dataset next to the input file
+     *
+     * @param inputFilePath - the source data file the dataset was loaded from
+     * @param dataset       - the encoded data
+     * @throws IOException - if the cache file can't be written
+     */
+    public static void write(String inputFilePath, EncodedDataset dataset) throws IOException {
+        File cache = cacheFileFor(inputFilePath);
+        File temp = new File(cache.getPath() + ".tmp");
+
+        try (Writer writer = new Writer(temp, new File(inputFilePath), dataset.getAttributeNames(), dataset.getItemNames())) {
+            for (ItemSet instance : dataset.getInstances()) {
+                writer.addRow(instance);
+            }
+        }
+
+        if (!temp.renameTo(cache)) {
+            Files.move(temp.toPath(), cache.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @param file   - the encoded file
+     * @param source - the file it has to be up to date with, or null to skip the check
+     * @param rows   - receives the rows instead of the returned dataset, or null to keep them in the dataset
+     * @return the dataset, or null if the file isn't in this format or is out of date
+     */
+    private static EncodedDataset read(File file, File source, EncodedDataset.RowConsumer rows) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedReader in = new MappedReader(channel, 0);
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+                return null;
+            }
+            long sourceSize = in.getLong();
+            long sourceModified = in.getLong();
+            if (source != null && (sourceSize != source.length() || sourceModified != source.lastModified())) {
+                return null;
+            }
+
+            String[] attributeNames = new String[in.getInt()];
+            for (int i = 0; i < attributeNames.length; i++) {
+                attributeNames[i] = in.getString();
+            }
+
+            int numItems = in.getInt();
+            ArrayList<String> itemNames = new ArrayList<>(numItems);
+            for (int i = 0; i < numItems; i++) {
+                itemNames.add(in.getString());
+            }
+
+            int numInstances = in.getInt();
+            MappedReader rowLengths = new MappedReader(channel, in.getLong());
+
+            ArrayList<ItemSet> instances = new ArrayList<>(rows == null ? numInstances : 0);
+            for (int i = 0; i < numInstances; i++) {
+                int[] row = new int[rowLengths.getInt()];
+                in.getInts(row);
+                if (rows == null) {
+                    instances.add(ItemSet.ofSorted(row));
+                } else {
+                    rows.accept(ItemSet.ofSorted(row));
+                }
+            }
+
+            return new EncodedDataset(attributeNames, itemNames, instances);
+        }
+    }
+
+    /**
+     * Streams rows into an encoded file without holding them in memory.
+     * Only the row lengths are kept until {@link #close()}, where they're appended after the packed items
+     * and the header is patched with the row count and the position of the lengths.
+     */
+    public static final class Writer implements Closeable {
+        private final File file;
+        private final DataOutputStream out;
+        private final long rowCountPosition;
+        private long position;
+        private int[] rowLengths = new int[1024];
+        private int numRows;
+
+        /**
+         * @param file           - the file to write
+         * @param source         - the input file the data was encoded from, or null for standalone data
+         * @param attributeNames - the names of the attributes
+         * @param itemNames      - the "attribute=value" name of every item, indexed by item id
+         * @throws IOException - if the file can't be written
+         */
+        public Writer(File file, File source, String[] attributeNames, List<String> itemNames) throws IOException {
+            this.file = file;
+            this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(source == null ? -1 : source.length());
+            out.writeLong(source == null ? -1 : source.lastModified());
+
+            out.writeInt(attributeNames.length);
+            for (String name : attributeNames) {
+                writeString(out, name);
+            }
+
+            out.writeInt(itemNames.size());
+            for (String name : itemNames) {
+                writeString(out, name);
+            }
+
+            rowCountPosition = out.size();
+            out.writeInt(0);
+            out.writeLong(0);
+            position = out.size();
+        }
+
+        /**
+         * @param row - the sorted item ids of one data row
+         * @throws IOException - if the file can't be written
+         */
+        public void addRow(ItemSet row) throws IOException {
+            for (int i = 0; i < row.size(); i++) {
+                out.writeInt(row.get(i));
+            }
+            addLength(row.size());
+        }
+
+        /**
+         * @param sortedItems - the sorted, distinct item ids of one data row
+         * @param length      - the number of items to take from the array
+         * @throws IOException - if the file can't be written
+         */
+        public void addRow(int[] sortedItems, int length) throws IOException {
+            for (int i = 0; i < length; i++) {
+                out.writeInt(sortedItems[i]);
+            }
+            addLength(length);
+        }
+
+        private void addLength(int length) {
+            if (numRows == rowLengths.length) {
+                rowLengths = Arrays.copyOf(rowLengths, numRows * 2);
+            }
+            rowLengths[numRows++] = length;
+            position += 4L * length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            long lengthsOffset = position;
+            for (int i = 0; i < numRows; i++) {
+                out.writeInt(rowLengths[i]);
+            }
+            out.close();
+
+            ByteBuffer patch = ByteBuffer.allocate(12);
+            patch.putInt(numRows).putLong(lengthsOffset).flip();
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                channel.write(patch, rowCountPosition);
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Sequential reader over a file that maps it in windows, so files larger than 2GB can be read too
+     */
+    private static final class MappedReader {
+        private final FileChannel channel;
+        private final long size;
+        private long windowStart;
+        private MappedByteBuffer buffer;
+
+        private MappedReader(FileChannel channel, long position) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            map(position);
+        }
+
+        private int getInt() throws IOException {
+            ensure(4);
+            return buffer.getInt();
+        }
+
+        private long getLong() throws IOException {
+            ensure(8);
+            return buffer.getLong();
+        }
+
+        private String getString() throws IOException {
+            byte[] bytes = new byte[getInt()];
+            ensure(bytes.length);
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private void getInts(int[] destination) throws IOException {
+            int offset = 0;
+            while (offset < destination.length) {
+                ensure(4);
+                IntBuffer ints = buffer.asIntBuffer();
+                int n = Math.min(ints.remaining(), destination.length - offset);
+                ints.get(destination, offset, n);
+                buffer.position(buffer.position() + n * 4);
+                offset += n;
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                map(windowStart + buffer.position());
+                if (buffer.remaining() < bytes) {
+                    throw new IOException("Unexpected end of cache file");
+                }
+            }
+        }
+
+        private void map(long position) throws IOException {
+            windowStart = position;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position));
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.company;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * FP-Growth frequent itemset mining.
+ *
+ * The encoded data is compressed into an FP-tree once, ordering every transaction's frequent items by
+ * descending frequency so common prefixes share nodes. Frequent itemsets are then grown depth-first
+ * from conditional FP-trees, without generating or counting candidate sets level by level.
+ */
+public class FPGrowth {
+    private final int minCount;
+    private final int[] rankToItem;
+    private final ItemSetCountMap frequentItemSets = new ItemSetCountMap();
+
+    private FPGrowth(int minCount, int[] rankToItem) {
+        this.minCount = minCount;
+        this.rankToItem = rankToItem;
+    }
+
+    /**
+     * Mines every itemset that occurs in at least minCount transactions
+     *
+     * @param transactions - the encoded data
+     * @param numItems     - the number of distinct encoded items
+     * @param minCount     - the minimum number of transactions an itemset has to occur in
+     * @return (Key,Value) pairs of frequent itemsets and their respective frequencies in the data
+     */
+    public static ItemSetCountMap mine(List<ItemSet> transactions, int numItems, int minCount) {
+        return mine(transactions, null, numItems, minCount);
+    }
+
+    /**
+     * Mines every itemset that occurs in at least minCount transactions, where each given row stands for
+     * as many identical transactions as its weight
+     *
+     * @param transactions - the distinct encoded rows
+     * @param weights      - the number of transactions each row stands for, or null if every row is one transaction
+     * @param numItems     - the number of distinct encoded items
+     * @param minCount     - the minimum number of transactions an itemset has to occur in
+     * @return (Key,Value) pairs of frequent itemsets and their respective frequencies in the data
+     */
+    public static ItemSetCountMap mine(List<ItemSet> transactions, int[] weights, int numItems, int minCount) {
+        int[] itemCounts = new int[numItems];
+        for (int t = 0; t < transactions.size(); t++) {
+            ItemSet transaction = transactions.get(t);
+            int weight = weights == null ? 1 : weights[t];
+            for (int i = 0; i < transaction.size(); i++) {
+                itemCounts[transaction.get(i)] += weight;
+            }
+        }
+
+        // Rank 0 is the most frequent item; infrequent items get no rank at all
+        Integer[] order = new Integer[numItems];
+        for (int i = 0; i < numItems; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> itemCounts[a] != itemCounts[b] ? itemCounts[b] - itemCounts[a] : a - b);
+
+        int numRanks = 0;
+        while (numRanks < numItems && itemCounts[order[numRanks]] >= Math.max(1, minCount)) {
+            numRanks++;
+        }
+
+        int[] rankToItem = new int[numRanks];
+        int[] itemToRank = new int[numItems];
+        Arrays.fill(itemToRank, -1);
+        for (int rank = 0; rank < numRanks; rank++) {
+            rankToItem[rank] = order[rank];
+            itemToRank[order[rank]] = rank;
+        }
+
+        Tree tree = new Tree(numRanks);
+        int[] ranks = new int[numRanks];
+        for (int t = 0; t < transactions.size(); t++) {
+            ItemSet transaction = transactions.get(t);
+            int length = 0;
+            for (int i = 0; i < transaction.size(); i++) {
+                int rank = itemToRank[transaction.get(i)];
+                if (rank >= 0) {
+                    ranks[length++] = rank;
+                }
+            }
+            Arrays.sort(ranks, 0, length);
+            tree.insert(ranks, length, weights == null ? 1 : weights[t]);
+        }
+
+        FPGrowth miner = new FPGrowth(Math.max(1, minCount), rankToItem);
+        miner.grow(tree, new int[0]);
+        return miner.frequentItemSets;
+    }
+
+    /**
+     * Emits every frequent extension of the prefix found in the (conditional) tree
+     *
+     * @param tree   - the FP-tree conditioned on the prefix
+     * @param prefix - the encoded items the tree is conditioned on
+     */
+    private void grow(Tree tree, int[] prefix) {
+        int[] path = new int[tree.numRanks];
+
+        // Least frequent first, so each conditional tree only holds more frequent items
+        for (int rank = tree.numRanks - 1; rank >= 0; rank--) {
+            int count = tree.rankCounts[rank];
+            if (count < minCount) continue;
+
+            int[] itemSet = Arrays.copyOf(prefix, prefix.length + 1);
+            itemSet[prefix.length] = rankToItem[rank];
+            frequentItemSets.put(ItemSet.of(itemSet), count);
+
+            // Counting the items of the conditional pattern base
+            int[] conditionalCounts = new int[rank];
+            for (Node node = tree.heads[rank]; node != null; node = node.nextSameRank) {
+                for (Node parent = node.parent; parent.rank >= 0; parent = parent.parent) {
+                    conditionalCounts[parent.rank] += node.count;
+                }
+            }
+
+            boolean hasFrequentItem = false;
+            for (int c : conditionalCounts) {
+                if (c >= minCount) {
+                    hasFrequentItem = true;
+                    break;
+                }
+            }
+            if (!hasFrequentItem) continue;
+
+            Tree conditionalTree = new Tree(rank);
+            for (Node node = tree.heads[rank]; node != null; node = node.nextSameRank) {
+                int length = 0;
+                for (Node parent = node.parent; parent.rank >= 0; parent = parent.parent) {
+                    if (conditionalCounts[parent.rank] >= minCount) {
+                        path[length++] = parent.rank;
+                    }
+                }
+                reverse(path, length);
+                conditionalTree.insert(path, length, node.count);
+            }
+
+            grow(conditionalTree, itemSet);
+        }
+    }
+
+    private static void reverse(int[] array, int length) {
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            int temp = array[i];
+            array[i] = array[j];
+            array[j] = temp;
+        }
+    }
+
+    private static final class Tree {
+        private final Node root = new Node(-1, null);
+        private final int numRanks;
+        private final Node[] heads;
+        private final int[] rankCounts;
+
+        private Tree(int numRanks) {
+            this.numRanks = numRanks;
+            this.heads = new Node[numRanks];
+            this.rankCounts = new int[numRanks];
+        }
+
+        /**
+         * @param ranks  - item ranks in ascending order
+         * @param length - the number of ranks to insert
+         * @param count  - how many transactions share this path
+         */
+        private void insert(int[] ranks, int length, int count) {
+            Node node = root;
+            for (int i = 0; i < length; i++) {
+                int rank = ranks[i];
+                Node child = node.firstChild;
+                while (child != null && child.rank != rank) {
+                    child = child.nextSibling;
+                }
+
+                if (child == null) {
+                    child = new Node(rank, node);
+                    child.nextSibling = node.firstChild;
+                    node.firstChild = child;
+                    child.nextSameRank = heads[rank];
+                    heads[rank] = child;
+                }
+
+                child.count += count;
+                rankCounts[rank] += count;
+                node = child;
+            }
+        }
+    }
+
+    private static final class Node {
+        private final int rank;
+        private final Node parent;
+        private int count;
+        private Node firstChild;
+        private Node nextSibling;
+        private Node nextSameRank;
+
+        private Node(int rank, Node parent) {
+            this.rank = rank;
+            this.parent = parent;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.company;
+
+import java.util.List;
+
+/**
+ * An engine that finds the frequent itemsets of in-memory transactions.
+ *
+ * Engines are plugged into a {@link MiningConfig}. They must not keep state between calls, so one engine can
+ * mine many datasets at the same time.
+ */
+public interface FrequentItemSetMiner {
+    FrequentItemSetMiner FP_GROWTH = FPGrowth::mine;
+    FrequentItemSetMiner ECLAT = (transactions, numItems, minCount) -> Eclat.mine(transactions, numItems, minCount, false);
+    FrequentItemSetMiner DECLAT = (transactions, numItems, minCount) -> Eclat.mine(transactions, numItems, minCount, true);
+
+    /**
+     * Mines every itemset that occurs in at least minCount transactions
+     *
+     * @param transactions - the encoded data
+     * @param numItems     - the number of distinct encoded items
+     * @param minCount     - the minimum number of transactions an itemset has to occur in
+     * @return (Key,Value) pairs of at least every frequent itemset and its exact frequency. Engines may also
+     * return the counts of itemsets they counted that turned out infrequent.
+     */
+    ItemSetCountMap mine(List<ItemSet> transactions, int numItems, int minCount);
+
+    /**
+     * Mines like {@link #mine(List, int, int)} and records what every level of the search took.
+     * Engines that don't work level by level record nothing.
+     *
+     * @param transactions - the encoded data
+     * @param numItems     - the number of distinct encoded items
+     * @param minCount     - the minimum number of transactions an itemset has to occur in
+     * @param metrics      - receives a {@link MiningMetrics.Level} for every level
+     * @return the same as {@link #mine(List, int, int)}
+     */
+    default ItemSetCountMap mine(List<ItemSet> transactions, int numItems, int minCount, MiningMetrics metrics) {
+        return mine(transactions, numItems, minCount);
+    }
+}
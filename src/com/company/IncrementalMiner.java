@@ -0,0 +1,225 @@
+package com.company;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Updates the frequent itemsets of earlier data with a new batch of transactions, in the style of
+ * Cheung et al.'s FUP (Fast UPdate) algorithm.
+ *
+ * The algorithm runs level-wise over the old and new data together, but only counts the new batch for every
+ * candidate. A candidate with a known count in the {@link ItemSetSnapshot} just adds its batch count and is
+ * promoted or demoted against the new total. A candidate without a known count was infrequent in the old data,
+ * so it can only become frequent if it's frequent within the batch itself; only those candidates are counted
+ * in the old files, with one rescan per level that has any.
+ *
+ * If the snapshot was mined with a higher minimum support than the current one, that pruning doesn't hold and
+ * every candidate without a known count is rescanned instead. The result is still exact, just slower.
+ */
+public class IncrementalMiner {
+    private final ItemSetSnapshot snapshot;
+    private final double minSup;
+
+    private String[] attributeNames;
+    private ArrayList<String> itemNames;
+    private int[] batchGlobalIds;
+    private ArrayList<ItemSet> batch;
+    private int numInstances;
+    private ItemSetCountMap knownCounts;
+    private int numRescans;
+    private int numRescanned;
+
+    /**
+     * @param snapshot - the result of the earlier runs
+     * @param minSup   - the minimum support (0.0 to 1.0)
+     */
+    public IncrementalMiner(ItemSetSnapshot snapshot, double minSup) {
+        this.snapshot = snapshot;
+        this.minSup = minSup;
+    }
+
+    /**
+     * @param newBatch - the new transactions, encoded with their own item ids
+     * @return (Key,Value) pairs of the itemsets that are frequent over the old and new data, with their exact frequencies
+     * @throws IOException - if an old data file can't be read or has changed since it was mined
+     */
+    public ItemSetCountMap update(EncodedDataset newBatch) throws IOException {
+        mergeDictionaries(newBatch);
+
+        int batchSize = batch.size();
+        numInstances = snapshot.getNumInstances() + batchSize;
+        int minCount = MiningConfig.minimumSupportCount(minSup, numInstances);
+        boolean canPrune = snapshot.getMinSup() <= minSup;
+        int batchMinCount = batchSize == 0 ? Integer.MAX_VALUE : MiningConfig.minimumSupportCount(minSup, batchSize);
+
+        ItemSetCountMap oldCounts = snapshot.getCounts();
+        ItemSetCountMap frequentItemSets = new ItemSetCountMap();
+        knownCounts = new ItemSetCountMap();
+        numRescans = 0;
+        numRescanned = 0;
+
+        ArrayList<ItemSet> candidates = new ArrayList<>(itemNames.size());
+        for (int item = 0; item < itemNames.size(); item++) {
+            candidates.add(ItemSet.of(item));
+        }
+
+        int k = 1;
+        while (!candidates.isEmpty()) {
+            int[] batchCounts = countInBatch(candidates);
+
+            ArrayList<ItemSet> rescanCandidates = new ArrayList<>();
+            ArrayList<Integer> rescanBatchCounts = new ArrayList<>();
+            for (int i = 0; i < candidates.size(); i++) {
+                ItemSet candidate = candidates.get(i);
+                int oldCount = oldCounts.getOrDefault(candidate, -1);
+                if (oldCount >= 0) {
+                    knownCounts.put(candidate, oldCount + batchCounts[i]);
+                } else if (!canPrune || batchCounts[i] >= batchMinCount) {
+                    rescanCandidates.add(candidate);
+                    rescanBatchCounts.add(batchCounts[i]);
+                }
+            }
+
+            if (!rescanCandidates.isEmpty()) {
+                int[] oldCountsOfRescanned = countInSourceFiles(rescanCandidates);
+                for (int i = 0; i < rescanCandidates.size(); i++) {
+                    knownCounts.put(rescanCandidates.get(i), oldCountsOfRescanned[i] + rescanBatchCounts.get(i));
+                }
+                numRescans++;
+                numRescanned += rescanCandidates.size();
+            }
+
+            ArrayList<ItemSet> currentFrequentItemSets = new ArrayList<>();
+            for (ItemSet candidate : candidates) {
+                int count = knownCounts.getOrDefault(candidate, -1);
+                if (count >= minCount) {
+                    currentFrequentItemSets.add(candidate);
+                    frequentItemSets.put(candidate, count);
+                }
+            }
+
+            Collections.sort(currentFrequentItemSets);
+            k++;
+            candidates = AprioriMiner.createCandidates(currentFrequentItemSets, k);
+        }
+
+        return frequentItemSets;
+    }
+
+    /**
+     * @param batchFile - the file the new batch was read from
+     * @return the snapshot to continue from next time, including the new batch
+     */
+    public ItemSetSnapshot toSnapshot(File batchFile) {
+        ArrayList<ItemSetSnapshot.SourceFile> sourceFiles = new ArrayList<>(snapshot.getSourceFiles());
+        sourceFiles.add(new ItemSetSnapshot.SourceFile(batchFile, batchGlobalIds));
+        return new ItemSetSnapshot(minSup, numInstances, attributeNames, itemNames, sourceFiles, knownCounts);
+    }
+
+    /**
+     * @return the merged attribute and item names, with the new batch as rows in global item ids
+     */
+    public EncodedDataset getNames() {
+        return new EncodedDataset(attributeNames, itemNames, batch);
+    }
+
+    /**
+     * @return the number of instances in the old and new data together
+     */
+    public int getNumInstances() {
+        return numInstances;
+    }
+
+    /**
+     * @return how often the old data was scanned again
+     */
+    public int getNumRescans() {
+        return numRescans;
+    }
+
+    /**
+     * @return the number of candidates that had to be counted in the old data
+     */
+    public int getNumRescanned() {
+        return numRescanned;
+    }
+
+    /**
+     * Adds the batch's new items to the global dictionary and encodes the batch with global item ids
+     */
+    private void mergeDictionaries(EncodedDataset newBatch) {
+        itemNames = new ArrayList<>(snapshot.getItemNames());
+        HashMap<String, Integer> globalIds = new HashMap<>();
+        for (int i = 0; i < itemNames.size(); i++) {
+            globalIds.put(itemNames.get(i), i);
+        }
+
+        batchGlobalIds = new int[newBatch.getNumItems()];
+        for (int item = 0; item < batchGlobalIds.length; item++) {
+            String name = newBatch.getItemName(item);
+            Integer id = globalIds.get(name);
+            if (id == null) {
+                id = itemNames.size();
+                itemNames.add(name);
+                globalIds.put(name, id);
+            }
+            batchGlobalIds[item] = id;
+        }
+
+        batch = new ArrayList<>(newBatch.getNumInstances());
+        for (ItemSet row : newBatch.getInstances()) {
+            batch.add(toGlobalIds(row, batchGlobalIds));
+        }
+
+        if (Arrays.equals(snapshot.getAttributeNames(), newBatch.getAttributeNames())) {
+            attributeNames = snapshot.getAttributeNames();
+        } else {
+            LinkedHashSet<String> names = new LinkedHashSet<>(Arrays.asList(snapshot.getAttributeNames()));
+            names.addAll(Arrays.asList(newBatch.getAttributeNames()));
+            attributeNames = names.toArray(new String[0]);
+        }
+    }
+
+    private int[] countInBatch(List<ItemSet> candidates) {
+        CandidateTrie trie = new CandidateTrie(candidates);
+        for (ItemSet row : batch) {
+            trie.count(row);
+        }
+        return trie.getCounts();
+    }
+
+    /**
+     * Counts the candidates in every data file of the snapshot, translating each file's item ids to global ones
+     */
+    private int[] countInSourceFiles(List<ItemSet> candidates) throws IOException {
+        CandidateTrie trie = new CandidateTrie(candidates);
+        for (ItemSetSnapshot.SourceFile sourceFile : snapshot.getSourceFiles()) {
+            if (!sourceFile.isUnchanged()) {
+                throw new IOException(sourceFile.getPath() + " has changed since it was mined. Incremental mining needs the earlier files unchanged.");
+            }
+
+            int[] globalIds = sourceFile.getGlobalItemIds();
+            StreamingLoader.scan(sourceFile.getPath(), row -> {
+                if (row.size() > 0 && row.last() >= globalIds.length) {
+                    throw new IOException(sourceFile.getPath() + " has items that weren't there when it was mined.");
+                }
+                trie.count(toGlobalIds(row, globalIds));
+            });
+        }
+        return trie.getCounts();
+    }
+
+    private static ItemSet toGlobalIds(ItemSet row, int[] globalIds) {
+        int[] items = new int[row.size()];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = globalIds[row.get(i)];
+        }
+        return ItemSet.of(items);
+    }
+}
@@ -0,0 +1,217 @@
+package com.company;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An immutable itemset of encoded item ids, stored as a sorted int array with a cached hash code.
+ * Used for candidates, frequent itemsets, encoded data rows and the two sides of an {@link AssociationRule}.
+ */
+public final class ItemSet implements Comparable<ItemSet> {
+    private final int[] items;
+    private final int hash;
+
+    /**
+     * Wraps an array that is already sorted and free of duplicates. The array must not be modified afterwards.
+     *
+     * @param sortedItems - sorted, distinct item ids
+     */
+    private ItemSet(int[] sortedItems) {
+        this.items = sortedItems;
+        this.hash = Arrays.hashCode(sortedItems);
+    }
+
+    /**
+     * Creates an itemset from the given item ids (in any order, duplicates are removed)
+     *
+     * @param items - encoded item ids
+     * @return the itemset containing the given items
+     */
+    public static ItemSet of(int... items) {
+        int[] copy = items.clone();
+        Arrays.sort(copy);
+        return new ItemSet(distinct(copy));
+    }
+
+    /**
+     * Wraps an array that is already sorted and free of duplicates, without copying it.
+     * The caller must not modify the array afterwards.
+     *
+     * @param sortedItems - sorted, distinct item ids
+     * @return the itemset backed by the given array
+     */
+    static ItemSet ofSorted(int[] sortedItems) {
+        return new ItemSet(sortedItems);
+    }
+
+    /**
+     * Creates an itemset from a collection of item ids (in any order, duplicates are removed)
+     *
+     * @param items - encoded item ids
+     * @return the itemset containing the given items
+     */
+    public static ItemSet of(Collection<Integer> items) {
+        int[] array = new int[items.size()];
+        int i = 0;
+        for (Integer item : items) {
+            array[i++] = item;
+        }
+        Arrays.sort(array);
+        return new ItemSet(distinct(array));
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    public int get(int index) {
+        return items[index];
+    }
+
+    public int last() {
+        return items[items.length - 1];
+    }
+
+    /**
+     * @return a copy of the sorted item ids
+     */
+    public int[] toArray() {
+        return items.clone();
+    }
+
+    public boolean contains(int item) {
+        return Arrays.binarySearch(items, item) >= 0;
+    }
+
+    /**
+     * Checks whether every item of the other itemset is in this one
+     *
+     * @param other - the possible subset
+     * @return true if other is a subset of this itemset
+     */
+    public boolean containsAll(ItemSet other) {
+        int[] sub = other.items;
+        if (sub.length > items.length) return false;
+
+        int i = 0;
+        for (int item : sub) {
+            while (i < items.length && items[i] < item) i++;
+            if (i == items.length || items[i] != item) return false;
+            i++;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether both itemsets have the same size and agree on everything but their last item
+     *
+     * @param other - another itemset
+     * @return true if both itemsets share the same (size-1) prefix
+     */
+    public boolean sharesPrefixWith(ItemSet other) {
+        if (other.items.length != items.length) return false;
+        for (int i = 0; i < items.length - 1; i++) {
+            if (items[i] != other.items[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param item - an item id that is larger than every item in this itemset
+     * @return a new itemset with the given item appended
+     */
+    public ItemSet append(int item) {
+        int[] result = Arrays.copyOf(items, items.length + 1);
+        result[items.length] = item;
+        return new ItemSet(result);
+    }
+
+    /**
+     * @param index - the position of the item to leave out
+     * @return a new itemset without the item at the given position
+     */
+    public ItemSet without(int index) {
+        int[] result = new int[items.length - 1];
+        System.arraycopy(items, 0, result, 0, index);
+        System.arraycopy(items, index + 1, result, index, items.length - index - 1);
+        return new ItemSet(result);
+    }
+
+    /**
+     * @param other - another itemset
+     * @return a new itemset holding the items of both itemsets
+     */
+    public ItemSet union(ItemSet other) {
+        int[] result = new int[items.length + other.items.length];
+        int i = 0, j = 0, n = 0;
+        while (i < items.length && j < other.items.length) {
+            if (items[i] < other.items[j]) {
+                result[n++] = items[i++];
+            } else if (items[i] > other.items[j]) {
+                result[n++] = other.items[j++];
+            } else {
+                result[n++] = items[i++];
+                j++;
+            }
+        }
+        while (i < items.length) result[n++] = items[i++];
+        while (j < other.items.length) result[n++] = other.items[j++];
+        return new ItemSet(n == result.length ? result : Arrays.copyOf(result, n));
+    }
+
+    /**
+     * @param other - the items to remove
+     * @return a new itemset with the items of this one that are not in the other
+     */
+    public ItemSet minus(ItemSet other) {
+        int[] result = new int[items.length];
+        int n = 0, j = 0;
+        for (int item : items) {
+            while (j < other.items.length && other.items[j] < item) j++;
+            if (j < other.items.length && other.items[j] == item) continue;
+            result[n++] = item;
+        }
+        return new ItemSet(n == result.length ? result : Arrays.copyOf(result, n));
+    }
+
+    @Override
+    public int compareTo(ItemSet other) {
+        int length = Math.min(items.length, other.items.length);
+        for (int i = 0; i < length; i++) {
+            if (items[i] != other.items[i]) {
+                return items[i] < other.items[i] ? -1 : 1;
+            }
+        }
+        return items.length - other.items.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ItemSet)) return false;
+        ItemSet other = (ItemSet) o;
+        return hash == other.hash && Arrays.equals(items, other.items);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(items);
+    }
+
+    private static int[] distinct(int[] sorted) {
+        if (sorted.length < 2) return sorted;
+
+        int n = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[n - 1]) {
+                sorted[n++] = sorted[i];
+            }
+        }
+        return n == sorted.length ? sorted : Arrays.copyOf(sorted, n);
+    }
+}
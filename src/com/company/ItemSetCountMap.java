@@ -0,0 +1,167 @@
+package com.company;
+
+import java.util.ArrayList;
+
+/**
+ * Maps {@link ItemSet}s to their frequencies without boxing the counts.
+ * Open addressing with linear probing over parallel key/count arrays.
+ */
+public class ItemSetCountMap {
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private ItemSet[] keys;
+    private int[] counts;
+    private int size;
+    private int resizeAt;
+
+    public ItemSetCountMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize - the number of entries the map should hold before it needs to grow
+     */
+    public ItemSetCountMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, expectedSize * 2) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(ItemSet key) {
+        return keys[indexOf(key)] != null;
+    }
+
+    /**
+     * @param key          - an itemset
+     * @param defaultValue - the value returned when the itemset isn't in the map
+     * @return the count of the itemset, or defaultValue if it isn't in the map
+     */
+    public int getOrDefault(ItemSet key, int defaultValue) {
+        int index = indexOf(key);
+        return keys[index] != null ? counts[index] : defaultValue;
+    }
+
+    /**
+     * @param key   - an itemset
+     * @param count - its frequency
+     */
+    public void put(ItemSet key, int count) {
+        int index = indexOf(key);
+        if (keys[index] == null) {
+            insertAt(index, key, count);
+        } else {
+            counts[index] = count;
+        }
+    }
+
+    /**
+     * Adds delta to the count of the given itemset, inserting it with a count of delta if it's missing
+     *
+     * @param key   - an itemset
+     * @param delta - the amount to add
+     * @return the new count of the itemset
+     */
+    public int add(ItemSet key, int delta) {
+        int index = indexOf(key);
+        if (keys[index] == null) {
+            insertAt(index, key, delta);
+            return delta;
+        }
+        counts[index] += delta;
+        return counts[index];
+    }
+
+    /**
+     * Adds every entry of the other map to this one
+     *
+     * @param other - the counts to merge into this map
+     */
+    public void addAll(ItemSetCountMap other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != null) {
+                add(other.keys[i], other.counts[i]);
+            }
+        }
+    }
+
+    /**
+     * @return a snapshot of all itemsets in the map
+     */
+    public ArrayList<ItemSet> keys() {
+        ArrayList<ItemSet> result = new ArrayList<>(size);
+        for (ItemSet key : keys) {
+            if (key != null) {
+                result.add(key);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Calls the visitor once for every (itemset, count) entry
+     *
+     * @param visitor - the callback
+     */
+    public void forEach(EntryVisitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                visitor.visit(keys[i], counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Callback for {@link #forEach(EntryVisitor)}
+     */
+    public interface EntryVisitor {
+        void visit(ItemSet itemSet, int count);
+    }
+
+    private int indexOf(ItemSet key) {
+        int mask = keys.length - 1;
+        int index = mix(key.hashCode()) & mask;
+        while (keys[index] != null && !keys[index].equals(key)) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void insertAt(int index, ItemSet key, int count) {
+        keys[index] = key;
+        counts[index] = count;
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    private void rehash(int capacity) {
+        ItemSet[] oldKeys = keys;
+        int[] oldCounts = counts;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                counts[index] = oldCounts[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new ItemSet[capacity];
+        counts = new int[capacity];
+        resizeAt = (capacity >> 1) + (capacity >> 2);
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
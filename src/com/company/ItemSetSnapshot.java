@@ -0,0 +1,268 @@
+package com.company;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The persisted result of a previous run that incremental mining starts from.
+ *
+ * It holds the minimum support and instance count the itemsets were mined with, the global item dictionary,
+ * every data file mined so far and the itemset counts. The counts are exact over all of those files and cover
+ * at least every itemset that was frequent at the stored minimum support; anything missing was infrequent.
+ * Each data file remembers how its own item ids map to the global ones, so it can be rescanned later.
+ */
+public class ItemSetSnapshot {
+    private static final int MAGIC = 0x46555053;
+    private static final int VERSION = 1;
+
+    /**
+     * A data file that is part of the snapshot
+     */
+    public static final class SourceFile {
+        private final String path;
+        private final long size;
+        private final long lastModified;
+        private final int[] globalItemIds;
+
+        /**
+         * @param file          - the data file
+         * @param globalItemIds - the global item id of each of the file's own item ids
+         */
+        public SourceFile(File file, int[] globalItemIds) {
+            this(file.getAbsolutePath(), file.length(), file.lastModified(), globalItemIds);
+        }
+
+        private SourceFile(String path, long size, long lastModified, int[] globalItemIds) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.globalItemIds = globalItemIds;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public int[] getGlobalItemIds() {
+            return globalItemIds;
+        }
+
+        /**
+         * @return true if the file still has the size and modification time it was mined with
+         */
+        public boolean isUnchanged() {
+            File file = new File(path);
+            return file.isFile() && file.length() == size && file.lastModified() == lastModified;
+        }
+    }
+
+    private final double minSup;
+    private final int numInstances;
+    private final String[] attributeNames;
+    private final ArrayList<String> itemNames;
+    private final ArrayList<SourceFile> sourceFiles;
+    private final ItemSetCountMap counts;
+
+    /**
+     * @param minSup         - the minimum support the counts were mined with
+     * @param numInstances   - the number of instances over all source files
+     * @param attributeNames - the names of the attributes
+     * @param itemNames      - the global item dictionary, indexed by item id
+     * @param sourceFiles    - every data file mined so far, in the order they were added
+     * @param counts         - exact counts of at least every frequent itemset
+     */
+    public ItemSetSnapshot(double minSup, int numInstances, String[] attributeNames, ArrayList<String> itemNames,
+                           ArrayList<SourceFile> sourceFiles, ItemSetCountMap counts) {
+        this.minSup = minSup;
+        this.numInstances = numInstances;
+        this.attributeNames = attributeNames;
+        this.itemNames = itemNames;
+        this.sourceFiles = sourceFiles;
+        this.counts = counts;
+    }
+
+    /**
+     * @param result   - the result of mining a single data file from scratch
+     * @param dataFile - the file the result was mined from
+     * @return the first snapshot, which incremental runs can continue from
+     */
+    public static ItemSetSnapshot of(MiningResult result, File dataFile) {
+        int[] globalItemIds = new int[result.getItemNames().size()];
+        for (int i = 0; i < globalItemIds.length; i++) {
+            globalItemIds[i] = i;
+        }
+        ArrayList<SourceFile> sourceFiles = new ArrayList<>();
+        sourceFiles.add(new SourceFile(dataFile, globalItemIds));
+        return new ItemSetSnapshot(result.getConfig().getMinSupport(), result.getNumInstances(), result.getAttributeNames(),
+                new ArrayList<>(result.getItemNames()), sourceFiles, result.getCounts());
+    }
+
+    public double getMinSup() {
+        return minSup;
+    }
+
+    public int getNumInstances() {
+        return numInstances;
+    }
+
+    public String[] getAttributeNames() {
+        return attributeNames;
+    }
+
+    public ArrayList<String> getItemNames() {
+        return itemNames;
+    }
+
+    public List<SourceFile> getSourceFiles() {
+        return sourceFiles;
+    }
+
+    public ItemSetCountMap getCounts() {
+        return counts;
+    }
+
+    /**
+     * @param file - a data file
+     * @return true if the file was already mined into this snapshot
+     */
+    public boolean contains(File file) {
+        String path = file.getAbsolutePath();
+        for (SourceFile sourceFile : sourceFiles) {
+            if (sourceFile.getPath().equals(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param file - the snapshot file
+     * @return the snapshot, or null if the file doesn't exist yet
+     * @throws IOException - if the file exists but can't be read
+     */
+    public static ItemSetSnapshot read(File file) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(file + " is not an itemset snapshot");
+            }
+
+            double minSup = in.readDouble();
+            int numInstances = in.readInt();
+
+            String[] attributeNames = new String[in.readInt()];
+            for (int i = 0; i < attributeNames.length; i++) {
+                attributeNames[i] = readString(in);
+            }
+
+            int numItems = in.readInt();
+            ArrayList<String> itemNames = new ArrayList<>(numItems);
+            for (int i = 0; i < numItems; i++) {
+                itemNames.add(readString(in));
+            }
+
+            int numFiles = in.readInt();
+            ArrayList<SourceFile> sourceFiles = new ArrayList<>(numFiles);
+            for (int i = 0; i < numFiles; i++) {
+                String path = readString(in);
+                long size = in.readLong();
+                long lastModified = in.readLong();
+                sourceFiles.add(new SourceFile(path, size, lastModified, readInts(in)));
+            }
+
+            int numItemSets = in.readInt();
+            ItemSetCountMap counts = new ItemSetCountMap();
+            for (int i = 0; i < numItemSets; i++) {
+                int[] items = readInts(in);
+                counts.put(ItemSet.ofSorted(items), in.readInt());
+            }
+
+            return new ItemSetSnapshot(minSup, numInstances, attributeNames, itemNames, sourceFiles, counts);
+        }
+    }
+
+    /**
+     * Writes the snapshot through a temporary file, so a failed write never leaves a broken snapshot behind
+     *
+     * @param file - the snapshot file
+     * @throws IOException - if the file can't be written
+     */
+    public void write(File file) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeDouble(minSup);
+            out.writeInt(numInstances);
+
+            out.writeInt(attributeNames.length);
+            for (String name : attributeNames) {
+                writeString(out, name);
+            }
+
+            out.writeInt(itemNames.size());
+            for (String name : itemNames) {
+                writeString(out, name);
+            }
+
+            out.writeInt(sourceFiles.size());
+            for (SourceFile sourceFile : sourceFiles) {
+                writeString(out, sourceFile.path);
+                out.writeLong(sourceFile.size);
+                out.writeLong(sourceFile.lastModified);
+                writeInts(out, sourceFile.globalItemIds);
+            }
+
+            out.writeInt(counts.size());
+            for (ItemSet itemSet : counts.keys()) {
+                writeInts(out, itemSet.toArray());
+                out.writeInt(counts.getOrDefault(itemSet, 0));
+            }
+        }
+
+        if (!temp.renameTo(file)) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.company;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes one JSON object per line (JSON Lines), as the itemsets and rules arrive:
+ * <pre>
+ * {"type":"itemset","items":["a=y","b=n"],"count":12,"support":0.4}
+ * {"type":"rule","premise":["a=y"],"premise_count":20,"implication":["b=n"],"implication_count":12,"confidence":0.6,"support":0.4}
+ * </pre>
+ * Item names are escaped once up front, so writing a record is only appending strings.
+ */
+public class JsonLinesSink implements ResultSink {
+    private final BufferedWriter writer;
+    private String[] quotedNames;
+    private int numInstances;
+
+    /**
+     * @param file - the file to (over)write, in UTF-8
+     * @throws IOException - if the file can't be opened
+     */
+    public JsonLinesSink(File file) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void begin(List<String> itemNames, int numInstances) {
+        this.quotedNames = new String[itemNames.size()];
+        for (int i = 0; i < quotedNames.length; i++) {
+            quotedNames[i] = quote(itemNames.get(i));
+        }
+        this.numInstances = numInstances;
+    }
+
+    @Override
+    public void itemSet(ItemSet itemSet, int count) throws IOException {
+        writer.write("{\"type\":\"itemset\",\"items\":");
+        writeItems(itemSet);
+        writer.write(",\"count\":");
+        writer.write(String.valueOf(count));
+        writer.write(",\"support\":");
+        writer.write(String.valueOf((double) count / numInstances));
+        writer.write("}\n");
+    }
+
+    @Override
+    public void rule(AssociationRule rule) throws IOException {
+        writer.write("{\"type\":\"rule\",\"premise\":");
+        writeItems(rule.getPremise());
+        writer.write(",\"premise_count\":");
+        writer.write(String.valueOf(rule.getPremiseCount()));
+        writer.write(",\"implication\":");
+        writeItems(rule.getImplication());
+        writer.write(",\"implication_count\":");
+        writer.write(String.valueOf(rule.getImplicationCount()));
+        writer.write(",\"confidence\":");
+        writer.write(String.valueOf(rule.getConfidence()));
+        writer.write(",\"support\":");
+        writer.write(String.valueOf(rule.getSupport()));
+        writer.write("}\n");
+    }
+
+    private void writeItems(ItemSet itemSet) throws IOException {
+        writer.write('[');
+        for (int i = 0; i < itemSet.size(); i++) {
+            if (i > 0) writer.write(',');
+            writer.write(quotedNames[itemSet.get(i)]);
+        }
+        writer.write(']');
+    }
+
+    /**
+     * @return the value as a JSON string, quotes included
+     */
+    static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
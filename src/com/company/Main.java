@@ -16,523 +16,579 @@ import org.jfree.chart.axis.NumberTickUnit;
 import org.jfree.chart.plot.CategoryPlot;
 import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.data.category.DefaultCategoryDataset;
-import weka.core.Instance;
-import weka.core.Instances;
-import weka.core.converters.ConverterUtils.DataSource;
 
 import java.awt.*;
 import java.io.*;
+import java.net.InetAddress;
 import java.util.*;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Command line interface over {@link AssociationRuleMiner}: reads the arguments into {@link CommandLineOptions},
+ * loads the input file, runs the kind of job the options ask for, and prints the frequent itemsets and rules
+ * in the same format as Weka.
+ */
 public class Main {
 
-    // Parameters set with default values that can be overwritten through command line arguments
-    private static double minSup = 0.55;
-    private static double minConf = 0.9;
-    private static int numRulesToPrint = 10;
-    private static String inputFilePath = "vote.arff";
-    private static String outputFilePath = "result.txt";
-    private static String testRunTime = "n";
-
-    // Data gathered from input file
-    private static int numAttributes;
-    private static int numInstances;
-    private static String[] attributeNames;
-    private static ArrayList<ArrayList<Integer>> encodedInstances;
-    private static HashMap<String,Integer> stringToIntegerEncoded = new HashMap<>();
-    private static HashMap<Integer,String> integerToStringEncoded = new HashMap<>();
-    private static DataSource data = null;
-    private static Instances instances = null;
-
-    private static BufferedWriter writer = null;
+    // Supports from 0.1 to 1.0 tried when testing the runtime
+    private static final int RUNTIME_STEPS = 10;
 
     public static void main(String[] args) throws Exception {
+        CommandLineOptions options = CommandLineOptions.parse(args);
+        AssociationRuleMiner miner = new AssociationRuleMiner(options.toConfig());
+
+        if (options.getMode() == CommandLineOptions.Mode.WORKER) {
+            runWorker(options, (AprioriMiner) miner.getConfig().getEngine());
+            return;
+        }
+
+        if (options.getMode() == CommandLineOptions.Mode.WINDOW) {
+            runSlidingWindow(options, miner.getConfig());
+            return;
+        }
 
-        // Handling input arguments
-        for (int i = 0; i < args.length; i++) {
-            switch(i){
-                case 0:
-                    inputFilePath = args[0];
-                    break;
-                case 1:
-                    minSup = Double.parseDouble(args[1]);
-                    if (minSup < 0.0 || minSup > 1.0) {
-                        System.out.println("Invalid minimum support. Using default of 0.55");
-                        minSup = 0.55;
-                    }
-                    break;
-                case 2:
-                    minConf = Double.parseDouble(args[2]);
-                    if (minConf < 0.0 || minConf > 1.0) {
-                        System.out.println("Invalid minimum confidence. Using default of 0.9");
-                        minConf = 0.9;
-                    }
-                    break;
-                case 3:
-                    numRulesToPrint = Integer.parseInt(args[3]);
-                    if (numRulesToPrint < 0) {
-                        System.out.println("Invalid number of rules to print. Using default of 10");
-                    }
-                    break;
-                case 4:
-                    outputFilePath = args[4];
-                    break;
-                case 5:
-                    testRunTime = args[5];
-                    if (!testRunTime.equalsIgnoreCase("y") && !testRunTime.equalsIgnoreCase("n")) {
-                        System.out.println("Invalid input for runtime testing. Using default answer (n).");
-                    }
-                    break;
+        if (options.getMode() == CommandLineOptions.Mode.SWEEP) {
+            EncodedDataset dataset = grabData(options);
+            if (dataset != null) {
+                runSweep(options, dataset, miner.getConfig());
             }
+            return;
         }
 
-        grabData(inputFilePath);
+        if (options.getMode() == CommandLineOptions.Mode.STREAM) {
+            EncodedDataset dataset = grabData(options);
+            if (dataset != null) {
+                streamResults(options, miner, dataset);
+            }
+            return;
+        }
 
-        if (data == null || instances == null) {
-            System.out.println("Error gathering data from given file. Exiting.");
+        EncodedDataset dataset = null;
+        MiningResult result = null;
+        IncrementalMiner incrementalMiner = null;
+
+        switch (options.getMode()) {
+            case PARTITIONED:
+                result = grabDataPartitioned(miner, options);
+                break;
+            case DISTRIBUTED:
+                result = grabDataDistributed(miner, options);
+                break;
+            case INCREMENTAL:
+                ItemSetSnapshot snapshot = grabSnapshot(options);
+                dataset = snapshot == null ? null : grabData(options);
+                if (dataset != null) {
+                    incrementalMiner = miner.incremental(snapshot);
+                    result = updateIncrementally(miner, incrementalMiner, dataset);
+                }
+                break;
+            default:
+                dataset = grabData(options);
+                if (dataset != null) {
+                    result = miner.mine(dataset);
+                }
+                break;
+        }
+
+        if (result == null) {
             return;
         }
 
-        writer = new BufferedWriter(new FileWriter(outputFilePath, true));
+        if (options.getMetricsFile() != null) {
+            writeMetrics(result.getMetrics(), options);
+        }
+
+        BufferedWriter writer = new BufferedWriter(new FileWriter(options.getOutputFilePath(), true));
         writer.append("");
         writer.newLine();
 
         try {
-            ConcurrentHashMap<ArrayList<Integer>, Integer> frequentItemSets = AprioriAlgorithm();
-            ArrayList<AssociationRule> rules = ruleGeneration(frequentItemSets);
-
-            sortRules(rules);
-            printAllRules(rules);
+            if (options.getSnapshotFilePath() != null) {
+                writeSnapshot(result, incrementalMiner, options);
+            }
+            result.writeTo(new WekaTextSink(writer, options.getInputFilePath(), result.getNumAttributes(), result.getConfig(),
+                    options.getNumRulesToPrint()));
 
-            if (testRunTime.equalsIgnoreCase("y")) {
+            if (options.isTestRunTime() && options.getMode() != CommandLineOptions.Mode.BATCH) {
+                System.out.println("Runtime testing needs all the data in memory. Skipping it in partitioned, incremental and distributed mode.");
+            } else if (options.isTestRunTime()) {
                 writer.newLine();
                 writer.newLine();
                 writer.append("End of main program. Now testing runtime with different supports, 0.1 to 1.0");
                 writer.newLine();
-                testRuntimeOfProgram();
+                testRuntimeOfProgram(writer, dataset, miner.getConfig());
             }
         } finally {
             writer.newLine();
             writer.append("");
-            if (writer != null) {
-                writer.close();
-            }
+            writer.close();
 
             System.out.println("Program complete.");
-            System.out.println("Output file: " + outputFilePath);
+            System.out.println("Output file: " + options.getOutputFilePath());
         }
     }
 
 
     /**
-     * Given a file path, it'll attempt to grab the necessary data from it.
-     * {@link DataSource} allows the reading of files other than ARFF, but it must be appropriately formatted
+     * Loads the input file into memory: encoded files directly, others from the binary cache if it's enabled
+     * and usable, or else with the selected loader
      *
-     * @param fileName - the file path of the data you want to read
+     * @param options - the command line options
+     * @return the encoded data, or null if it couldn't be read
      */
-    private static void grabData(String fileName) {
-        try {
-            data = new DataSource(fileName);
-            instances = data.getDataSet();
-            // setting class attribute if the data format does not provide this information
-            // For example, the XRFF format saves the class attribute information as well
-            if (instances.classIndex() == -1) {
-                instances.setClassIndex(instances.numAttributes() - 1);
+    private static EncodedDataset grabData(CommandLineOptions options) {
+        String fileName = options.getInputFilePath();
+        EncodedDataset dataset = null;
+
+        if (fileName.toLowerCase().endsWith(".enc")) {
+            dataset = grabEncodedData(fileName);
+        } else {
+            if (options.isUseCache()) {
+                dataset = grabCachedData(fileName);
             }
 
-            // Number of attributes
-            numAttributes = instances.numAttributes();
-            // Number of data entries
-            numInstances = instances.numInstances();
+            if (dataset == null) {
+                // Weka can't read basket files, so they always go through the streaming loader
+                if (options.isStreamingLoader() || StreamingLoader.isBasketFile(fileName)) {
+                    dataset = grabDataStreaming(fileName);
+                } else {
+                    dataset = grabDataWeka(fileName);
+                }
 
-            // Gathering array of all attribute names
-            attributeNames = new String[numAttributes];
-            for (int i = 0; i < numAttributes; i++) {
-                attributeNames[i] = instances.attribute(i).name();
+                if (dataset != null && options.isUseCache()) {
+                    writeCachedData(fileName, dataset);
+                }
             }
+        }
+
+        if (dataset == null) {
+            System.out.println("Error gathering data from given file. Exiting.");
+        }
+        return dataset;
+    }
 
-            // Creates encoded attribute names (i.e. "Class=democrat" and "Class=republican"
-            createEncodedAttributeNames();
-            createSizeOneItemSetsByEncodedIndexNumber();
 
+    /**
+     * Given a file path, it'll attempt to grab the necessary data from it with {@link WekaLoader}
+     *
+     * @param fileName - the file path of the data you want to read
+     * @return the encoded data, or null if it couldn't be read
+     */
+    private static EncodedDataset grabDataWeka(String fileName) {
+        try {
+            return WekaLoader.load(fileName);
         } catch (Exception e) {
             System.out.println("Unable to convert data from file. Exiting.");
             System.out.println(e.getLocalizedMessage());
+            return null;
         }
     }
 
 
     /**
-     * Apriori Algorithm
+     * Reads the file with {@link StreamingLoader}, which encodes the data as it parses without building Weka Instances
      *
-     * @return (Key,Value) pairs of frequent itemsets and their respective frequencies in the data
-     * @throws IOException - throws IOException if {@link BufferedWriter} isn't functional
+     * @param fileName - the file path of the data you want to read (ARFF, or CSV with a header line)
+     * @return the encoded data, or null if it couldn't be read
      */
-    private static ConcurrentHashMap<ArrayList<Integer>, Integer> AprioriAlgorithm() throws IOException {
-        writer.append("=======");
-        writer.newLine();
-        writer.append("Apriori");
-        writer.newLine();
-        writer.append("=======");
-        writer.newLine();
-
-        int numSupportedInstances = (int)(minSup*numInstances);
-
-        writer.newLine();
-        writer.append("Input file: ").append(inputFilePath);
-        writer.newLine();
-        writer.append("Number of Instances: ").append(String.valueOf(numInstances));
-        writer.newLine();
-        writer.append("Number of Attributes: ").append(String.valueOf(numAttributes));
-        writer.newLine();
-        writer.append("Minimum support: ").append(String.valueOf(minSup)).append(" (").append(String.valueOf(numSupportedInstances)).append(" instances)");
-        writer.newLine();
-        writer.append("Minimum metric <confidence>: ").append(String.valueOf(minConf));
-        writer.newLine();
-        writer.append("Generated sets of large itemsets:");
-
-
-        // ALGORITHM HERE
-
-        int k = 2;
-        ConcurrentHashMap<ArrayList<Integer>, Integer> frequentItemSets = new ConcurrentHashMap<>();
-        ArrayList<ArrayList<Integer>> itemSetsOfSizeOne = createSizeOneItemSetsByEncodedIndexNumber();
-        ArrayList<ArrayList<Integer>> currentFrequentItemSets = createItemSetsWithSupport(itemSetsOfSizeOne, frequentItemSets);
-        ArrayList<ArrayList<Integer>> currentCandidateItemSets = new ArrayList<>();
-
-        while (currentFrequentItemSets.size() > 0) {
-            printFrequentItemSets(currentFrequentItemSets, (k-1));
-            currentCandidateItemSets = createCandidates(currentFrequentItemSets, k);
-            currentFrequentItemSets = createItemSetsWithSupport(currentCandidateItemSets, frequentItemSets);
-            k++;
+    private static EncodedDataset grabDataStreaming(String fileName) {
+        try {
+            return StreamingLoader.load(fileName);
+        } catch (IOException e) {
+            System.out.println("Unable to convert data from file. Exiting.");
+            System.out.println(e.getLocalizedMessage());
+            return null;
         }
-
-        return frequentItemSets;
     }
 
 
     /**
-     * Creates itemsets with given minimum support
+     * Mines the file with the two-pass partition algorithm instead of loading it into memory.
+     * Every partition is mined with the selected engine; only the item names and the instance count are kept.
      *
-     * @param items - sets of itemsets
-     * @param frequentItemSets - frequent itemsets and their respective frequencies within the data
-     * @return
+     * @param miner - the miner with the settings to use
+     * @param options - the command line options
+     * @return the frequent itemsets and rules, or null if the file couldn't be read
      */
-    private static ArrayList<ArrayList<Integer>> createItemSetsWithSupport(ArrayList<ArrayList<Integer>> items, ConcurrentHashMap<ArrayList<Integer>, Integer> frequentItemSets){
-        ArrayList<ArrayList<Integer>> itemSet = new ArrayList<>();
-        HashMap<ArrayList<Integer>, Integer> tempFrequent = new HashMap<>();
-
-        for (ArrayList<Integer> item : items) {
-            for (ArrayList<Integer> instance : encodedInstances) {
-                if (instance.containsAll(item)) {
-                    frequentItemSets.put(item, (frequentItemSets.getOrDefault(item, 0) + 1));
-                    tempFrequent.put(item, (tempFrequent.getOrDefault(item, 0) + 1));
-                }
-            }
-        }
-
-        for (ArrayList<Integer> key : tempFrequent.keySet()){
-            double support = ((double)tempFrequent.get(key))/((double)numInstances);
-
-            if (support >= minSup) {
-                itemSet.add(key);
-            }
+    private static MiningResult grabDataPartitioned(AssociationRuleMiner miner, CommandLineOptions options) {
+        PartitionedMiner partitionedMiner = miner.partitioned(options.getPartitionRows());
+        try {
+            MiningResult result = miner.mine(partitionedMiner, options.getInputFilePath());
+            System.out.println("Mined " + partitionedMiner.getNumPartitions() + " partitions, " + partitionedMiner.getNumCandidates()
+                    + " locally frequent itemsets counted in the second pass.");
+            return result;
+        } catch (IOException e) {
+            System.out.println("Unable to convert data from file. Exiting.");
+            System.out.println(e.getLocalizedMessage());
+            return null;
         }
-
-        return itemSet;
     }
 
 
     /**
-     * Creating candidates from the current frequent itemsets
+     * Mines the shards of the counting workers with {@link AssociationRuleMiner#mine(DistributedMiner)}
      *
-     * @param itemSet - sets of current frequent itemsets
-     * @param k - num of items within the generated candidates itemsets
-     * @return sets of candidate itemsets
+     * @param miner - the miner with the settings to use; its engine isn't used
+     * @param options - the command line options
+     * @return the frequent itemsets and rules, or null if a worker failed
      */
-    private static ArrayList<ArrayList<Integer>> createCandidates(ArrayList<ArrayList<Integer>> itemSet, int k) {
-        ArrayList<ArrayList<Integer>> candidateSet = new ArrayList<>();
-
-        for (int i = 0; i < itemSet.size() - 1; i++) {
-            for (int j = i; j < itemSet.size(); j++) {
-                if (canTwoListsCombine(itemSet.get(i), itemSet.get(j), k)) {
-                    ArrayList<Integer> combinedItemSet = union(itemSet.get(i), itemSet.get(j));
-
-                    if (combinedItemSet.size() == k) {
-                        candidateSet.add(combinedItemSet);
-                    }
-                }
-            }
+    private static MiningResult grabDataDistributed(AssociationRuleMiner miner, CommandLineOptions options) {
+        try (DistributedMiner distributedMiner = DistributedMiner.connect(options.getWorkerAddresses(), options.getWorkerTimeoutMillis())) {
+            MiningResult result = miner.mine(distributedMiner);
+            System.out.println("Mined " + distributedMiner.getNumInstances() + " instances on " + distributedMiner.getNumWorkers() + " workers.");
+            return result;
+        } catch (IOException e) {
+            System.out.println("Distributed counting failed. Exiting.");
+            System.out.println(e.getLocalizedMessage());
+            return null;
         }
-
-        return candidateSet;
     }
 
 
     /**
-     * Creating itemsets using their respective indices within the encoded data
+     * Loads the input file as this process' shard and counts it for coordinators until the process is stopped.
+     * Only listens on the loopback address unless another bind address is given, since workers don't authenticate
+     * their coordinators.
      *
-     * @return sets of 1-itemsets [ a set for each attribute and their labels (i.e. y/n) ]
+     * @param options - the command line options
+     * @param counter - the counting and threads to count the shard with
      */
-    private static ArrayList<ArrayList<Integer>> createSizeOneItemSetsByEncodedIndexNumber() {
-        ArrayList<ArrayList<Integer>> sizeOneItemSets = new ArrayList<>();
-
-        int numEncodedAttributes = stringToIntegerEncoded.keySet().size();
-        for (int i = 0; i < numEncodedAttributes; i++) {
-            ArrayList<Integer> candidate = new ArrayList<>(1);
-            candidate.add(i);
-            sizeOneItemSets.add(candidate);
+    private static void runWorker(CommandLineOptions options, AprioriMiner counter) {
+        EncodedDataset shard = grabData(options);
+        if (shard == null) {
+            return;
         }
 
-        return sizeOneItemSets;
+        InetAddress bindAddress = options.getWorkerBindAddress();
+        System.out.println("Counting worker for " + shard.getNumInstances() + " instances listening on "
+                + bindAddress.getHostAddress() + ":" + options.getWorkerPort() + ".");
+        try {
+            new CountingWorker(shard, counter).serve(bindAddress, options.getWorkerPort(), options.getWorkerTimeoutMillis());
+        } catch (IOException e) {
+            System.out.println("Unable to listen for coordinators. Exiting.");
+            System.out.println(e.getLocalizedMessage());
+        }
     }
 
 
     /**
-     * Encodes the attribute names for easier manipulation later. Follows the same format as Weka.
+     * Mines a continuous feed of basket lines over a sliding window and re-emits the best rules on an interval.
+     * The input is stdin ("-") or a file that is followed as it grows; the output is the output file or stdout ("-").
      *
-     * @throws Exception - throws an Exception if {@link DataSource} isn't functional
+     * @param options - the command line options
+     * @param config - the settings every emit is mined with
+     * @throws IOException - if the input can't be read or the output can't be written
+     * @throws InterruptedException - if the thread is interrupted while waiting for new lines
      */
-    private static void createEncodedAttributeNames() throws Exception {
-        encodedInstances = new ArrayList<>();
-
-        int k = 0;
-        for (Instance instance : data.getDataSet()) {
-            ArrayList<Integer> encodedDataEntry = new ArrayList<>(numAttributes);
-            String[] split = instance.toString().split(",");
-
-            for (int i = 0; i < split.length; i++) {
-                String encodedString = attributeNames[i] + "=" + split[i];
-                if (!stringToIntegerEncoded.containsKey(encodedString)) {
-                    integerToStringEncoded.put(k, encodedString);
-                    stringToIntegerEncoded.put(encodedString, k);
-                    k++;
-                }
-                encodedDataEntry.add(i, stringToIntegerEncoded.get(encodedString));
-            }
-            encodedInstances.add(encodedDataEntry);
+    private static void runSlidingWindow(CommandLineOptions options, MiningConfig config) throws IOException, InterruptedException {
+        boolean fromStdin = options.getInputFilePath().equals("-");
+        SlidingWindowMiner window = new SlidingWindowMiner(options.getWindowSize(), options.getWindowMillis());
+
+        try (BufferedWriter writer = options.getOutputFilePath().equals("-")
+                     ? new BufferedWriter(new OutputStreamWriter(System.out))
+                     : new BufferedWriter(new FileWriter(options.getOutputFilePath(), true));
+             TailReader reader = new TailReader(fromStdin ? System.in : new FileInputStream(options.getInputFilePath()), !fromStdin)) {
+            window.follow(reader, options.getEmitEveryTransactions(), options.getEmitEveryMillis(),
+                    (current, now) -> printWindowRules(writer, current, now, config, options.getNumRulesToPrint()));
         }
     }
 
 
     /**
-     * Checks to see if two itemsets can form a union.
-     * It's necessary for creating candidate itemsets.
+     * Mines the current window and prints its best rules in the same format as the batch output
      *
-     * @param list1 - an itemset of size k-1
-     * @param list2 - another itemset of size k-1
-     * @param k - the size of the combined itemset
-     * @return true if they can combine, false otherwise
+     * @param writer - where the report goes
+     * @param window - the sliding window
+     * @param now - the current time, in milliseconds
+     * @param config - the settings to mine with
+     * @param numRulesToPrint - the most rules printed
+     * @throws IOException - throws IOException if {@link BufferedWriter} isn't functional
      */
-    private static boolean canTwoListsCombine(ArrayList<Integer> list1, ArrayList<Integer> list2, int k) {
-       boolean canTheyCombine = true;
-
-       if (list1.size() != list2.size() || list1.get(k-2) >= list2.get(k-2)) {
-           return false;
-       }
-
-       for (int i = 0; i < k-2; i++) {
-           if (!list1.get(i).equals(list2.get(i))) {
-               canTheyCombine = false;
-           }
-       }
+    private static void printWindowRules(BufferedWriter writer, SlidingWindowMiner window, long now, MiningConfig config,
+                                         int numRulesToPrint) throws IOException {
+        int numInstances = window.size();
+        ItemSetCountMap frequentItemSets = window.mine(config.getMinSupport());
+        ArrayList<AssociationRule> rules = RuleGenerator.generate(frequentItemSets, numInstances, config);
 
-       return canTheyCombine;
+        writer.append("==============");
+        writer.newLine();
+        writer.append("Sliding window");
+        writer.newLine();
+        writer.append("==============");
+        writer.newLine();
+        writer.newLine();
+        writer.append("Time: ").append(new Date(now).toString());
+        writer.newLine();
+        writer.append("Number of Instances: ").append(String.valueOf(numInstances))
+                .append(" (").append(String.valueOf(window.getNumSeen())).append(" seen)");
+        writer.newLine();
+        writer.append("Minimum support: ").append(String.valueOf(config.getMinSupport())).append(" (")
+                .append(String.valueOf(numInstances == 0 ? 0 : config.minimumSupportCount(numInstances))).append(" instances)");
+        writer.newLine();
+        writer.append("Minimum metric <confidence>: ").append(String.valueOf(config.getMinConfidence()));
+        writer.newLine();
+        writer.append("Number of large itemsets: ").append(String.valueOf(frequentItemSets.size()));
+        writer.newLine();
+        // Ids are reused once their item leaves the window, so names are looked up in the window's current dictionary
+        WekaTextSink.writeRules(writer, rules.size(), bestRules(rules, numRulesToPrint), window.getItemNames(), config);
+        writer.newLine();
+        writer.newLine();
+        writer.flush();
     }
 
+
     /**
-     * Sorts a list of Association Rules first by confidence, then support, then frequencies
+     * Mines the data once at the lowest support of the sweep and prints the rules of every support and confidence
+     * pair. Thresholds that weren't swept are the minimum support and confidence from the arguments.
      *
-     * @param rules - a list of {@link AssociationRule}s
-     * @return a sorted list of Association Rules
+     * @param options - the command line options
+     * @param dataset - the encoded data
+     * @param config - the settings from the arguments
+     * @throws IOException - throws IOException if {@link BufferedWriter} isn't functional
+     * @throws InterruptedException - if the thread is interrupted while the sweep runs
      */
-    private static ArrayList<AssociationRule> sortRules(ArrayList<AssociationRule> rules) {
-
-        // Sort first by support (follows Weka)
-        rules.sort(new Comparator<AssociationRule>() {
-            @Override
-            public int compare(AssociationRule o1, AssociationRule o2) {
-                double supportDiff = o2.getSupport() - o1.getSupport();
-
-                return (supportDiff > 0 ? 1 : supportDiff < 0 ? -1 : 0);
-            }
-        });
-
-        // Then sort by confidence and frequencies
-        rules.sort(new Comparator<AssociationRule>() {
-            @Override
-            public int compare(AssociationRule o1, AssociationRule o2) {
-                double confDiff = o2.getConfidence() - o1.getConfidence();
-                if (confDiff > 0) {
-                    return 1;
-                } else if (confDiff < 0) {
-                    return -1;
-                } else {
-                    int implicationCountDiff = o2.getImplicationCount() - o1.getImplicationCount();
+    private static void runSweep(CommandLineOptions options, EncodedDataset dataset, MiningConfig config) throws IOException, InterruptedException {
+        List<MiningResult> results = new ThresholdSweep(config, options.getNumThreads())
+                .run(dataset, options.getSweepSupports(), options.getSweepConfidences());
 
-                    if (implicationCountDiff > 0) {
-                        return 1;
-                    } else if (implicationCountDiff < 0) {
-                        return -1;
-                    } else {
-
-                        int premiseCountDiff = o2.getPremiseCount() - o1.getPremiseCount();
+        BufferedWriter writer = new BufferedWriter(new FileWriter(options.getOutputFilePath(), true));
+        writer.append("");
+        writer.newLine();
 
-                        if (premiseCountDiff > 0) {
-                            return 1;
-                        } else if (premiseCountDiff < 0) {
-                            return -1;
-                        }
+        try {
+            writer.append("================");
+            writer.newLine();
+            writer.append("Threshold sweep");
+            writer.newLine();
+            writer.append("================");
+            writer.newLine();
+            writer.newLine();
+            writer.append("Input file: ").append(options.getInputFilePath());
+            writer.newLine();
+            writer.append("Number of Instances: ").append(String.valueOf(dataset.getNumInstances()));
+            writer.newLine();
+            writer.append("Number of Attributes: ").append(String.valueOf(dataset.getNumAttributes()));
+            writer.newLine();
 
-                        return 0;
-                    }
-                }
+            for (MiningResult result : results) {
+                MiningConfig resultConfig = result.getConfig();
+                writer.newLine();
+                writer.append("Minimum support: ").append(String.valueOf(resultConfig.getMinSupport())).append(" (")
+                        .append(String.valueOf((int)(resultConfig.getMinSupport()*result.getNumInstances()))).append(" instances)");
+                writer.newLine();
+                writer.append("Minimum metric <confidence>: ").append(String.valueOf(resultConfig.getMinConfidence()));
+                writer.newLine();
+                writer.append("Number of large itemsets: ").append(String.valueOf(result.getNumFrequentItemSets()));
+                writer.newLine();
+                WekaTextSink.writeRules(writer, result.getRules().size(), bestRules(result.getRules(), options.getNumRulesToPrint()),
+                        result.getItemNames(), resultConfig);
+                writer.newLine();
             }
-        });
+        } finally {
+            writer.newLine();
+            writer.append("");
+            writer.close();
 
-        return rules;
+            System.out.println("Program complete.");
+            System.out.println("Output file: " + options.getOutputFilePath());
+        }
     }
 
+
     /**
-     * Generates the rules given frequent itemsets
-     *
-     * @param frequentItemSets - frequent itemsets with their respective frequencies within the data
-     * @return a list of {@link AssociationRule}s, which contain the premise, implication, their individual frequencies, and the confidence of the rule
+     * @param options - the command line options
+     * @return the snapshot to add the input file to, or null if it can't be read or already holds the file
      */
-    private static ArrayList<AssociationRule> ruleGeneration(ConcurrentHashMap<ArrayList<Integer>, Integer> frequentItemSets) {
-        ArrayList<AssociationRule> rules = new ArrayList<>();
-        for (ArrayList<Integer> item : frequentItemSets.keySet()) {
-
-            int impliedCount = frequentItemSets.get(item);
-            double itemSupport = ((double)impliedCount / (double)numInstances);
+    private static ItemSetSnapshot grabSnapshot(CommandLineOptions options) {
+        ItemSetSnapshot snapshot;
+        try {
+            snapshot = ItemSetSnapshot.read(new File(options.getSnapshotFilePath()));
+        } catch (IOException e) {
+            System.out.println("Unable to read the itemset snapshot. Exiting.");
+            System.out.println(e.getLocalizedMessage());
+            return null;
+        }
 
-            // If the rule doesn't reach the minimum support, don't create it
-            if (itemSupport < minSup) continue;
+        if (snapshot == null) {
+            System.out.println("Unable to read the itemset snapshot. Exiting.");
+        } else if (snapshot.contains(new File(options.getInputFilePath()))) {
+            System.out.println(options.getInputFilePath() + " is already part of the itemset snapshot. Exiting.");
+            return null;
+        }
+        return snapshot;
+    }
 
-            Set<Integer> set = new HashSet<>(item);
 
-            for (Set<Integer> s : powerSet(set)) {
-                if (s.isEmpty() || s.size() == 0) continue;
-                Set<Integer> implied = new HashSet<>(item);
-                implied.removeAll(s);
+    /**
+     * @param rules - the rules, best first
+     * @param numRulesToPrint - the most rules printed
+     * @return the rules that are printed
+     */
+    private static List<AssociationRule> bestRules(List<AssociationRule> rules, int numRulesToPrint) {
+        return rules.subList(0, Math.min(numRulesToPrint, rules.size()));
+    }
 
-                if (implied.size() > 0) {
 
-                    ArrayList<Integer> premise = new ArrayList<>(s);
+    /**
+     * Mines the data and writes the frequent itemsets and rules to the output file in the selected format
+     * while they are produced, instead of collecting them for the report
+     *
+     * @param options - the command line options
+     * @param miner - the miner with the settings to use
+     * @param dataset - the encoded data
+     * @throws IOException - if the output file can't be written
+     */
+    private static void streamResults(CommandLineOptions options, AssociationRuleMiner miner, EncodedDataset dataset) throws IOException {
+        if (options.isTestRunTime()) {
+            System.out.println("Runtime testing writes to the report. Skipping it with streaming output.");
+        }
 
-                    int premiseCount = 0;
-                    double subsetSupport;
+        File outputFile = new File(options.getOutputFilePath());
+        MiningMetrics metrics;
+        switch (options.getStreamFormat()) {
+            case "jsonl":
+                metrics = miner.mineTo(dataset, new JsonLinesSink(outputFile));
+                break;
+            case "csv":
+                metrics = miner.mineTo(dataset, new CsvSink(outputFile));
+                break;
+            case "binary":
+                metrics = miner.mineTo(dataset, new BinaryResultSink(outputFile));
+                break;
+            default:
+                try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputFile, true))) {
+                    writer.newLine();
+                    metrics = miner.mineTo(dataset, new WekaTextSink(writer, options.getInputFilePath(), dataset.getNumAttributes(),
+                            miner.getConfig(), options.getNumRulesToPrint()));
+                    writer.newLine();
+                }
+        }
 
-                    // Extra check due to NullPointerExceptions
-                    if (!frequentItemSets.containsKey(premise)) {
-                        for (ArrayList<Integer> instance : encodedInstances) {
-                            if (instance.containsAll(premise)) {
-                                frequentItemSets.put(premise, (frequentItemSets.getOrDefault(item, 0) + 1));
-                            }
-                        }
-                    }
+        System.out.println("Wrote " + metrics.getMining().getProduced() + " itemsets and " + metrics.getRules().getProduced() + " rules.");
+        if (options.getMetricsFile() != null) {
+            writeMetrics(metrics, options);
+        }
 
-                    premiseCount = frequentItemSets.get(premise);
-                    subsetSupport = ((double)premiseCount / (double)numInstances);
+        System.out.println("Program complete.");
+        System.out.println("Output file: " + options.getOutputFilePath());
+    }
 
-                    double confidence = (itemSupport / subsetSupport);
 
-                    if (confidence >= minConf) {
-                        ArrayList<Integer> implication = new ArrayList<>(implied);
-                        AssociationRule newRule = new AssociationRule(premise, premiseCount, implication, impliedCount, confidence, itemSupport);
-                        if (!rules.contains(newRule)) {
-                            rules.add(newRule);
-                        }
-                    }
-                }
-            }
+    /**
+     * Treats the loaded data as a new batch on top of the snapshot and updates its frequent itemsets (FUP).
+     * The result's item names cover both and its instance count is the total.
+     *
+     * @param miner - the miner with the settings to use
+     * @param incrementalMiner - the update, run against the snapshot
+     * @param batch - the loaded data
+     * @return the frequent itemsets and rules over all the data, or null if the update failed
+     */
+    private static MiningResult updateIncrementally(AssociationRuleMiner miner, IncrementalMiner incrementalMiner, EncodedDataset batch) {
+        MiningResult result;
+        try {
+            result = miner.update(incrementalMiner, batch);
+        } catch (IOException e) {
+            System.out.println("Unable to update the itemset snapshot. Exiting.");
+            System.out.println(e.getLocalizedMessage());
+            return null;
         }
 
-        return rules;
+        System.out.println("Added " + batch.getNumInstances() + " instances to " + (result.getNumInstances() - batch.getNumInstances())
+                + ". Rescanned the earlier data " + incrementalMiner.getNumRescans() + " times for "
+                + incrementalMiner.getNumRescanned() + " candidates.");
+        return result;
     }
 
+
     /**
-     * Used to format the rules as Weka does
+     * Stores the frequent itemsets so the next run can continue from them with --incremental
      *
-     * @param rule - an {@link AssociationRule}
-     * @return - the given rule formatted into a String
+     * @param result - the frequent itemsets with their respective frequencies within all the data
+     * @param incrementalMiner - the update that produced the result, or null if it was mined from scratch
+     * @param options - the command line options
      */
-    private static String ruleToString(AssociationRule rule) {
-        StringBuilder sb = new StringBuilder();
+    private static void writeSnapshot(MiningResult result, IncrementalMiner incrementalMiner, CommandLineOptions options) {
+        File inputFile = new File(options.getInputFilePath());
+        ItemSetSnapshot snapshot = incrementalMiner != null
+                ? incrementalMiner.toSnapshot(inputFile)
+                : ItemSetSnapshot.of(result, inputFile);
 
-        ArrayList<Integer> leftSide = rule.getPremise();
-        for (Integer i : leftSide) {
-            String association = integerToStringEncoded.get(i) + " ";
-            sb.append(association);
+        try {
+            snapshot.write(new File(options.getSnapshotFilePath()));
+        } catch (IOException e) {
+            System.out.println("Unable to write the itemset snapshot.");
+            System.out.println(e.getLocalizedMessage());
         }
+    }
 
-        sb.append(rule.getPremiseCount());
-        sb.append(" ==> ");
 
-        ArrayList<Integer> rightSide = rule.getImplication();
-        for (Integer i : rightSide) {
-            String association = integerToStringEncoded.get(i) + " ";
-            sb.append(association);
+    /**
+     * Writes the metrics of the run next to the output file
+     *
+     * @param metrics - what the run took
+     * @param options - the command line options, with the metrics file and format
+     */
+    private static void writeMetrics(MiningMetrics metrics, CommandLineOptions options) {
+        File metricsFile = options.getMetricsFile();
+        try {
+            if (options.isJsonMetrics()) {
+                metrics.writeJson(metricsFile);
+            } else {
+                metrics.writePrometheus(metricsFile);
+            }
+            System.out.println("Metrics file: " + metricsFile.getPath());
+        } catch (IOException e) {
+            System.out.println("Unable to write the metrics.");
+            System.out.println(e.getLocalizedMessage());
         }
-
-        sb.append(rule.getImplicationCount());
-        sb.append("    <conf:(");
-        sb.append(rule.getRoundedConfidence());
-        sb.append(")>");
-        sb.append("    <sup:(");
-        sb.append(rule.getRoundedSupport());
-        sb.append(")>");
-
-        return sb.toString();
     }
 
 
     /**
-     * Prints all rules just as Weka does
+     * Reads a file that is already in the encoded binary format, e.g. one written by {@link SyntheticDataGenerator}
      *
-     * @param rules - a list of {@link AssociationRule}s
-     * @throws IOException - throws an IOException if {@link BufferedWriter} isn't functional
+     * @param fileName - the file path of the encoded data
+     * @return the encoded data, or null if it couldn't be read
      */
-    private static void printAllRules(ArrayList<AssociationRule> rules) throws IOException {
-        writer.newLine();
+    private static EncodedDataset grabEncodedData(String fileName) {
+        try {
+            return EncodedDatasetCache.readFile(new File(fileName));
+        } catch (IOException e) {
+            System.out.println("Unable to read the encoded data file. Exiting.");
+            System.out.println(e.getLocalizedMessage());
+            return null;
+        }
+    }
 
-        if (rules.size() == 0) {
-            writer.append("No rules found!");
-            writer.newLine();
-        } else {
-            writer.append("There were ").append(String.valueOf(rules.size())).append(" rules found.");
-            writer.newLine();
-            writer.append("Best rules found:");
-            writer.newLine();
 
-            int ruleNum = 1;
-            for (AssociationRule rule : rules) {
-                writer.newLine();
-                writer.append("\t").append(String.valueOf(ruleNum)).append(". ").append(ruleToString(rule));
-                ruleNum++;
-                if (ruleNum > numRulesToPrint) break;
-            }
+    /**
+     * Loads the encoded data from its binary cache if the cache exists and the input file hasn't changed since
+     *
+     * @param fileName - the file path of the data you want to read
+     * @return the cached data, or null if there is no usable cache
+     */
+    private static EncodedDataset grabCachedData(String fileName) {
+        try {
+            return EncodedDatasetCache.read(fileName);
+        } catch (IOException e) {
+            System.out.println("Unable to read the encoded data cache. Loading the input file instead.");
+            return null;
         }
     }
 
 
     /**
-     * Prints frequent itemsets as Weka does
+     * Stores the encoded data in a binary cache next to the input file
      *
-     * @param currentFrequentItemSets - the frequent itemsets of k-size
-     * @param k - the size of the frequent itemsets
-     * @throws IOException - throws an IOException if {@link BufferedWriter} isn't functional
+     * @param fileName - the file path the data was read from
+     * @param dataset - the encoded data
      */
-    private static void printFrequentItemSets(ArrayList<ArrayList<Integer>> currentFrequentItemSets, int k) throws IOException {
-        int frequentItemNum = currentFrequentItemSets.size();
-        writer.newLine();
-        writer.append("Size of set of large itemsets L(").append(String.valueOf(k)).append("): ").append(String.valueOf(frequentItemNum));
-        writer.newLine();
-        for (int i = 0; i < frequentItemNum; i++) {
-            writer.append(currentFrequentItemSets.get(i).toString());
-            writer.newLine();
+    private static void writeCachedData(String fileName, EncodedDataset dataset) {
+        try {
+            EncodedDatasetCache.write(fileName, dataset);
+        } catch (IOException e) {
+            System.out.println("Unable to write the encoded data cache.");
+            System.out.println(e.getLocalizedMessage());
         }
     }
 
@@ -541,36 +597,34 @@ public class Main {
      * Tests the runtime of the Apriori Algorithm with support 0.1 through 1.0 (incrementing by 0.1)
      * NOTE: Includes runtime of rule generation, as it adds a bit of time in the lower supports.
      *
-     * @throws Exception - throws Exception if {@link BufferedWriter} or {@link DataSource} are not functional
+     * @param writer - where the report goes
+     * @param dataset - the encoded data
+     * @param config - the settings of the main run; only the minimum support changes
+     * @throws Exception - throws Exception if {@link BufferedWriter} isn't functional
      */
-    private static void testRuntimeOfProgram() throws Exception {
-        HashMap<Double, Double> algorithmRunTime = new HashMap<>();
-        HashMap<Double, Double> ruleGenerationRunTime = new HashMap<>();
+    private static void testRuntimeOfProgram(BufferedWriter writer, EncodedDataset dataset, MiningConfig config) throws Exception {
+        // Indexed by tenths of support rather than keyed by the support itself, since 0.1 added up ten times isn't 1.0
+        double[] algorithmRunTime = new double[RUNTIME_STEPS + 1];
+        double[] ruleGenerationRunTime = new double[RUNTIME_STEPS + 1];
 
-        double maxSupport = 1.0;
-        double minSupport = 0.1;
         long startTime = 0;
         long endTime = 0;
-        double timeInSeconds = 0;
 
-        while (minSupport <= maxSupport) {
-            minSup = minSupport;
+        for (int i = 1; i <= RUNTIME_STEPS; i++) {
+            MiningConfig supportConfig = config.withMinSupport(i / 10.0);
+            int minCount = supportConfig.minimumSupportCount(dataset.getNumInstances());
 
             // Tracking runtime of the Apriori algorithm
             startTime = System.nanoTime();
-            ConcurrentHashMap<ArrayList<Integer>, Integer> frequentItemSets = AprioriAlgorithmWithoutPrint();
+            ItemSetCountMap frequentItemSets = supportConfig.getEngine().mine(dataset.getInstances(), dataset.getNumItems(), minCount);
             endTime = System.nanoTime();
-            timeInSeconds = ((double) (endTime-startTime)) / 1E9;
-            algorithmRunTime.put(minSup, timeInSeconds);
+            algorithmRunTime[i] = ((double) (endTime-startTime)) / 1E9;
 
             // Tracking runtime of rule generation
             startTime = System.nanoTime();
-            ruleGeneration(frequentItemSets);
+            RuleGenerator.generateAll(frequentItemSets, dataset.getNumInstances(), supportConfig.getMinSupport(), supportConfig.getMinConfidence());
             endTime = System.nanoTime();
-            timeInSeconds = ((double) (endTime-startTime)) / 1E9;
-            ruleGenerationRunTime.put(minSupport, timeInSeconds);
-
-            minSupport += 0.1;
+            ruleGenerationRunTime[i] = ((double) (endTime-startTime)) / 1E9;
         }
 
         writer.newLine();
@@ -582,65 +636,41 @@ public class Main {
         writer.newLine();
 
         String temp = "";
-        for (double sup = 0.1; sup <= maxSupport;) {
+        for (int i = 1; i <= RUNTIME_STEPS; i++) {
             writer.newLine();
-            temp = String.format("Minimum support: %.1f\n", sup);
+            temp = String.format("Minimum support: %.1f\n", i / 10.0);
             writer.append(temp);
             writer.newLine();
-            temp = String.format("\t Apriori Algorithm: %.6f seconds\n", algorithmRunTime.get(sup));
+            temp = String.format("\t Apriori Algorithm: %.6f seconds\n", algorithmRunTime[i]);
             writer.append(temp);
             writer.newLine();
-            temp = String.format("\t Rule Generation: %.6f seconds\n", ruleGenerationRunTime.get(sup));
+            temp = String.format("\t Rule Generation: %.6f seconds\n", ruleGenerationRunTime[i]);
             writer.append(temp);
             writer.newLine();
-            sup = sup + 0.1;
         }
 
         createRuntimeChart(algorithmRunTime, ruleGenerationRunTime);
     }
 
 
-    /**
-     * Apriori Algorithm used for testing (does not print to a text file)
-     *
-     * @throws Exception - throws Exception if {@link DataSource} is not functional
-     */
-    private static ConcurrentHashMap<ArrayList<Integer>, Integer> AprioriAlgorithmWithoutPrint() throws Exception {
-        ConcurrentHashMap<ArrayList<Integer>, Integer> frequentItemSets = new ConcurrentHashMap<>();
-
-        int k = 2;
-        ArrayList<ArrayList<Integer>> itemSetsOfSizeOne = createSizeOneItemSetsByEncodedIndexNumber();
-        ArrayList<ArrayList<Integer>> currentFrequentItemSets = createItemSetsWithSupport(itemSetsOfSizeOne, frequentItemSets);
-        ArrayList<ArrayList<Integer>> currentCandidateItemSets;
-
-        while (currentFrequentItemSets.size() > 0) {
-            currentCandidateItemSets = createCandidates(currentFrequentItemSets, k);
-            currentFrequentItemSets = createItemSetsWithSupport(currentCandidateItemSets, frequentItemSets);
-            k++;
-        }
-
-        return frequentItemSets;
-    }
-
     /**
      * Creates a runtime analysis chart with the support on the x-axis and runtime (in seconds) on the y-axis
      * NOTE: Run-time also includes Rule Generation time. If you want just the Apriori Algorithm, feel free to change the commented lines within the method.
      *
-     * @param algorithmRunTime - (key,value) pairs of support with their respective run-times
+     * @param algorithmRunTime - run-times of the algorithm, indexed by tenths of support
+     * @param ruleGenerationRunTime - run-times of rule generation, indexed by tenths of support
      * @throws IOException - throws an IOException if {@link BufferedWriter} isn't functional
      */
-    private static void createRuntimeChart(HashMap<Double, Double> algorithmRunTime, HashMap<Double, Double> ruleGenerationRunTime) throws IOException {
+    private static void createRuntimeChart(double[] algorithmRunTime, double[] ruleGenerationRunTime) throws IOException {
         DefaultCategoryDataset lineChartData = new DefaultCategoryDataset();
 
-        for (double sup = 0.1; sup <= 1.0;) {
+        for (int i = 1; i <= RUNTIME_STEPS; i++) {
 
             // Rule Generation and Apriori Algorithm run-times
-            lineChartData.addValue((algorithmRunTime.get(sup) + ruleGenerationRunTime.get(sup)), "Time", String.format("%.2f", sup));
+            lineChartData.addValue((algorithmRunTime[i] + ruleGenerationRunTime[i]), "Time", String.format("%.2f", i / 10.0));
 
             // Apriori Algorithm run-times only
-            // lineChartData.addValue(algorithmRunTime.get(sup), "Time", String.format("%.2f", sup));
-
-            sup = sup + 0.1;
+            // lineChartData.addValue(algorithmRunTime[i], "Time", String.format("%.2f", i / 10.0));
         }
 
         JFreeChart lineChartObject = ChartFactory.createLineChart(
@@ -661,57 +691,4 @@ public class Main {
         File lineChart = new File( "RuntimeLineChart.jpeg" );
         ChartUtilities.saveChartAsJPEG(lineChart ,lineChartObject, width ,height);
     }
-
-
-
-
-    // =================================================
-    // STACKOVERFLOW METHODS
-    // =================================================
-
-    /**
-     * Creates a union between two {@link ArrayList}
-     *
-     * @param list1 - an array list
-     * @param list2 - another array list
-     * @param <T> - type for array list
-     * @return - the array list create by the union of list1 and list2
-     */
-    private static <T> ArrayList<T> union(ArrayList<T> list1, ArrayList<T> list2) {
-        Set<T> set = new HashSet<T>();
-
-        set.addAll(list1);
-        set.addAll(list2);
-
-        return new ArrayList<T>(set);
-    }
-
-    /**
-     * Generates the powerset of a set.
-     * NOTE: It generates an empty set, but we check against that in the method, ruleGeneration
-     *
-     * @param originalSet - the original set
-     * @param <T> - the set's type
-     * @return - a set of sets (the powerset of the original set)
-     */
-    private static <T> Set<Set<T>> powerSet(Set<T> originalSet) {
-        Set<Set<T>> sets = new HashSet<Set<T>>();
-        if (originalSet.isEmpty()) {
-            sets.add(new HashSet<T>());
-            return sets;
-        }
-
-        List<T> list = new ArrayList<T>(originalSet);
-        T head = list.get(0);
-        Set<T> rest = new HashSet<T>(list.subList(1, list.size()));
-        for (Set<T> set : powerSet(rest)) {
-            Set<T> newSet = new HashSet<T>();
-            newSet.add(head);
-            newSet.addAll(set);
-            sets.add(newSet);
-            sets.add(set);
-        }
-
-        return sets;
-    }
 }
@@ -0,0 +1,143 @@
+package com.company;
+
+/**
+ * The settings of a mining job: thresholds, the number of rules to keep and the engine that finds the
+ * frequent itemsets.
+ *
+ * A config can't be changed once it's created. Every "with" method returns a copy with one setting changed,
+ * so a config can be shared between jobs and threads.
+ */
+public final class MiningConfig {
+    /**
+     * Which frequent itemsets a job keeps
+     */
+    public enum ItemSets {
+        /** every frequent itemset, mined with the configured engine */
+        ALL,
+        /** only the closed ones, with the non-redundant rules of {@link NonRedundantRules} */
+        CLOSED,
+        /** only the maximal ones, without rules */
+        MAXIMAL
+    }
+
+    private final double minSup;
+    private final double minConf;
+    private final int topK;
+    private final FrequentItemSetMiner engine;
+    private final ItemSets itemSets;
+
+    /**
+     * The defaults of the command line: support 0.55, confidence 0.9, every itemset and rule, and Apriori with
+     * horizontal counting
+     */
+    public MiningConfig() {
+        this(0.55, 0.9, 0, new AprioriMiner(), ItemSets.ALL);
+    }
+
+    private MiningConfig(double minSup, double minConf, int topK, FrequentItemSetMiner engine, ItemSets itemSets) {
+        this.minSup = minSup;
+        this.minConf = minConf;
+        this.topK = topK;
+        this.engine = engine;
+        this.itemSets = itemSets;
+    }
+
+    /**
+     * @param minSup - the minimum support (0.0 to 1.0)
+     * @return a copy of this config with the given minimum support
+     */
+    public MiningConfig withMinSupport(double minSup) {
+        if (minSup < 0.0 || minSup > 1.0) {
+            throw new IllegalArgumentException("Invalid minimum support " + minSup);
+        }
+        return new MiningConfig(minSup, minConf, topK, engine, itemSets);
+    }
+
+    /**
+     * @param minConf - the minimum confidence (0.0 to 1.0)
+     * @return a copy of this config with the given minimum confidence
+     */
+    public MiningConfig withMinConfidence(double minConf) {
+        if (minConf < 0.0 || minConf > 1.0) {
+            throw new IllegalArgumentException("Invalid minimum confidence " + minConf);
+        }
+        return new MiningConfig(minSup, minConf, topK, engine, itemSets);
+    }
+
+    /**
+     * @param topK - the number of best rules to keep, or 0 to keep every rule
+     * @return a copy of this config that keeps the given number of rules
+     */
+    public MiningConfig withTopK(int topK) {
+        if (topK < 0) {
+            throw new IllegalArgumentException("Invalid number of top rules " + topK);
+        }
+        return new MiningConfig(minSup, minConf, topK, engine, itemSets);
+    }
+
+    /**
+     * @param engine - the engine that finds the frequent itemsets
+     * @return a copy of this config that mines with the given engine
+     */
+    public MiningConfig withEngine(FrequentItemSetMiner engine) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Missing mining engine");
+        }
+        return new MiningConfig(minSup, minConf, topK, engine, itemSets);
+    }
+
+    /**
+     * @param itemSets - which frequent itemsets to keep. Closed and maximal itemsets are always mined with
+     *                 {@link ClosedItemSetMiner}, whatever the engine
+     * @return a copy of this config that keeps the given itemsets
+     */
+    public MiningConfig withItemSets(ItemSets itemSets) {
+        if (itemSets == null) {
+            throw new IllegalArgumentException("Missing itemset mode");
+        }
+        return new MiningConfig(minSup, minConf, topK, engine, itemSets);
+    }
+
+    public double getMinSupport() {
+        return minSup;
+    }
+
+    public double getMinConfidence() {
+        return minConf;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    public FrequentItemSetMiner getEngine() {
+        return engine;
+    }
+
+    public ItemSets getItemSets() {
+        return itemSets;
+    }
+
+    /**
+     * @param instanceCount - the number of instances the support is relative to
+     * @return the minimum support of this config as an instance count
+     */
+    public int minimumSupportCount(int instanceCount) {
+        return minimumSupportCount(minSup, instanceCount);
+    }
+
+    /**
+     * The smallest number of instances an itemset has to occur in to satisfy the minimum support.
+     * Uses the same (count / numInstances >= minSup) comparison as the support itself to avoid rounding differences.
+     *
+     * @param support - the minimum support (0.0 to 1.0)
+     * @param instanceCount - the number of instances the support is relative to
+     * @return the smallest count that satisfies the support
+     */
+    static int minimumSupportCount(double support, int instanceCount) {
+        int count = (int) Math.ceil(support * instanceCount);
+        while (count > 0 && ((double)(count - 1))/((double)instanceCount) >= support) count--;
+        while (((double)count)/((double)instanceCount) < support) count++;
+        return count;
+    }
+}
@@ -0,0 +1,419 @@
+package com.company;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What a mining job spent its time and memory on: one {@link Level} per Apriori level, the mining as a whole,
+ * and the rule generation.
+ *
+ * Bytes allocated are those of the job's own thread, as reported by HotSpot, or -1 on JVMs that don't track them;
+ * the worker threads of a {@link ParallelCounter} aren't included. Peak heap is the highest total heap usage
+ * sampled every {@value #HEAP_SAMPLE_MILLIS} ms while a level or phase ran, plus once at its start and end. The JVM's
+ * own peak counters are never reset, so jobs running at the same time don't erase each other's peaks, but the heap
+ * is the whole process': a job's peak only reflects its own memory when it runs alone. Spikes shorter than the
+ * interval can be missed.
+ *
+ * The job fills in its metrics while it runs, from its own thread. Levels and phases are measured from their start
+ * until they're closed, so they belong in a try-with-resources block and end even if the job fails halfway.
+ * They aren't changed once the job is done.
+ */
+public final class MiningMetrics {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    static final long HEAP_SAMPLE_MILLIS = 10;
+
+    // The peaks of the levels and phases being measured right now; the sampler thread runs while there are any
+    private static final HashSet<AtomicLong> HEAP_PEAKS = new HashSet<>();
+    private static Thread heapSampler = null;
+
+    private final ArrayList<Level> levels = new ArrayList<>();
+    private final Phase mining = new Phase("mining");
+    private final Phase rules = new Phase("rules");
+
+    /**
+     * The candidates, frequent itemsets, time and memory of one Apriori level
+     */
+    public static final class Level implements AutoCloseable {
+        private final int k;
+        private final long startNanos;
+        private final long startBytes;
+        private final AtomicLong heapPeak;
+        private long countStartNanos;
+        private int candidatesGenerated;
+        private int candidatesPruned;
+        private int frequentItemSets;
+        private int rowsScanned;
+        private long generationNanos;
+        private long countingNanos;
+        private long bytesAllocated;
+        private long peakHeapBytes;
+        private boolean closed;
+
+        private Level(int k) {
+            this.k = k;
+            this.heapPeak = startHeapPeak();
+            this.startBytes = allocatedBytes();
+            this.startNanos = System.nanoTime();
+        }
+
+        /**
+         * @param pruned - the number of joined candidates dropped before counting
+         */
+        void pruned(int pruned) {
+            candidatesPruned += pruned;
+        }
+
+        /**
+         * Ends the candidate generation of the level
+         *
+         * @param generated - the number of candidates left to count
+         */
+        void generated(int generated) {
+            countStartNanos = System.nanoTime();
+            generationNanos = countStartNanos - startNanos;
+            candidatesGenerated = generated;
+        }
+
+        /**
+         * Ends the counting of the level
+         *
+         * @param frequent - the number of candidates that reached the minimum support
+         * @param rows - the number of rows the counting scanned, or -1 if it didn't scan rows
+         */
+        void counted(int frequent, int rows) {
+            countingNanos = System.nanoTime() - countStartNanos;
+            frequentItemSets = frequent;
+            rowsScanned = rows;
+        }
+
+        /**
+         * Ends the level's memory measurement. Closing it again does nothing.
+         */
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            bytesAllocated = allocatedSince(startBytes);
+            peakHeapBytes = stopHeapPeak(heapPeak);
+        }
+
+        /**
+         * @return the size of the itemsets of the level
+         */
+        public int getK() {
+            return k;
+        }
+
+        /**
+         * @return the number of candidates that were counted
+         */
+        public int getCandidatesGenerated() {
+            return candidatesGenerated;
+        }
+
+        /**
+         * @return the number of joined candidates that were dropped without counting because a subset isn't frequent
+         */
+        public int getCandidatesPruned() {
+            return candidatesPruned;
+        }
+
+        public int getFrequentItemSets() {
+            return frequentItemSets;
+        }
+
+        /**
+         * @return the number of (collapsed) rows the counting scanned, or -1 for tidset and distributed counting
+         */
+        public int getRowsScanned() {
+            return rowsScanned;
+        }
+
+        public long getGenerationNanos() {
+            return generationNanos;
+        }
+
+        public long getCountingNanos() {
+            return countingNanos;
+        }
+
+        public long getBytesAllocated() {
+            return bytesAllocated;
+        }
+
+        public long getPeakHeapBytes() {
+            return peakHeapBytes;
+        }
+    }
+
+    /**
+     * The time and memory of the mining or the rule generation as a whole, and how many itemsets or rules it produced
+     */
+    public static final class Phase implements AutoCloseable {
+        private final String name;
+        private long startNanos;
+        private long startBytes;
+        private AtomicLong heapPeak;
+        private int produced;
+        private long nanos;
+        private long bytesAllocated;
+        private long peakHeapBytes;
+        private boolean running;
+
+        private Phase(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return this phase, to be ended with {@link #close()}
+         */
+        Phase start() {
+            heapPeak = startHeapPeak();
+            startBytes = allocatedBytes();
+            startNanos = System.nanoTime();
+            running = true;
+            return this;
+        }
+
+        /**
+         * @param produced - the number of frequent itemsets or rules the phase produced
+         */
+        void produced(int produced) {
+            this.produced = produced;
+        }
+
+        /**
+         * Ends the phase. Closing a phase that isn't running does nothing.
+         */
+        @Override
+        public void close() {
+            if (!running) return;
+            running = false;
+            nanos = System.nanoTime() - startNanos;
+            bytesAllocated = allocatedSince(startBytes);
+            peakHeapBytes = stopHeapPeak(heapPeak);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getProduced() {
+            return produced;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public long getBytesAllocated() {
+            return bytesAllocated;
+        }
+
+        public long getPeakHeapBytes() {
+            return peakHeapBytes;
+        }
+    }
+
+    /**
+     * Starts measuring a level; the level is added to these metrics right away
+     *
+     * @param k - the size of the itemsets of the level
+     * @return the level, to be filled in with {@link Level#generated} and {@link Level#counted} and then closed
+     */
+    Level startLevel(int k) {
+        Level level = new Level(k);
+        levels.add(level);
+        return level;
+    }
+
+    /**
+     * @return the Apriori levels in order; empty for engines that aren't level-wise
+     */
+    public List<Level> getLevels() {
+        return Collections.unmodifiableList(levels);
+    }
+
+    public Phase getMining() {
+        return mining;
+    }
+
+    public Phase getRules() {
+        return rules;
+    }
+
+
+    /**
+     * Writes the metrics as one JSON object
+     *
+     * @param file - the file to (over)write
+     * @throws IOException - if the file can't be written
+     */
+    public void writeJson(File file) throws IOException {
+        try (Writer out = new FileWriter(file)) {
+            out.write("{\n  \"levels\": [");
+            for (int i = 0; i < levels.size(); i++) {
+                Level level = levels.get(i);
+                out.write(i == 0 ? "\n" : ",\n");
+                out.write(String.format(Locale.ROOT,
+                        "    {\"k\": %d, \"candidates_generated\": %d, \"candidates_pruned\": %d, \"frequent_itemsets\": %d, \"rows_scanned\": %d, "
+                                + "\"generation_nanos\": %d, \"counting_nanos\": %d, \"bytes_allocated\": %d, \"peak_heap_bytes\": %d}",
+                        level.k, level.candidatesGenerated, level.candidatesPruned, level.frequentItemSets, level.rowsScanned,
+                        level.generationNanos, level.countingNanos, level.bytesAllocated, level.peakHeapBytes));
+            }
+            out.write(levels.isEmpty() ? "],\n" : "\n  ],\n");
+            writeJsonPhase(out, mining, "frequent_itemsets");
+            out.write(",\n");
+            writeJsonPhase(out, rules, "rules");
+            out.write("\n}\n");
+        }
+    }
+
+    private static void writeJsonPhase(Writer out, Phase phase, String producedName) throws IOException {
+        out.write(String.format(Locale.ROOT,
+                "  \"%s\": {\"%s\": %d, \"nanos\": %d, \"bytes_allocated\": %d, \"peak_heap_bytes\": %d}",
+                phase.name, producedName, phase.produced, phase.nanos, phase.bytesAllocated, phase.peakHeapBytes));
+    }
+
+
+    /**
+     * Writes the metrics in the Prometheus text format, e.g. for the textfile collector of the node exporter
+     *
+     * @param file - the file to (over)write
+     * @throws IOException - if the file can't be written
+     */
+    public void writePrometheus(File file) throws IOException {
+        try (Writer out = new FileWriter(file)) {
+            writeLevelGauge(out, "apriori_level_candidates_generated", "Candidates counted at the level", level -> level.candidatesGenerated);
+            writeLevelGauge(out, "apriori_level_candidates_pruned", "Candidates dropped before counting at the level", level -> level.candidatesPruned);
+            writeLevelGauge(out, "apriori_level_frequent_itemsets", "Frequent itemsets found at the level", level -> level.frequentItemSets);
+            writeLevelGauge(out, "apriori_level_rows_scanned", "Rows scanned to count the level, or -1 for tidset and distributed counting", level -> level.rowsScanned);
+            writeLevelGauge(out, "apriori_level_generation_seconds", "Time spent generating the candidates of the level", level -> level.generationNanos / 1e9);
+            writeLevelGauge(out, "apriori_level_counting_seconds", "Time spent counting the candidates of the level", level -> level.countingNanos / 1e9);
+            writeLevelGauge(out, "apriori_level_bytes_allocated", "Bytes allocated by the mining thread during the level", level -> level.bytesAllocated);
+            writeLevelGauge(out, "apriori_level_peak_heap_bytes", "Peak heap usage during the level", level -> level.peakHeapBytes);
+
+            writePhaseGauge(out, "apriori_phase_produced", "Frequent itemsets or rules produced by the phase", phase -> phase.produced);
+            writePhaseGauge(out, "apriori_phase_seconds", "Time spent in the phase", phase -> phase.nanos / 1e9);
+            writePhaseGauge(out, "apriori_phase_bytes_allocated", "Bytes allocated by the mining thread during the phase", phase -> phase.bytesAllocated);
+            writePhaseGauge(out, "apriori_phase_peak_heap_bytes", "Peak heap usage during the phase", phase -> phase.peakHeapBytes);
+        }
+    }
+
+    private interface Value<T> {
+        double of(T measured);
+    }
+
+    private void writeLevelGauge(Writer out, String name, String help, Value<Level> value) throws IOException {
+        writeGaugeHeader(out, name, help);
+        for (Level level : levels) {
+            out.write(name + "{level=\"" + level.k + "\"} " + format(value.of(level)) + "\n");
+        }
+    }
+
+    private void writePhaseGauge(Writer out, String name, String help, Value<Phase> value) throws IOException {
+        writeGaugeHeader(out, name, help);
+        for (Phase phase : new Phase[]{mining, rules}) {
+            out.write(name + "{phase=\"" + phase.name + "\"} " + format(value.of(phase)) + "\n");
+        }
+    }
+
+    private static void writeGaugeHeader(Writer out, String name, String help) throws IOException {
+        out.write("# HELP " + name + " " + help + "\n");
+        out.write("# TYPE " + name + " gauge\n");
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format(Locale.ROOT, "%.9f", value);
+    }
+
+
+    /**
+     * @return the bytes the current thread has allocated so far, or -1 if the JVM doesn't track them
+     */
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static long allocatedSince(long startBytes) {
+        long bytes = allocatedBytes();
+        return bytes < 0 || startBytes < 0 ? -1 : bytes - startBytes;
+    }
+
+    /**
+     * Starts tracking the peak heap usage of a level or phase, starting the sampler thread if it isn't running
+     *
+     * @return the peak, which the sampler raises until it's stopped
+     */
+    private static AtomicLong startHeapPeak() {
+        AtomicLong peak = new AtomicLong(usedHeap());
+        synchronized (HEAP_PEAKS) {
+            HEAP_PEAKS.add(peak);
+            if (heapSampler == null) {
+                heapSampler = new Thread(MiningMetrics::sampleHeap, "mining-metrics-heap-sampler");
+                heapSampler.setDaemon(true);
+                heapSampler.start();
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * @param peak - a peak returned by {@link #startHeapPeak()}
+     * @return the highest heap usage sampled since it was started
+     */
+    private static long stopHeapPeak(AtomicLong peak) {
+        peak.accumulateAndGet(usedHeap(), Math::max);
+        synchronized (HEAP_PEAKS) {
+            HEAP_PEAKS.remove(peak);
+        }
+        return peak.get();
+    }
+
+    /**
+     * Raises every tracked peak to the current heap usage on an interval, until nothing is tracked anymore
+     */
+    private static void sampleHeap() {
+        try {
+            while (true) {
+                Thread.sleep(HEAP_SAMPLE_MILLIS);
+                long used = usedHeap();
+                synchronized (HEAP_PEAKS) {
+                    if (HEAP_PEAKS.isEmpty()) {
+                        heapSampler = null;
+                        return;
+                    }
+                    for (AtomicLong peak : HEAP_PEAKS) {
+                        peak.accumulateAndGet(used, Math::max);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            synchronized (HEAP_PEAKS) {
+                heapSampler = null;
+            }
+        }
+    }
+
+    /**
+     * @return the bytes used by all heap pools together right now
+     */
+    private static long usedHeap() {
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
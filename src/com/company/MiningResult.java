@@ -0,0 +1,202 @@
+package com.company;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a mining job: the frequent itemsets grouped by size, the rules, and the names needed to
+ * print them. A result can't be changed once it's created.
+ */
+public final class MiningResult {
+    private final EncodedDataset names;
+    private final int numInstances;
+    private final MiningConfig config;
+    private final ItemSetCountMap counts;
+    private final List<List<ItemSet>> levels;
+    private final int numFrequentItemSets;
+    private final List<AssociationRule> rules;
+    private final MiningMetrics metrics;
+
+    /**
+     * @param names - the attribute and item names of the mined data
+     * @param numInstances - the number of instances the itemsets were counted in
+     * @param config - the settings the job ran with
+     * @param counts - at least every frequent itemset with its frequency; it must not be changed afterwards
+     * @param rules - the generated rules, best first
+     */
+    MiningResult(EncodedDataset names, int numInstances, MiningConfig config, ItemSetCountMap counts, List<AssociationRule> rules) {
+        this(names, numInstances, config, counts, rules, null);
+    }
+
+    /**
+     * @param names - the attribute and item names of the mined data
+     * @param numInstances - the number of instances the itemsets were counted in
+     * @param config - the settings the job ran with
+     * @param counts - at least every frequent itemset with its frequency; it must not be changed afterwards
+     * @param rules - the generated rules, best first
+     * @param metrics - what the job took, or null if it wasn't measured
+     */
+    MiningResult(EncodedDataset names, int numInstances, MiningConfig config, ItemSetCountMap counts, List<AssociationRule> rules,
+                 MiningMetrics metrics) {
+        this.names = names;
+        this.metrics = metrics;
+        this.numInstances = numInstances;
+        this.config = config;
+        this.counts = counts;
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+
+        int minCount = config.minimumSupportCount(numInstances);
+        ArrayList<ArrayList<ItemSet>> frequentLevels = new ArrayList<>();
+        int numFrequent = 0;
+        for (ItemSet itemSet : counts.keys()) {
+            if (counts.getOrDefault(itemSet, 0) < minCount) continue;
+
+            while (frequentLevels.size() < itemSet.size()) {
+                frequentLevels.add(new ArrayList<>());
+            }
+            frequentLevels.get(itemSet.size() - 1).add(itemSet);
+            numFrequent++;
+        }
+
+        ArrayList<List<ItemSet>> sortedLevels = new ArrayList<>(frequentLevels.size());
+        for (ArrayList<ItemSet> level : frequentLevels) {
+            Collections.sort(level);
+            sortedLevels.add(Collections.unmodifiableList(level));
+        }
+        this.levels = Collections.unmodifiableList(sortedLevels);
+        this.numFrequentItemSets = numFrequent;
+    }
+
+    public int getNumInstances() {
+        return numInstances;
+    }
+
+    public int getNumAttributes() {
+        return names.getNumAttributes();
+    }
+
+    public String[] getAttributeNames() {
+        return names.getAttributeNames();
+    }
+
+    public List<String> getItemNames() {
+        return names.getItemNames();
+    }
+
+    public String getItemName(int item) {
+        return names.getItemName(item);
+    }
+
+    public MiningConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * @return the frequent itemsets of size k at index k-1, each size sorted
+     */
+    public List<List<ItemSet>> getFrequentItemSetsByLevel() {
+        return levels;
+    }
+
+    public int getNumFrequentItemSets() {
+        return numFrequentItemSets;
+    }
+
+    /**
+     * @param itemSet - an itemset
+     * @return the number of instances the itemset occurs in, or -1 if it wasn't counted
+     */
+    public int getCount(ItemSet itemSet) {
+        return counts.getOrDefault(itemSet, -1);
+    }
+
+    /**
+     * @return the rules, best first
+     */
+    public List<AssociationRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Hands the frequent itemsets, level by level and sorted, and then the rules, best first, to the sink
+     *
+     * @param sink - receives the itemsets and rules; it's closed afterwards
+     * @throws IOException - if the sink can't write
+     */
+    public void writeTo(ResultSink sink) throws IOException {
+        try (ResultSink out = sink) {
+            out.begin(getItemNames(), numInstances);
+            for (int k = 0; k < levels.size(); k++) {
+                out.startLevel(k + 1, levels.get(k).size());
+                for (ItemSet itemSet : levels.get(k)) {
+                    out.itemSet(itemSet, counts.getOrDefault(itemSet, 0));
+                }
+            }
+            for (AssociationRule rule : rules) {
+                out.rule(rule);
+            }
+        }
+    }
+
+    /**
+     * @return the time and memory every level and phase of the job took, or null if the job wasn't measured
+     */
+    public MiningMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return every counted itemset with its frequency, including counted candidates that turned out infrequent
+     */
+    ItemSetCountMap getCounts() {
+        return counts;
+    }
+
+    /**
+     * Used to format the rules as Weka does
+     *
+     * @param rule - an {@link AssociationRule}
+     * @return - the given rule formatted into a String
+     */
+    public String ruleToString(AssociationRule rule) {
+        return ruleToString(rule, names.getItemNames());
+    }
+
+    /**
+     * Used to format the rules of data that has no result, e.g. a sliding window
+     *
+     * @param rule - an {@link AssociationRule}
+     * @param itemNames - the item names, indexed by item id
+     * @return - the given rule formatted into a String
+     */
+    public static String ruleToString(AssociationRule rule, List<String> itemNames) {
+        StringBuilder sb = new StringBuilder();
+
+        ItemSet leftSide = rule.getPremise();
+        for (int i = 0; i < leftSide.size(); i++) {
+            String association = itemNames.get(leftSide.get(i)) + " ";
+            sb.append(association);
+        }
+
+        sb.append(rule.getPremiseCount());
+        sb.append(" ==> ");
+
+        ItemSet rightSide = rule.getImplication();
+        for (int i = 0; i < rightSide.size(); i++) {
+            String association = itemNames.get(rightSide.get(i)) + " ";
+            sb.append(association);
+        }
+
+        sb.append(rule.getImplicationCount());
+        sb.append("    <conf:(");
+        sb.append(rule.getRoundedConfidence());
+        sb.append(")>");
+        sb.append("    <sup:(");
+        sb.append(rule.getRoundedSupport());
+        sb.append(")>");
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,184 @@
+package com.company;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Generates the non-redundant (min-max) basis of association rules from closed itemsets, after Pasquier et al.
+ * and Zaki.
+ *
+ * A rule is redundant if another rule with the same support and confidence has a smaller premise and a larger
+ * conclusion. The basis keeps only rules whose premise is a minimal generator (an itemset that is strictly less
+ * frequent than each of its subsets) and whose premise and conclusion together form a closed itemset:
+ * <ul>
+ *     <li>exact rules G ==> closure(G) \ G, with confidence 1</li>
+ *     <li>approximate rules G ==> C \ G, for every closed itemset C that strictly contains closure(G)</li>
+ * </ul>
+ * Every rule of the full rule set follows from the basis with its support and confidence.
+ *
+ * The generators are found level-wise like Apriori, since every subset of a generator is a generator too; their
+ * closures and every other count come from the closed itemsets.
+ */
+public final class NonRedundantRules {
+
+    private NonRedundantRules() {
+    }
+
+    /**
+     * @param transactions - the encoded data
+     * @param closedItemSets - every frequent closed itemset with its frequency
+     * @param config - the thresholds, and the number of rules to keep
+     * @return the rules of the basis, best first
+     */
+    public static ArrayList<AssociationRule> generate(List<ItemSet> transactions, ItemSetCountMap closedItemSets, MiningConfig config) {
+        TopKRules topRules = config.getTopK() > 0 ? new TopKRules(config.getTopK()) : null;
+        ArrayList<AssociationRule> rules = new ArrayList<>();
+        generateRules(transactions, closedItemSets, config, rules::add, topRules);
+        return topRules == null ? RuleGenerator.sortRules(rules) : topRules.sortedRules();
+    }
+
+    /**
+     * Hands the rules of the basis to the consumer as they are generated, without keeping them. The best
+     * {@link MiningConfig#getTopK()} rules, when it's set, are still collected first and handed over best first.
+     *
+     * @param transactions - the encoded data
+     * @param closedItemSets - every frequent closed itemset with its frequency
+     * @param config - the thresholds, and the number of rules to keep
+     * @param out - receives every rule of the basis, in no particular order
+     */
+    public static void generateTo(List<ItemSet> transactions, ItemSetCountMap closedItemSets, MiningConfig config, Consumer<AssociationRule> out) {
+        if (config.getTopK() > 0) {
+            generate(transactions, closedItemSets, config).forEach(out);
+        } else {
+            generateRules(transactions, closedItemSets, config, out, null);
+        }
+    }
+
+    /**
+     * @param rules - receives every rule, or null when collecting into topRules
+     * @param topRules - keeps the best rules, or null when handing them to rules
+     */
+    private static void generateRules(List<ItemSet> transactions, ItemSetCountMap closedItemSets, MiningConfig config,
+                                      Consumer<AssociationRule> rules, TopKRules topRules) {
+        int numInstances = transactions.size();
+        int minCount = Math.max(1, config.minimumSupportCount(numInstances));
+        double minConf = config.getMinConfidence();
+
+        HashMap<Integer, ArrayList<ItemSet>> closedByCount = new HashMap<>();
+        for (ItemSet closed : closedItemSets.keys()) {
+            closedByCount.computeIfAbsent(closedItemSets.getOrDefault(closed, 0), count -> new ArrayList<>()).add(closed);
+        }
+        // Most frequent first, so the scan for a generator can stop once the confidence drops below the minimum
+        ArrayList<ItemSet> allClosed = closedItemSets.keys();
+        allClosed.sort((a, b) -> Integer.compare(closedItemSets.getOrDefault(b, 0), closedItemSets.getOrDefault(a, 0)));
+
+        ItemSetCountMap generators = mineGenerators(transactions, closedItemSets, minCount);
+        for (ItemSet generator : generators.keys()) {
+            int generatorCount = generators.getOrDefault(generator, 0);
+            ItemSet closure = closureOf(generator, closedByCount.get(generatorCount));
+            double generatorSupport = ((double)generatorCount / (double)numInstances);
+
+            for (ItemSet closed : allClosed) {
+                int closedCount = closedItemSets.getOrDefault(closed, 0);
+                if (closedCount > generatorCount) continue;
+
+                double itemSupport = ((double)closedCount / (double)numInstances);
+                double confidence = (itemSupport / generatorSupport);
+                if (confidence < minConf || (topRules != null && confidence < topRules.minimumConfidence())) break;
+
+                // The exact rule ends at the closure; approximate rules end at closed itemsets strictly containing it
+                if (closed.equals(closure)) {
+                    if (closure.size() == generator.size()) continue;
+                } else if (closedCount == generatorCount || !closed.containsAll(closure)) {
+                    continue;
+                }
+
+                AssociationRule rule = new AssociationRule(generator, generatorCount, closed.minus(generator), closedCount, confidence, itemSupport);
+                if (topRules == null) {
+                    rules.accept(rule);
+                } else {
+                    topRules.offer(rule);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the frequent minimal generators level by level. A candidate is only counted if all of its subsets are
+     * generators, and it's a generator itself if it's frequent and less frequent than every one of those subsets.
+     *
+     * @return (Key,Value) pairs of the frequent generators and their respective frequencies in the data
+     */
+    private static ItemSetCountMap mineGenerators(List<ItemSet> transactions, ItemSetCountMap closedItemSets, int minCount) {
+        ItemSetCountMap generators = new ItemSetCountMap();
+        HashSet<Integer> frequentItems = new HashSet<>();
+        for (ItemSet closed : closedItemSets.keys()) {
+            for (int i = 0; i < closed.size(); i++) {
+                frequentItems.add(closed.get(i));
+            }
+        }
+
+        ArrayList<ItemSet> candidates = new ArrayList<>();
+        for (int item : frequentItems) {
+            candidates.add(ItemSet.of(item));
+        }
+        candidates.sort(null);
+
+        int k = 1;
+        while (!candidates.isEmpty()) {
+            CandidateTrie trie = new CandidateTrie(candidates);
+            for (ItemSet transaction : transactions) {
+                trie.count(transaction);
+            }
+            int[] counts = trie.getCounts();
+
+            ArrayList<ItemSet> levelGenerators = new ArrayList<>();
+            for (int c = 0; c < candidates.size(); c++) {
+                if (counts[c] < minCount) continue;
+
+                // The empty set occurs in every transaction
+                ItemSet candidate = candidates.get(c);
+                boolean isGenerator = k > 1 || counts[c] < transactions.size();
+                for (int i = 0; i < candidate.size() && isGenerator && k > 1; i++) {
+                    isGenerator = counts[c] < generators.getOrDefault(candidate.without(i), -1);
+                }
+                if (isGenerator) {
+                    generators.put(candidate, counts[c]);
+                    levelGenerators.add(candidate);
+                }
+            }
+
+            k++;
+            candidates = new ArrayList<>();
+            for (ItemSet candidate : AprioriMiner.createCandidates(levelGenerators, k)) {
+                boolean allSubsetsAreGenerators = true;
+                for (int i = 0; i < candidate.size() && allSubsetsAreGenerators; i++) {
+                    allSubsetsAreGenerators = generators.containsKey(candidate.without(i));
+                }
+                if (allSubsetsAreGenerators) {
+                    candidates.add(candidate);
+                }
+            }
+        }
+        return generators;
+    }
+
+    /**
+     * @param generator - a frequent itemset
+     * @param closedWithSameCount - the closed itemsets with the generator's frequency
+     * @return the closed itemset of the generator, which is the one with the same frequency that contains it
+     */
+    private static ItemSet closureOf(ItemSet generator, ArrayList<ItemSet> closedWithSameCount) {
+        if (closedWithSameCount != null) {
+            for (ItemSet closed : closedWithSameCount) {
+                if (closed.containsAll(generator)) {
+                    return closed;
+                }
+            }
+        }
+        throw new IllegalStateException("Generator " + generator + " has no closed itemset");
+    }
+}
@@ -0,0 +1,99 @@
+package com.company;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Counts candidate supports in parallel by splitting the rows of the encoded data into chunks.
+ *
+ * Every chunk is counted on a {@link ForkJoinPool} worker into that worker's own int[] of counts, so workers never
+ * share a counter and a level needs one count array per thread, however many chunks it's split into. The arrays
+ * are summed once all chunks are counted.
+ */
+public class ParallelCounter {
+    static final int CHUNKS_PER_THREAD = 4;
+
+    private final ForkJoinPool pool;
+    private final int numThreads;
+
+    /**
+     * @param numThreads - the number of worker threads
+     */
+    public ParallelCounter(int numThreads) {
+        this.numThreads = numThreads;
+        this.pool = new ForkJoinPool(numThreads);
+    }
+
+    /**
+     * Counts the candidates over all rows
+     *
+     * @param numRows       - the number of rows of the encoded data
+     * @param numCandidates - the length of the resulting count array
+     * @param chunkCounter  - counts one chunk of rows into the given array, adding to what it holds already
+     * @return the summed counts of all chunks
+     */
+    public int[] count(int numRows, int numCandidates, ChunkCounter chunkCounter) {
+        int chunkSize = Math.max(1, numRows / (numThreads * CHUNKS_PER_THREAD));
+        Map<Thread, int[]> threadCounts = new ConcurrentHashMap<>();
+        pool.invoke(new CountTask(0, numRows, chunkSize, numCandidates, chunkCounter, threadCounts));
+
+        int[] counts = null;
+        for (int[] partialCounts : threadCounts.values()) {
+            if (counts == null) {
+                counts = partialCounts;
+                continue;
+            }
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += partialCounts[i];
+            }
+        }
+        return counts != null ? counts : new int[numCandidates];
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Counts the candidates contained in the rows from (inclusive) to (exclusive) of the encoded data
+     */
+    public interface ChunkCounter {
+        void count(int from, int to, int[] counts);
+    }
+
+    private static final class CountTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final int numCandidates;
+        private final ChunkCounter chunkCounter;
+        private final Map<Thread, int[]> threadCounts;
+
+        private CountTask(int from, int to, int chunkSize, int numCandidates, ChunkCounter chunkCounter, Map<Thread, int[]> threadCounts) {
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.numCandidates = numCandidates;
+            this.chunkCounter = chunkCounter;
+            this.threadCounts = threadCounts;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                // Only the current thread ever touches its array; joining the tasks publishes the counts
+                int[] counts = threadCounts.computeIfAbsent(Thread.currentThread(), thread -> new int[numCandidates]);
+                chunkCounter.count(from, to, counts);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new CountTask(from, middle, chunkSize, numCandidates, chunkCounter, threadCounts),
+                    new CountTask(middle, to, chunkSize, numCandidates, chunkCounter, threadCounts));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.company;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.TreeMap;
+
+/**
+ * Mines data that doesn't fit in memory with the two-pass partition algorithm of Savasere, Omiecinski and
+ * Navathe (SON).
+ *
+ * Pass one reads the file in partitions of a fixed number of rows and mines each partition on its own, with
+ * the minimum support scaled to the partition's size. An itemset that is frequent in the whole file has to be
+ * frequent in at least one partition, so the union of the locally frequent itemsets is a complete candidate
+ * set. Pass two streams the file once more and counts those candidates exactly with one {@link CandidateTrie}
+ * per itemset size. Only one partition and the candidates are ever held in memory.
+ *
+ * Both passes read the file with {@link StreamingLoader#scan}, so any format it supports can be mined this way.
+ */
+public class PartitionedMiner {
+    private final double minSup;
+    private final int partitionRows;
+    private final FrequentItemSetMiner localMiner;
+
+    private EncodedDataset names;
+    private int numInstances;
+    private int numPartitions;
+    private int numCandidates;
+
+    /**
+     * @param minSup        - the minimum support (0.0 to 1.0)
+     * @param partitionRows - the number of rows mined together in pass one
+     * @param localMiner    - the engine each partition is mined with
+     */
+    public PartitionedMiner(double minSup, int partitionRows, FrequentItemSetMiner localMiner) {
+        if (partitionRows < 1) {
+            throw new IllegalArgumentException("Partitions need at least one row");
+        }
+        this.minSup = minSup;
+        this.partitionRows = partitionRows;
+        this.localMiner = localMiner;
+    }
+
+    /**
+     * @param fileName - the file path of the data you want to mine
+     * @return (Key,Value) pairs of the globally frequent itemsets and their exact frequencies in the data
+     * @throws IOException - if the file can't be read
+     */
+    public ItemSetCountMap mine(String fileName) throws IOException {
+        // Pass one: the union of the locally frequent itemsets of every partition
+        ItemSetCountMap candidates = new ItemSetCountMap();
+        ArrayList<ItemSet> partition = new ArrayList<>(partitionRows);
+        numInstances = 0;
+        numPartitions = 0;
+        names = StreamingLoader.scan(fileName, row -> {
+            partition.add(row);
+            numInstances++;
+            if (partition.size() == partitionRows) {
+                mineLocally(partition, candidates);
+            }
+        });
+        if (!partition.isEmpty()) {
+            mineLocally(partition, candidates);
+        }
+        numCandidates = candidates.size();
+
+        // Pass two: exact counts of every candidate, one trie per candidate size
+        TreeMap<Integer, ArrayList<ItemSet>> candidatesBySize = new TreeMap<>();
+        for (ItemSet candidate : candidates.keys()) {
+            candidatesBySize.computeIfAbsent(candidate.size(), size -> new ArrayList<>()).add(candidate);
+        }
+        ArrayList<ArrayList<ItemSet>> levels = new ArrayList<>(candidatesBySize.values());
+        ArrayList<CandidateTrie> tries = new ArrayList<>(levels.size());
+        for (ArrayList<ItemSet> level : levels) {
+            tries.add(new CandidateTrie(level));
+        }
+
+        StreamingLoader.scan(fileName, row -> {
+            for (CandidateTrie trie : tries) {
+                trie.count(row);
+            }
+        });
+
+        int minCount = MiningConfig.minimumSupportCount(minSup, numInstances);
+        ItemSetCountMap frequentItemSets = new ItemSetCountMap();
+        for (int level = 0; level < levels.size(); level++) {
+            int[] counts = tries.get(level).getCounts();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] >= minCount) {
+                    frequentItemSets.put(levels.get(level).get(i), counts[i]);
+                }
+            }
+        }
+        return frequentItemSets;
+    }
+
+    /**
+     * @return the attribute and item names of the mined file, without any rows
+     */
+    public EncodedDataset getNames() {
+        return names;
+    }
+
+    public int getNumInstances() {
+        return numInstances;
+    }
+
+    public int getNumPartitions() {
+        return numPartitions;
+    }
+
+    /**
+     * @return the number of locally frequent itemsets that were counted in pass two
+     */
+    public int getNumCandidates() {
+        return numCandidates;
+    }
+
+    private void mineLocally(ArrayList<ItemSet> partition, ItemSetCountMap candidates) {
+        int numItems = 0;
+        for (ItemSet row : partition) {
+            if (row.size() > 0) {
+                numItems = Math.max(numItems, row.last() + 1);
+            }
+        }
+
+        int localMinCount = Math.max(1, MiningConfig.minimumSupportCount(minSup, partition.size()));
+        localMiner.mine(partition, numItems, localMinCount).forEach((itemSet, count) -> {
+            if (count >= localMinCount) {
+                candidates.put(itemSet, 0);
+            }
+        });
+        partition.clear();
+        numPartitions++;
+    }
+}
@@ -0,0 +1,46 @@
+package com.company;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Receives the frequent itemsets and rules of a job one at a time, as {@link AssociationRuleMiner#mineTo} produces
+ * them, and writes them out right away instead of keeping them. {@link MiningResult#writeTo} replays a finished
+ * result the same way.
+ *
+ * A job calls {@link #begin} once, then for every itemset size from 1 up {@link #startLevel} and {@link #itemSet}
+ * for every frequent itemset of that size, then {@link #rule} for every rule, and finally {@link #close}.
+ */
+public interface ResultSink extends Closeable {
+
+    /**
+     * @param itemNames - the name of every encoded item, by item id
+     * @param numInstances - the number of instances the itemsets were counted in
+     * @throws IOException - if the output can't be written
+     */
+    void begin(List<String> itemNames, int numInstances) throws IOException;
+
+    /**
+     * Announces the itemsets of the next size. Sinks that don't group itemsets by size can ignore it.
+     *
+     * @param k - the size of the itemsets that follow
+     * @param numItemSets - the number of frequent itemsets of that size, possibly 0
+     * @throws IOException - if the output can't be written
+     */
+    default void startLevel(int k, int numItemSets) throws IOException {
+    }
+
+    /**
+     * @param itemSet - a frequent itemset
+     * @param count - its frequency within the data
+     * @throws IOException - if the output can't be written
+     */
+    void itemSet(ItemSet itemSet, int count) throws IOException;
+
+    /**
+     * @param rule - a rule that reached the minimum confidence
+     * @throws IOException - if the output can't be written
+     */
+    void rule(AssociationRule rule) throws IOException;
+}
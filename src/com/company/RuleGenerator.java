@@ -0,0 +1,193 @@
+package com.company;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.function.Consumer;
+
+/**
+ * Generates association rules from mined frequent itemsets.
+ *
+ * Follows Agrawal's ap-genrules: consequents grow one item at a time and only consequents whose rule reached
+ * the minimum confidence are joined into larger ones, since moving items from the premise to the implication
+ * can only lower the confidence. Every premise is a subset of a frequent itemset, so its count is already mined.
+ * Nothing is kept between calls, so rules can be generated for many jobs at the same time.
+ */
+public final class RuleGenerator {
+
+    private RuleGenerator() {
+    }
+
+    /**
+     * Generates the rules of a job, sorted like the printed output
+     *
+     * @param frequentItemSets - frequent itemsets with their respective frequencies within the data
+     * @param numInstances - the number of instances the itemsets were counted in
+     * @param config - the thresholds, and the number of rules to keep
+     * @return every rule, or the best {@link MiningConfig#getTopK()} when it's set, best first
+     */
+    public static ArrayList<AssociationRule> generate(ItemSetCountMap frequentItemSets, int numInstances, MiningConfig config) {
+        if (config.getTopK() > 0) {
+            return generateTopK(frequentItemSets, numInstances, config.getMinSupport(), config.getMinConfidence(), config.getTopK());
+        }
+        return sortRules(generateAll(frequentItemSets, numInstances, config.getMinSupport(), config.getMinConfidence()));
+    }
+
+
+    /**
+     * Hands the rules of a job to the consumer as they are generated, without keeping them. The best
+     * {@link MiningConfig#getTopK()} rules, when it's set, are still collected first and handed over best first.
+     *
+     * @param frequentItemSets - frequent itemsets with their respective frequencies within the data
+     * @param numInstances - the number of instances the itemsets were counted in
+     * @param config - the thresholds, and the number of rules to keep
+     * @param out - receives every rule, in no particular order
+     */
+    public static void generateTo(ItemSetCountMap frequentItemSets, int numInstances, MiningConfig config, Consumer<AssociationRule> out) {
+        if (config.getTopK() > 0) {
+            generate(frequentItemSets, numInstances, config).forEach(out);
+        } else {
+            generateRules(frequentItemSets, numInstances, config.getMinSupport(), config.getMinConfidence(), out, null);
+        }
+    }
+
+
+    /**
+     * @param frequentItemSets - frequent itemsets with their respective frequencies within the data
+     * @param numInstances - the number of instances the itemsets were counted in
+     * @param minSup - the minimum support (0.0 to 1.0)
+     * @param minConf - the minimum confidence (0.0 to 1.0)
+     * @return a list of {@link AssociationRule}s, which contain the premise, implication, their individual frequencies, and the confidence of the rule
+     */
+    static ArrayList<AssociationRule> generateAll(ItemSetCountMap frequentItemSets, int numInstances, double minSup, double minConf) {
+        ArrayList<AssociationRule> rules = new ArrayList<>();
+        generateRules(frequentItemSets, numInstances, minSup, minConf, rules::add, null);
+        return rules;
+    }
+
+
+    /**
+     * Generates only the best k rules, in the same order {@link #sortRules} would put them.
+     * Once k rules are kept, the confidence of the worst one becomes the minimum confidence for the rest of the run.
+     *
+     * @param frequentItemSets - frequent itemsets with their respective frequencies within the data
+     * @param numInstances - the number of instances the itemsets were counted in
+     * @param minSup - the minimum support (0.0 to 1.0)
+     * @param minConf - the minimum confidence (0.0 to 1.0)
+     * @param k - the number of rules to keep
+     * @return the best k {@link AssociationRule}s, best first
+     */
+    static ArrayList<AssociationRule> generateTopK(ItemSetCountMap frequentItemSets, int numInstances, double minSup, double minConf, int k) {
+        TopKRules topRules = new TopKRules(k);
+        generateRules(frequentItemSets, numInstances, minSup, minConf, null, topRules);
+        return topRules.sortedRules();
+    }
+
+
+    /**
+     * Runs ap-genrules over every frequent itemset, handing each confident rule to either the list or the top-k heap
+     *
+     * @param rules - receives every rule, or null when collecting into topRules
+     * @param topRules - keeps the best rules, or null when handing them to rules
+     */
+    private static void generateRules(ItemSetCountMap frequentItemSets, int numInstances, double minSup, double minConf,
+                                      Consumer<AssociationRule> rules, TopKRules topRules) {
+        for (ItemSet item : frequentItemSets.keys()) {
+            if (item.size() < 2) continue;
+
+            int impliedCount = frequentItemSets.getOrDefault(item, 0);
+            double itemSupport = ((double)impliedCount / (double)numInstances);
+
+            // If the rule doesn't reach the minimum support, don't create it
+            if (itemSupport < minSup) continue;
+
+            ArrayList<ItemSet> implications = new ArrayList<>(item.size());
+            for (int i = 0; i < item.size(); i++) {
+                implications.add(ItemSet.of(item.get(i)));
+            }
+
+            int m = 1;
+            while (!implications.isEmpty() && m < item.size()) {
+                ArrayList<ItemSet> confidentImplications = new ArrayList<>();
+
+                for (ItemSet implied : implications) {
+                    ItemSet premise = item.minus(implied);
+                    int premiseCount = frequentItemSets.getOrDefault(premise, -1);
+                    if (premiseCount < 0) {
+                        throw new IllegalStateException("Subset " + premise + " of frequent itemset " + item + " was not counted");
+                    }
+
+                    double subsetSupport = ((double)premiseCount / (double)numInstances);
+                    double confidence = (itemSupport / subsetSupport);
+                    double minimumConfidence = topRules == null ? minConf : Math.max(minConf, topRules.minimumConfidence());
+
+                    if (confidence >= minimumConfidence) {
+                        AssociationRule rule = new AssociationRule(premise, premiseCount, implied, impliedCount, confidence, itemSupport);
+                        if (topRules == null) {
+                            rules.accept(rule);
+                        } else {
+                            topRules.offer(rule);
+                        }
+                        confidentImplications.add(implied);
+                    }
+                }
+
+                m++;
+                implications = AprioriMiner.createCandidates(confidentImplications, m);
+            }
+        }
+    }
+
+
+    /**
+     * Sorts a list of Association Rules first by confidence, then support, then frequencies
+     *
+     * @param rules - a list of {@link AssociationRule}s
+     * @return a sorted list of Association Rules
+     */
+    static ArrayList<AssociationRule> sortRules(ArrayList<AssociationRule> rules) {
+
+        // Sort first by support (follows Weka)
+        rules.sort(new Comparator<AssociationRule>() {
+            @Override
+            public int compare(AssociationRule o1, AssociationRule o2) {
+                double supportDiff = o2.getSupport() - o1.getSupport();
+
+                return (supportDiff > 0 ? 1 : supportDiff < 0 ? -1 : 0);
+            }
+        });
+
+        // Then sort by confidence and frequencies
+        rules.sort(new Comparator<AssociationRule>() {
+            @Override
+            public int compare(AssociationRule o1, AssociationRule o2) {
+                double confDiff = o2.getConfidence() - o1.getConfidence();
+                if (confDiff > 0) {
+                    return 1;
+                } else if (confDiff < 0) {
+                    return -1;
+                } else {
+                    int implicationCountDiff = o2.getImplicationCount() - o1.getImplicationCount();
+
+                    if (implicationCountDiff > 0) {
+                        return 1;
+                    } else if (implicationCountDiff < 0) {
+                        return -1;
+                    } else {
+
+                        int premiseCountDiff = o2.getPremiseCount() - o1.getPremiseCount();
+
+                        if (premiseCountDiff > 0) {
+                            return 1;
+                        } else if (premiseCountDiff < 0) {
+                            return -1;
+                        }
+
+                        return 0;
+                    }
+                }
+            }
+        });
+
+        return rules;
+    }
+}
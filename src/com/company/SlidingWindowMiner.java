@@ -0,0 +1,227 @@
+package com.company;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Keeps the frequent itemsets of an unbounded transaction feed over a sliding window.
+ *
+ * The window is count-based (the last N transactions), time-based (the transactions of the last T milliseconds)
+ * or both. Its transactions are kept in a {@link CanTree}: a new transaction is added to the tree and the ones
+ * that fall out of the window are removed again, so the tree always matches the window exactly and mining it
+ * never has to look at transactions that already left. Transactions are basket lines (items separated by spaces
+ * or commas) and items are numbered in order of first appearance, like {@link StreamingLoader} does.
+ *
+ * An item that no transaction in the window holds anymore is forgotten, and its id is handed to the next new
+ * item, so the dictionary stays as large as the window's vocabulary rather than everything ever seen. Reusing
+ * an id is safe because the tree drops a node as soon as no transaction passes through it.
+ */
+public class SlidingWindowMiner {
+    /**
+     * Receives the window every time {@link #follow} emits it
+     */
+    public interface EmitListener {
+        void emit(SlidingWindowMiner window, long now) throws IOException;
+    }
+
+    // How long to wait before looking for new lines at the end of a followed file
+    private static final long FOLLOW_POLL_MILLIS = 200;
+
+    private final int windowSize;
+    private final long windowMillis;
+    private final CanTree tree = new CanTree();
+    private final ArrayDeque<ItemSet> transactions = new ArrayDeque<>();
+    private final ArrayDeque<Long> arrivalTimes = new ArrayDeque<>();
+    private final ArrayList<String> itemNames = new ArrayList<>();
+    private final List<String> itemNamesView = Collections.unmodifiableList(itemNames);
+    private final HashMap<String, Integer> itemIds = new HashMap<>();
+    private final ArrayDeque<Integer> freeIds = new ArrayDeque<>();
+    private int[] windowCounts = new int[16];
+    private int[] row = new int[16];
+    private long numSeen;
+
+    /**
+     * @param windowSize   - the number of most recent transactions in the window, or 0 for no limit
+     * @param windowMillis - how long a transaction stays in the window, or 0 for no limit
+     */
+    public SlidingWindowMiner(int windowSize, long windowMillis) {
+        if (windowSize <= 0 && windowMillis <= 0) {
+            throw new IllegalArgumentException("The window needs a size or a duration");
+        }
+        this.windowSize = windowSize;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Adds a transaction to the window, evicting the oldest one if the window is full
+     *
+     * @param line      - the items of the transaction, separated by spaces or commas
+     * @param timestamp - when the transaction arrived, in milliseconds
+     */
+    public void add(String line, long timestamp) {
+        int length = 0;
+        int i = 0;
+        int end = line.length();
+        while (i < end) {
+            while (i < end && StreamingLoader.isBasketSeparator(line.charAt(i))) i++;
+            int start = i;
+            while (i < end && !StreamingLoader.isBasketSeparator(line.charAt(i))) i++;
+            if (start == i) break;
+
+            String name = line.substring(start, i);
+            Integer item = itemIds.get(name);
+            if (item == null) {
+                item = newItem(name);
+            }
+            if (length == row.length) {
+                row = Arrays.copyOf(row, length * 2);
+            }
+            row[length++] = item;
+        }
+        if (length == 0) return;
+
+        // Counted from the itemset, since it drops the duplicates a line may hold
+        ItemSet transaction = ItemSet.of(Arrays.copyOf(row, length));
+        for (int j = 0; j < transaction.size(); j++) {
+            windowCounts[transaction.get(j)]++;
+        }
+        tree.add(transaction);
+        transactions.addLast(transaction);
+        arrivalTimes.addLast(timestamp);
+        numSeen++;
+
+        if (windowSize > 0 && transactions.size() > windowSize) {
+            evictOldest();
+        }
+    }
+
+    /**
+     * Evicts every transaction that is older than the window's duration
+     *
+     * @param now - the current time, in milliseconds
+     */
+    public void expire(long now) {
+        if (windowMillis <= 0) return;
+        while (!arrivalTimes.isEmpty() && arrivalTimes.peekFirst() <= now - windowMillis) {
+            evictOldest();
+        }
+    }
+
+    /**
+     * Adds every line of the feed to the window and emits the window on an interval, until the feed ends.
+     * A followed file never ends, so that only stops when the thread is interrupted. A blocking feed like stdin
+     * only returns when a line arrives, so with it the interval is checked per transaction and once at the end.
+     *
+     * @param reader                - the feed of basket lines
+     * @param emitEveryTransactions - emit after this many new transactions, or 0
+     * @param emitEveryMillis       - emit after this many milliseconds, or 0
+     * @param listener              - receives the window on every emit
+     * @throws IOException          - if the feed can't be read or the listener fails
+     * @throws InterruptedException - if the thread is interrupted while waiting for new lines
+     */
+    public void follow(TailReader reader, int emitEveryTransactions, long emitEveryMillis, EmitListener listener)
+            throws IOException, InterruptedException {
+        long lastEmitTime = System.currentTimeMillis();
+        long lastEmitSeen = numSeen;
+
+        while (true) {
+            String line = reader.readLine();
+            long now = System.currentTimeMillis();
+            if (line != null) {
+                add(line, now);
+            }
+            expire(now);
+
+            if ((emitEveryTransactions > 0 && numSeen - lastEmitSeen >= emitEveryTransactions)
+                    || (emitEveryMillis > 0 && now - lastEmitTime >= emitEveryMillis)) {
+                listener.emit(this, now);
+                lastEmitTime = now;
+                lastEmitSeen = numSeen;
+            }
+
+            if (line == null) {
+                if (reader.hasEnded()) break;
+                Thread.sleep(FOLLOW_POLL_MILLIS);
+            }
+        }
+
+        if (numSeen > lastEmitSeen) {
+            listener.emit(this, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * @param minSup - the minimum support (0.0 to 1.0), relative to the current window
+     * @return (Key,Value) pairs of the itemsets that are frequent in the window and their frequencies
+     */
+    public ItemSetCountMap mine(double minSup) {
+        if (transactions.isEmpty()) {
+            return new ItemSetCountMap();
+        }
+        return tree.mine(itemNames.size(), MiningConfig.minimumSupportCount(minSup, transactions.size()));
+    }
+
+    /**
+     * @return the number of transactions currently in the window
+     */
+    public int size() {
+        return transactions.size();
+    }
+
+    /**
+     * @return the number of transactions added since the start, including the ones that left the window
+     */
+    public long getNumSeen() {
+        return numSeen;
+    }
+
+    /**
+     * @return a read-only view of the item names, indexed by item id. Ids that are free right now map to null.
+     */
+    public List<String> getItemNames() {
+        return itemNamesView;
+    }
+
+    /**
+     * @return the number of distinct items in the window
+     */
+    public int getNumItems() {
+        return itemIds.size();
+    }
+
+    private int newItem(String name) {
+        int item;
+        if (freeIds.isEmpty()) {
+            item = itemNames.size();
+            itemNames.add(name);
+            if (item == windowCounts.length) {
+                windowCounts = Arrays.copyOf(windowCounts, item * 2);
+            }
+        } else {
+            item = freeIds.pop();
+            itemNames.set(item, name);
+        }
+        itemIds.put(name, item);
+        return item;
+    }
+
+    private void evictOldest() {
+        ItemSet transaction = transactions.removeFirst();
+        tree.remove(transaction);
+        arrivalTimes.removeFirst();
+
+        for (int i = 0; i < transaction.size(); i++) {
+            int item = transaction.get(i);
+            if (--windowCounts[item] == 0) {
+                itemIds.remove(itemNames.get(item));
+                itemNames.set(item, null);
+                freeIds.push(item);
+            }
+        }
+    }
+}
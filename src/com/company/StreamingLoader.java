@@ -0,0 +1,331 @@
+package com.company;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Reads ARFF or CSV files straight into an {@link EncodedDataset} without building Weka Instances.
+ *
+ * Lines are read through an NIO buffered reader and split in place. Each attribute keeps its own
+ * value-to-item dictionary, so the "attribute=value" name is only built the first time a value is seen
+ * and every row goes directly into a primitive int array. Items are numbered in order of first
+ * appearance and named exactly like Weka's Instance.toString() output, so both loaders agree.
+ *
+ * Sparse data is read without ever expanding it to one value per attribute. ARFF sparse instances
+ * ("{3 t, 17 t}") only encode the values they list, and basket files (".dat" or ".basket", one
+ * transaction per line with its items separated by spaces or commas, like the FIMI datasets) encode
+ * every item on the line under its own name.
+ */
+public class StreamingLoader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String BASKET_ATTRIBUTE = "items";
+
+    private final ArrayList<String> attributeNames = new ArrayList<>();
+    private final ArrayList<HashMap<String, Integer>> valueToItem = new ArrayList<>();
+    private final ArrayList<String> itemNames = new ArrayList<>();
+    private final ArrayList<String> tokens = new ArrayList<>();
+    private final EncodedDataset.RowConsumer rows;
+
+    private StreamingLoader(EncodedDataset.RowConsumer rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * Loads an ARFF file (dense or sparse), a CSV file whose first line holds the attribute names,
+     * or a basket file with one transaction per line
+     *
+     * @param fileName - the file path of the data you want to read
+     * @return the encoded data
+     * @throws IOException - if the file can't be read or is malformed
+     */
+    public static EncodedDataset load(String fileName) throws IOException {
+        ArrayList<ItemSet> instances = new ArrayList<>();
+        EncodedDataset names = scan(fileName, instances::add);
+        return new EncodedDataset(names.getAttributeNames(), names.getItemNames(), instances);
+    }
+
+    /**
+     * Reads the file like {@link #load(String)}, but hands every row to the consumer instead of keeping it.
+     * Files in the encoded binary format (".enc") are read too. Items are numbered in order of first
+     * appearance, so scanning the same file again gives the same ids.
+     *
+     * @param fileName - the file path of the data you want to read
+     * @param rows     - receives every encoded row, in file order
+     * @return the attribute and item names, without any rows
+     * @throws IOException - if the file can't be read or is malformed, or the consumer fails
+     */
+    public static EncodedDataset scan(String fileName, EncodedDataset.RowConsumer rows) throws IOException {
+        if (fileName.toLowerCase().endsWith(".enc")) {
+            return EncodedDatasetCache.scanFile(new File(fileName), rows);
+        }
+
+        StreamingLoader loader = new StreamingLoader(rows);
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+             BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), -1), BUFFER_SIZE)) {
+            if (isBasketFile(fileName)) {
+                loader.readBaskets(reader);
+            } else if (fileName.toLowerCase().endsWith(".csv")) {
+                loader.readCsv(reader);
+            } else {
+                loader.readArff(reader);
+            }
+        }
+        return new EncodedDataset(loader.attributeNames.toArray(new String[0]), loader.itemNames, new ArrayList<>());
+    }
+
+    /**
+     * @param fileName - the file path of the data
+     * @return true if the file holds one basket of items per line, which only this loader can read
+     */
+    public static boolean isBasketFile(String fileName) {
+        String lowerCase = fileName.toLowerCase();
+        return lowerCase.endsWith(".dat") || lowerCase.endsWith(".basket");
+    }
+
+    private void readArff(BufferedReader reader) throws IOException {
+        String line;
+        boolean inData = false;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.charAt(0) == '%') continue;
+
+            if (inData) {
+                if (line.charAt(0) == '{') {
+                    addSparseRow(line);
+                } else {
+                    addRow(line);
+                }
+            } else if (startsWithIgnoreCase(line, "@attribute")) {
+                addAttribute(parseAttributeName(line.substring("@attribute".length()).trim()));
+            } else if (startsWithIgnoreCase(line, "@data")) {
+                inData = true;
+            }
+        }
+
+        if (!inData) {
+            throw new IOException("No @data section found");
+        }
+    }
+
+    private void readCsv(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IOException("Empty CSV file");
+        }
+
+        split(header, ',', false);
+        for (String name : tokens) {
+            addAttribute(name);
+        }
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.trim().isEmpty()) {
+                addRow(line);
+            }
+        }
+    }
+
+    private void readBaskets(BufferedReader reader) throws IOException {
+        addAttribute(BASKET_ATTRIBUTE);
+        HashMap<String, Integer> dictionary = valueToItem.get(0);
+
+        int[] row = new int[16];
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int length = 0;
+            int i = 0;
+            int end = line.length();
+            while (i < end) {
+                while (i < end && isBasketSeparator(line.charAt(i))) i++;
+                int start = i;
+                while (i < end && !isBasketSeparator(line.charAt(i))) i++;
+                if (start == i) break;
+
+                String name = line.substring(start, i);
+                Integer item = dictionary.get(name);
+                if (item == null) {
+                    item = itemNames.size();
+                    itemNames.add(name);
+                    dictionary.put(name, item);
+                }
+                if (length == row.length) {
+                    row = Arrays.copyOf(row, length * 2);
+                }
+                row[length++] = item;
+            }
+
+            if (length > 0) {
+                rows.accept(ItemSet.of(Arrays.copyOf(row, length)));
+            }
+        }
+    }
+
+    private void addAttribute(String name) {
+        attributeNames.add(name);
+        valueToItem.add(new HashMap<>());
+    }
+
+    private void addRow(String line) throws IOException {
+        split(line, ',', true);
+        if (tokens.size() != attributeNames.size()) {
+            throw new IOException("Expected " + attributeNames.size() + " values but found " + tokens.size() + ": " + line);
+        }
+
+        int[] row = new int[tokens.size()];
+        for (int i = 0; i < row.length; i++) {
+            HashMap<String, Integer> dictionary = valueToItem.get(i);
+            String value = tokens.get(i);
+            Integer item = dictionary.get(value);
+            if (item == null) {
+                item = itemNames.size();
+                itemNames.add(attributeNames.get(i) + "=" + value);
+                dictionary.put(value, item);
+            }
+            row[i] = item;
+        }
+        rows.accept(ItemSet.of(row));
+    }
+
+    /**
+     * Encodes an ARFF sparse instance, e.g. "{0 y, 4 'n'}". Only the listed values become items;
+     * attributes left out of the instance don't add anything to the row.
+     */
+    private void addSparseRow(String line) throws IOException {
+        int close = line.lastIndexOf('}');
+        if (close < 0) {
+            throw new IOException("Unterminated sparse instance: " + line);
+        }
+
+        split(line.substring(1, close), ',', false);
+        int[] row = new int[tokens.size()];
+        int length = 0;
+        for (String entry : tokens) {
+            if (entry.isEmpty()) continue;
+
+            int space = 0;
+            while (space < entry.length() && !Character.isWhitespace(entry.charAt(space))) space++;
+            int index;
+            try {
+                index = Integer.parseInt(entry.substring(0, space));
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid attribute index in sparse instance: " + line);
+            }
+            if (index < 0 || index >= attributeNames.size() || space == entry.length()) {
+                throw new IOException("Invalid sparse value \"" + entry + "\": " + line);
+            }
+
+            String raw = entry.substring(space).trim();
+            boolean quoted = raw.length() > 1 && (raw.charAt(0) == '\'' || raw.charAt(0) == '"');
+            String value = formatValue(quoted ? unquote(raw) : raw, quoted);
+
+            HashMap<String, Integer> dictionary = valueToItem.get(index);
+            Integer item = dictionary.get(value);
+            if (item == null) {
+                item = itemNames.size();
+                itemNames.add(attributeNames.get(index) + "=" + value);
+                dictionary.put(value, item);
+            }
+            row[length++] = item;
+        }
+        rows.accept(ItemSet.of(length == row.length ? row : Arrays.copyOf(row, length)));
+    }
+
+    /**
+     * Splits the line on the separator (outside of quotes) into {@link #tokens}. Values are optionally
+     * formatted the way Weka prints them: surrounding quotes are only kept when the value needs them.
+     */
+    private void split(String line, char separator, boolean formatValues) {
+        tokens.clear();
+        int i = 0;
+        int length = line.length();
+        while (i <= length) {
+            while (i < length && line.charAt(i) == ' ') i++;
+
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            if (i < length && (line.charAt(i) == '\'' || line.charAt(i) == '"')) {
+                char quote = line.charAt(i++);
+                quoted = true;
+                while (i < length && line.charAt(i) != quote) {
+                    if (line.charAt(i) == '\\' && i + 1 < length) i++;
+                    value.append(line.charAt(i++));
+                }
+                i++;
+                while (i < length && line.charAt(i) != separator) i++;
+            } else {
+                int start = i;
+                while (i < length && line.charAt(i) != separator) i++;
+                value.append(line, start, i);
+                while (value.length() > 0 && value.charAt(value.length() - 1) == ' ') {
+                    value.setLength(value.length() - 1);
+                }
+            }
+
+            tokens.add(formatValues ? formatValue(value.toString(), quoted) : value.toString());
+            i++;
+        }
+    }
+
+    private static String unquote(String quoted) {
+        char quote = quoted.charAt(0);
+        StringBuilder value = new StringBuilder();
+        for (int i = 1; i < quoted.length() && quoted.charAt(i) != quote; i++) {
+            if (quoted.charAt(i) == '\\' && i + 1 < quoted.length()) i++;
+            value.append(quoted.charAt(i));
+        }
+        return value.toString();
+    }
+
+    static boolean isBasketSeparator(char c) {
+        return c == ' ' || c == ',' || c == '\t';
+    }
+
+    private static String parseAttributeName(String declaration) {
+        if (!declaration.isEmpty() && (declaration.charAt(0) == '\'' || declaration.charAt(0) == '"')) {
+            int end = declaration.indexOf(declaration.charAt(0), 1);
+            return declaration.substring(1, end < 0 ? declaration.length() : end);
+        }
+
+        int end = 0;
+        while (end < declaration.length() && !Character.isWhitespace(declaration.charAt(end))) end++;
+        return declaration.substring(0, end);
+    }
+
+    private static String formatValue(String value, boolean quoted) {
+        if (!quoted && value.equals("?")) {
+            return value;
+        }
+
+        boolean needsQuotes = value.isEmpty() || value.equals("?");
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ' ' || c == ',' || c == '\'' || c == '"' || c == '\\' || c == '\t'
+                    || c == '\n' || c == '\r' || c == '%' || c == '{' || c == '}';
+        }
+        if (!needsQuotes) {
+            return value;
+        }
+
+        StringBuilder sb = new StringBuilder("'");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\'' || c == '\\') sb.append('\\');
+            sb.append(c);
+        }
+        return sb.append('\'').toString();
+    }
+
+    private static boolean startsWithIgnoreCase(String line, String prefix) {
+        return line.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+}
@@ -0,0 +1,374 @@
+package com.company;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Seeded generator of market-basket data in the style of the IBM Quest generator (T10I4D100K and friends),
+ * following Agrawal and Srikant's description in "Fast Algorithms for Mining Association Rules".
+ *
+ * A pool of potentially frequent patterns is drawn first. Pattern sizes are Poisson distributed around the
+ * average pattern length, and each pattern reuses part of the previous one so patterns share items. Every
+ * pattern gets an exponentially distributed weight and a corruption level.
+ *
+ * Transactions are then filled with weighted picks from the pool until they reach their Poisson distributed
+ * size, which is at most the number of items the patterns hold. Items are dropped from each picked pattern
+ * according to its corruption level. The same parameters and seed always give the same data.
+ *
+ * Output is sparse ARFF or a basket file with one transaction per line, both of which
+ * {@link StreamingLoader#load(String)} reads, or the encoded binary format that
+ * {@link EncodedDatasetCache#readFile(File)} reads, which is the fastest to load for millions of transactions.
+ * All of them only hold the items present in each transaction and are written one transaction at a time,
+ * so the data never has to fit in memory.
+ *
+ * Usage: SyntheticDataGenerator --output=file [--transactions=D] [--avg-length=T] [--pattern-length=I]
+ * [--items=N] [--patterns=L] [--seed=S] [--format=enc|arff|basket]
+ */
+public class SyntheticDataGenerator {
+    private static final double CORRELATION = 0.5;
+    private static final double CORRUPTION_MEAN = 0.5;
+    private static final double CORRUPTION_DEVIATION = 0.1;
+    // Picks in a row that add no new item before a transaction is given up as full
+    private static final int MAX_IDLE_PICKS = 64;
+
+    private final Random random;
+    private final int numItems;
+    private final double avgTransactionLength;
+    private final int[][] patterns;
+    private final double[] cumulativeWeights;
+    private final double[] corruption;
+    private final int numPatternItems;
+
+    // Reused for every transaction
+    private final boolean[] inTransaction;
+    private int[] transaction = new int[64];
+    private int[] carriedOver = null;
+
+    /**
+     * @param avgTransactionLength - the average number of items per transaction (T)
+     * @param avgPatternLength     - the average size of the potentially frequent patterns (I)
+     * @param numItems             - the number of distinct items (N)
+     * @param numPatterns          - the number of potentially frequent patterns (L)
+     * @param seed                 - the random seed
+     */
+    public SyntheticDataGenerator(double avgTransactionLength, double avgPatternLength, int numItems, int numPatterns, long seed) {
+        if (numItems < 1 || numPatterns < 1 || avgTransactionLength <= 0 || avgPatternLength <= 0) {
+            throw new IllegalArgumentException("Item count, pattern count and average lengths must be positive");
+        }
+
+        this.random = new Random(seed);
+        this.numItems = numItems;
+        this.avgTransactionLength = avgTransactionLength;
+        this.patterns = new int[numPatterns][];
+        this.cumulativeWeights = new double[numPatterns];
+        this.corruption = new double[numPatterns];
+        this.inTransaction = new boolean[numItems];
+
+        double totalWeight = 0;
+        int[] previous = new int[0];
+        for (int p = 0; p < numPatterns; p++) {
+            int size = Math.min(numItems, Math.max(1, poisson(avgPatternLength)));
+            patterns[p] = createPattern(size, previous);
+            previous = patterns[p];
+
+            totalWeight += -Math.log(1.0 - random.nextDouble());
+            cumulativeWeights[p] = totalWeight;
+            corruption[p] = Math.min(1.0, Math.max(0.0, CORRUPTION_MEAN + CORRUPTION_DEVIATION * random.nextGaussian()));
+        }
+        for (int p = 0; p < numPatterns; p++) {
+            cumulativeWeights[p] /= totalWeight;
+        }
+
+        // Transactions are only filled from the patterns, so they can't hold more items than the patterns do
+        boolean[] inPatterns = new boolean[numItems];
+        int count = 0;
+        for (int[] pattern : patterns) {
+            for (int item : pattern) {
+                if (!inPatterns[item]) {
+                    inPatterns[item] = true;
+                    count++;
+                }
+            }
+        }
+        this.numPatternItems = count;
+    }
+
+    /**
+     * @return the sorted item ids of the next transaction
+     */
+    public int[] nextTransaction() {
+        int size = Math.min(numPatternItems, Math.max(1, poisson(avgTransactionLength)));
+        int length = 0;
+
+        // Heavily corrupted or overlapping patterns can keep adding nothing, so the idle picks are capped
+        int idlePicks = 0;
+        while (length < size && idlePicks < MAX_IDLE_PICKS) {
+            int[] pattern = carriedOver != null ? carriedOver : corrupt(pickPattern());
+            carriedOver = null;
+
+            // A pattern that doesn't fit is kept half of the time, otherwise it starts the next transaction
+            if (length > 0 && length + pattern.length > size && random.nextBoolean()) {
+                carriedOver = pattern;
+                break;
+            }
+
+            int previousLength = length;
+            for (int item : pattern) {
+                if (!inTransaction[item]) {
+                    inTransaction[item] = true;
+                    if (length == transaction.length) {
+                        transaction = Arrays.copyOf(transaction, length * 2);
+                    }
+                    transaction[length++] = item;
+                }
+            }
+            idlePicks = length == previousLength ? idlePicks + 1 : 0;
+        }
+
+        int[] result = Arrays.copyOf(transaction, length);
+        for (int item : result) {
+            inTransaction[item] = false;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Generates a dataset in memory, which is handy for benchmarks and small experiments
+     *
+     * @param numTransactions - the number of transactions (D)
+     * @param generator       - the generator to draw the transactions from
+     * @return the encoded dataset
+     */
+    public static EncodedDataset generate(int numTransactions, SyntheticDataGenerator generator) {
+        ArrayList<ItemSet> instances = new ArrayList<>(numTransactions);
+        for (int i = 0; i < numTransactions; i++) {
+            instances.add(ItemSet.ofSorted(generator.nextTransaction()));
+        }
+        return new EncodedDataset(new String[]{"items"}, generator.itemNames(), instances);
+    }
+
+    /**
+     * Streams the transactions into a file in the encoded binary format
+     *
+     * @param file            - the file to write
+     * @param numTransactions - the number of transactions (D)
+     * @throws IOException - if the file can't be written
+     */
+    public void writeEncoded(File file, long numTransactions) throws IOException {
+        if (numTransactions > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The encoded format holds at most " + Integer.MAX_VALUE + " transactions");
+        }
+
+        try (EncodedDatasetCache.Writer out = new EncodedDatasetCache.Writer(file, null, new String[]{"items"}, itemNames())) {
+            for (long i = 0; i < numTransactions; i++) {
+                int[] row = nextTransaction();
+                out.addRow(row, row.length);
+            }
+        }
+    }
+
+    /**
+     * Streams the transactions into a sparse ARFF file with a {f,t} attribute per item, listing only the "t" values
+     *
+     * @param file            - the file to write
+     * @param numTransactions - the number of transactions (D)
+     * @throws IOException - if the file can't be written
+     */
+    public void writeArff(File file, long numTransactions) throws IOException {
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(file), 1 << 16)) {
+            out.write("@relation quest");
+            out.newLine();
+            out.newLine();
+            for (int item = 0; item < numItems; item++) {
+                out.write("@attribute item" + item + " {f,t}");
+                out.newLine();
+            }
+            out.newLine();
+            out.write("@data");
+            out.newLine();
+
+            StringBuilder line = new StringBuilder();
+            for (long i = 0; i < numTransactions; i++) {
+                line.setLength(0);
+                line.append('{');
+                for (int item : nextTransaction()) {
+                    if (line.length() > 1) line.append(',');
+                    line.append(item).append(" t");
+                }
+                out.append(line).append('}');
+                out.newLine();
+            }
+        }
+    }
+
+    /**
+     * Streams the transactions into a basket file, one transaction per line with its item names separated by spaces
+     *
+     * @param file            - the file to write
+     * @param numTransactions - the number of transactions (D)
+     * @throws IOException - if the file can't be written
+     */
+    public void writeBaskets(File file, long numTransactions) throws IOException {
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(file), 1 << 16)) {
+            StringBuilder line = new StringBuilder();
+            for (long i = 0; i < numTransactions; i++) {
+                line.setLength(0);
+                for (int item : nextTransaction()) {
+                    if (line.length() > 0) line.append(' ');
+                    line.append("item").append(item);
+                }
+                out.append(line);
+                out.newLine();
+            }
+        }
+    }
+
+    /**
+     * @return the name of every item, indexed by item id
+     */
+    public ArrayList<String> itemNames() {
+        ArrayList<String> names = new ArrayList<>(numItems);
+        for (int item = 0; item < numItems; item++) {
+            names.add("item" + item);
+        }
+        return names;
+    }
+
+    public static void main(String[] args) throws IOException {
+        long numTransactions = 100000;
+        double avgTransactionLength = 10;
+        double avgPatternLength = 4;
+        int numItems = 1000;
+        int numPatterns = 2000;
+        long seed = 1;
+        String format = "enc";
+        String output = null;
+
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                System.out.println("Ignoring unknown argument " + arg + ".");
+                continue;
+            }
+
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            switch (name) {
+                case "transactions":
+                    numTransactions = Long.parseLong(value);
+                    break;
+                case "avg-length":
+                    avgTransactionLength = Double.parseDouble(value);
+                    break;
+                case "pattern-length":
+                    avgPatternLength = Double.parseDouble(value);
+                    break;
+                case "items":
+                    numItems = Integer.parseInt(value);
+                    break;
+                case "patterns":
+                    numPatterns = Integer.parseInt(value);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "format":
+                    format = value.toLowerCase();
+                    break;
+                case "output":
+                    output = value;
+                    break;
+                default:
+                    System.out.println("Ignoring unknown option --" + name + ".");
+            }
+        }
+
+        if (output == null) {
+            System.out.println("Usage: SyntheticDataGenerator --output=file [--transactions=D] [--avg-length=T] "
+                    + "[--pattern-length=I] [--items=N] [--patterns=L] [--seed=S] [--format=enc|arff|basket]");
+            return;
+        }
+
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(avgTransactionLength, avgPatternLength, numItems, numPatterns, seed);
+        long start = System.currentTimeMillis();
+        if (format.equals("arff")) {
+            generator.writeArff(new File(output), numTransactions);
+        } else if (format.equals("basket")) {
+            generator.writeBaskets(new File(output), numTransactions);
+        } else {
+            if (!format.equals("enc")) {
+                System.out.println("Invalid format. Using default (enc).");
+            }
+            generator.writeEncoded(new File(output), numTransactions);
+        }
+        System.out.println("Wrote " + numTransactions + " transactions to " + output + " in " + (System.currentTimeMillis() - start) + " ms.");
+    }
+
+    /**
+     * Draws the items of a new pattern, taking an exponentially distributed fraction of them from the previous pattern
+     */
+    private int[] createPattern(int size, int[] previous) {
+        boolean[] used = new boolean[numItems];
+        int[] pattern = new int[size];
+        int length = 0;
+
+        double fraction = -CORRELATION * Math.log(1.0 - random.nextDouble());
+        int fromPrevious = Math.min(previous.length, Math.min(size, (int) Math.round(fraction * size)));
+        for (int i = 0; i < fromPrevious; i++) {
+            int item = previous[random.nextInt(previous.length)];
+            if (!used[item]) {
+                used[item] = true;
+                pattern[length++] = item;
+            }
+        }
+
+        while (length < size) {
+            int item = random.nextInt(numItems);
+            if (!used[item]) {
+                used[item] = true;
+                pattern[length++] = item;
+            }
+        }
+        return pattern;
+    }
+
+    private int pickPattern() {
+        int index = Arrays.binarySearch(cumulativeWeights, random.nextDouble());
+        index = index < 0 ? -index - 1 : index;
+        return Math.min(index, patterns.length - 1);
+    }
+
+    /**
+     * @return the pattern's items, dropping one at random for as long as a uniform draw stays below its corruption level
+     */
+    private int[] corrupt(int p) {
+        int[] items = patterns[p].clone();
+        int length = items.length;
+        while (length > 0 && random.nextDouble() < corruption[p]) {
+            int drop = random.nextInt(length);
+            items[drop] = items[--length];
+        }
+        return length == items.length ? items : Arrays.copyOf(items, length);
+    }
+
+    private int poisson(double mean) {
+        if (mean > 30) {
+            return (int) Math.max(0, Math.round(mean + Math.sqrt(mean) * random.nextGaussian()));
+        }
+
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int n = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            n++;
+        }
+        return n;
+    }
+}
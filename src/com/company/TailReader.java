@@ -0,0 +1,89 @@
+package com.company;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads complete lines from a stream that may still be growing, like "tail -f".
+ *
+ * When following a file and no complete line is available yet, {@link #readLine()} returns null instead of
+ * handing out a half-written line, so the caller can do other work and try again later. A stream that isn't
+ * followed (like stdin) is read blocking until it ends, and its last line is returned even without a line break.
+ */
+public class TailReader implements Closeable {
+    private final Reader reader;
+    private final boolean follow;
+    private final char[] buffer = new char[1 << 16];
+    private final StringBuilder pending = new StringBuilder();
+    private int position;
+    private int limit;
+    private boolean ended;
+
+    /**
+     * @param input  - the stream to read
+     * @param follow - true to keep waiting for more data at the end of the stream (a growing file),
+     *                 false if the end of the stream is final (a pipe)
+     */
+    public TailReader(InputStream input, boolean follow) {
+        this.reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+        this.follow = follow;
+    }
+
+    /**
+     * @return the next complete line without its line break, or null if there is none right now
+     * @throws IOException - if the stream can't be read
+     */
+    public String readLine() throws IOException {
+        while (true) {
+            while (position < limit) {
+                char c = buffer[position++];
+                if (c == '\n') {
+                    int length = pending.length();
+                    if (length > 0 && pending.charAt(length - 1) == '\r') {
+                        length--;
+                    }
+                    String line = pending.substring(0, length);
+                    pending.setLength(0);
+                    return line;
+                }
+                pending.append(c);
+            }
+
+            // At the current end of a growing file read() would report the end of the stream, so wait for more data
+            if (ended || (follow && !reader.ready())) {
+                return null;
+            }
+
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit < 0) {
+                limit = 0;
+                if (!follow) {
+                    ended = true;
+                    if (pending.length() > 0) {
+                        String line = pending.toString();
+                        pending.setLength(0);
+                        return line;
+                    }
+                }
+                return null;
+            }
+        }
+    }
+
+    /**
+     * @return true once a stream that isn't followed has no more lines
+     */
+    public boolean hasEnded() {
+        return ended && pending.length() == 0 && position >= limit;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
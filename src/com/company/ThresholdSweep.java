@@ -0,0 +1,119 @@
+package com.company;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Mines a dataset for a whole grid of support and confidence thresholds with a single mining run.
+ *
+ * The itemsets that are frequent at a higher support are a subset of the ones at a lower support, with the same
+ * counts, so the data is only mined once, at the lowest support of the grid. Every support of the grid filters
+ * those counts and generates its rules at the lowest confidence; the rules for a higher confidence are a prefix
+ * of the same ranking, so they are filtered as well. The rule generation passes of the different supports don't
+ * depend on each other and run in parallel.
+ */
+public class ThresholdSweep {
+    private final MiningConfig config;
+    private final int numThreads;
+
+    /**
+     * @param config     - the engine and number of top rules to use; its thresholds are replaced by the grid's,
+     *                     and every frequent itemset is kept
+     * @param numThreads - the number of rule generation passes that run at the same time
+     */
+    public ThresholdSweep(MiningConfig config, int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("A sweep needs at least one thread");
+        }
+        this.config = config;
+        this.numThreads = numThreads;
+    }
+
+    /**
+     * @param dataset     - the encoded data
+     * @param supports    - the minimum supports of the grid (0.0 to 1.0)
+     * @param confidences - the minimum confidences of the grid (0.0 to 1.0)
+     * @return one result per threshold pair, by support and then by confidence, in the given order
+     * @throws InterruptedException - if the thread is interrupted while waiting for the rule generation passes
+     */
+    public List<MiningResult> run(EncodedDataset dataset, double[] supports, double[] confidences) throws InterruptedException {
+        if (supports.length == 0 || confidences.length == 0) {
+            throw new IllegalArgumentException("A sweep needs at least one support and one confidence");
+        }
+
+        double lowestSupport = supports[0];
+        for (double support : supports) {
+            lowestSupport = Math.min(lowestSupport, support);
+        }
+        double lowestConfidence = confidences[0];
+        for (double confidence : confidences) {
+            lowestConfidence = Math.min(lowestConfidence, confidence);
+        }
+
+        int numInstances = dataset.getNumInstances();
+        MiningConfig lowestConfig = config.withMinSupport(lowestSupport).withMinConfidence(lowestConfidence)
+                .withItemSets(MiningConfig.ItemSets.ALL);
+        ItemSetCountMap counts = lowestConfig.getEngine().mine(dataset.getInstances(), dataset.getNumItems(),
+                lowestConfig.minimumSupportCount(numInstances));
+        EncodedDataset names = new EncodedDataset(dataset.getAttributeNames(), dataset.getItemNames(), new ArrayList<>());
+
+        ArrayList<Callable<List<MiningResult>>> passes = new ArrayList<>(supports.length);
+        for (double support : supports) {
+            passes.add(() -> resultsForSupport(names, numInstances, counts, lowestConfig.withMinSupport(support), confidences));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(numThreads, supports.length));
+        try {
+            ArrayList<MiningResult> results = new ArrayList<>(supports.length * confidences.length);
+            for (Future<List<MiningResult>> pass : executor.invokeAll(passes)) {
+                results.addAll(pass.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A rule generation pass of the sweep failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Generates the rules of one support at the lowest confidence and filters them for every confidence
+     *
+     * @param names        - the attribute and item names of the data
+     * @param numInstances - the number of instances in the data
+     * @param counts       - the itemsets mined at the lowest support; only read
+     * @param supportConfig - the support of this pass, with the lowest confidence
+     * @param confidences  - the minimum confidences of the grid
+     * @return one result per confidence, in the given order
+     */
+    private static List<MiningResult> resultsForSupport(EncodedDataset names, int numInstances, ItemSetCountMap counts,
+                                                        MiningConfig supportConfig, double[] confidences) {
+        int minCount = supportConfig.minimumSupportCount(numInstances);
+        ItemSetCountMap frequentItemSets = new ItemSetCountMap();
+        counts.forEach((itemSet, count) -> {
+            if (count >= minCount) {
+                frequentItemSets.put(itemSet, count);
+            }
+        });
+
+        ArrayList<AssociationRule> rules = RuleGenerator.generate(frequentItemSets, numInstances, supportConfig);
+
+        ArrayList<MiningResult> results = new ArrayList<>(confidences.length);
+        for (double confidence : confidences) {
+            ArrayList<AssociationRule> confidentRules = new ArrayList<>();
+            for (AssociationRule rule : rules) {
+                if (rule.getConfidence() >= confidence) {
+                    confidentRules.add(rule);
+                }
+            }
+            results.add(new MiningResult(names, numInstances, supportConfig.withMinConfidence(confidence),
+                    frequentItemSets, confidentRules));
+        }
+        return results;
+    }
+}
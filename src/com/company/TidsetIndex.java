@@ -0,0 +1,116 @@
+package com.company;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Vertical layout of the encoded data used for support counting.
+ *
+ * Every encoded item keeps a bitset of the transaction ids (tidset) that contain it. The tidset of a
+ * k-itemset is the AND of the tidsets of the two (k-1)-itemsets it was joined from, so its support is
+ * just the popcount of the result. Tidsets of the frequent itemsets of the previous level are kept
+ * around to be used as the parents of the next level's candidates.
+ */
+public class TidsetIndex {
+    private final int numWords;
+    private final long[][] itemTidsets;
+
+    private HashMap<ItemSet, long[]> parentTidsets = new HashMap<>();
+    private HashMap<ItemSet, long[]> countedTidsets = new HashMap<>();
+
+    /**
+     * Builds one tidset per encoded item
+     *
+     * @param encodedInstances - the encoded data, one row per transaction
+     * @param numEncodedItems  - the number of distinct encoded items
+     */
+    public TidsetIndex(List<ItemSet> encodedInstances, int numEncodedItems) {
+        this.numWords = (encodedInstances.size() + 63) >>> 6;
+        this.itemTidsets = new long[numEncodedItems][numWords];
+
+        int tid = 0;
+        for (ItemSet instance : encodedInstances) {
+            for (int i = 0; i < instance.size(); i++) {
+                itemTidsets[instance.get(i)][tid >>> 6] |= 1L << tid;
+            }
+            tid++;
+        }
+    }
+
+    /**
+     * Counts the number of transactions containing the given itemset.
+     * The resulting tidset is remembered until {@link #advanceLevel(List)} is called.
+     *
+     * @param itemSet - a candidate itemset
+     * @return the number of transactions that contain every item of the itemset
+     */
+    public int count(ItemSet itemSet) {
+        long[] tidset = tidsetOf(itemSet);
+        countedTidsets.put(itemSet, tidset);
+        return cardinality(tidset);
+    }
+
+    /**
+     * Keeps the tidsets of the given frequent itemsets as parents for the next level and drops the rest
+     *
+     * @param frequentItemSets - the itemsets of the current level that reached the minimum support
+     */
+    public void advanceLevel(List<ItemSet> frequentItemSets) {
+        HashMap<ItemSet, long[]> nextParents = new HashMap<>();
+        for (ItemSet itemSet : frequentItemSets) {
+            long[] tidset = countedTidsets.get(itemSet);
+            if (tidset != null) {
+                nextParents.put(itemSet, tidset);
+            }
+        }
+        parentTidsets = nextParents;
+        countedTidsets = new HashMap<>();
+    }
+
+    /**
+     * Forgets every cached tidset, so the index can be reused for another run from level one
+     */
+    public void reset() {
+        parentTidsets = new HashMap<>();
+        countedTidsets = new HashMap<>();
+    }
+
+    private long[] tidsetOf(ItemSet itemSet) {
+        int size = itemSet.size();
+        if (size == 1) {
+            return itemTidsets[itemSet.get(0)];
+        }
+
+        // The two parents that were joined into this candidate share everything but their last item
+        long[] tidset1 = parentTidsets.get(itemSet.without(size - 1));
+        long[] tidset2 = parentTidsets.get(itemSet.without(size - 2));
+        if (tidset1 == null || tidset2 == null) {
+            return intersectItems(itemSet);
+        }
+
+        long[] result = new long[numWords];
+        for (int w = 0; w < numWords; w++) {
+            result[w] = tidset1[w] & tidset2[w];
+        }
+        return result;
+    }
+
+    private long[] intersectItems(ItemSet itemSet) {
+        long[] result = itemTidsets[itemSet.get(0)].clone();
+        for (int i = 1; i < itemSet.size(); i++) {
+            long[] tidset = itemTidsets[itemSet.get(i)];
+            for (int w = 0; w < numWords; w++) {
+                result[w] &= tidset[w];
+            }
+        }
+        return result;
+    }
+
+    private static int cardinality(long[] tidset) {
+        int count = 0;
+        for (long word : tidset) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
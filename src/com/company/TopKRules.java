@@ -0,0 +1,102 @@
+package com.company;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps only the best K rules seen so far in a bounded heap.
+ *
+ * Rules are ranked like the printed output: by confidence, then implication count, then premise count,
+ * with support as the final tie-breaker. Rules that tie on all of them keep the order they were offered in,
+ * like the stable sort of {@link RuleGenerator#sortRules}. Once the heap is full, the confidence of its worst
+ * rule is a lower bound every new rule has to reach, which lets rule generation prune early.
+ */
+public class TopKRules {
+    /**
+     * Best rule first
+     */
+    public static final Comparator<AssociationRule> RANKING = new Comparator<AssociationRule>() {
+        @Override
+        public int compare(AssociationRule o1, AssociationRule o2) {
+            int result = Double.compare(o2.getConfidence(), o1.getConfidence());
+            if (result != 0) return result;
+            result = Integer.compare(o2.getImplicationCount(), o1.getImplicationCount());
+            if (result != 0) return result;
+            result = Integer.compare(o2.getPremiseCount(), o1.getPremiseCount());
+            if (result != 0) return result;
+            return Double.compare(o2.getSupport(), o1.getSupport());
+        }
+    };
+
+    /**
+     * Like {@link #RANKING}, with the rule offered first winning a tie
+     */
+    private static final Comparator<Offer> OFFER_RANKING = new Comparator<Offer>() {
+        @Override
+        public int compare(Offer o1, Offer o2) {
+            int result = RANKING.compare(o1.rule, o2.rule);
+            return result != 0 ? result : Long.compare(o1.sequence, o2.sequence);
+        }
+    };
+
+    private final int k;
+    private final PriorityQueue<Offer> heap;
+    private long nextSequence = 0;
+
+    private static final class Offer {
+        private final AssociationRule rule;
+        private final long sequence;
+
+        private Offer(AssociationRule rule, long sequence) {
+            this.rule = rule;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * @param k - the number of rules to keep
+     */
+    public TopKRules(int k) {
+        this.k = k;
+        // Worst rule at the head, so it's the one replaced
+        this.heap = new PriorityQueue<>(Math.max(1, k), OFFER_RANKING.reversed());
+    }
+
+    /**
+     * Keeps the rule if it's among the best K seen so far
+     *
+     * @param rule - a newly generated rule
+     */
+    public void offer(AssociationRule rule) {
+        if (k <= 0) return;
+
+        // A later rule loses every tie, so it has to rank strictly better than the worst one kept
+        if (heap.size() < k) {
+            heap.add(new Offer(rule, nextSequence++));
+        } else if (RANKING.compare(rule, heap.peek().rule) < 0) {
+            heap.poll();
+            heap.add(new Offer(rule, nextSequence++));
+        }
+    }
+
+    /**
+     * @return the confidence a rule needs to possibly enter the top K, or 0 while there's still room
+     */
+    public double minimumConfidence() {
+        return heap.size() < k ? 0.0 : heap.peek().rule.getConfidence();
+    }
+
+    /**
+     * @return the kept rules, best first
+     */
+    public ArrayList<AssociationRule> sortedRules() {
+        ArrayList<Offer> offers = new ArrayList<>(heap);
+        offers.sort(OFFER_RANKING);
+        ArrayList<AssociationRule> rules = new ArrayList<>(offers.size());
+        for (Offer offer : offers) {
+            rules.add(offer.rule);
+        }
+        return rules;
+    }
+}
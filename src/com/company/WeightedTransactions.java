@@ -0,0 +1,163 @@
+package com.company;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The encoded data compacted for support counting, in the style of AprioriTid and DHP.
+ *
+ * Identical rows are collapsed into one row with a weight, the number of transactions it stands for. Between
+ * levels, items that no candidate uses any more are trimmed from every row and rows that became too short to
+ * contain a candidate are dropped; trimming makes more rows identical, so they are collapsed again. Every
+ * candidate built from the remaining items gets exactly the count it would get in the original data.
+ */
+public class WeightedTransactions {
+    private final ArrayList<ItemSet> rows;
+    private final int[] weights;
+    private final boolean[] keptItems;
+    private final int minSize;
+
+    private WeightedTransactions(ArrayList<ItemSet> rows, int[] weights, boolean[] keptItems, int minSize) {
+        this.rows = rows;
+        this.weights = weights;
+        this.keptItems = keptItems;
+        this.minSize = minSize;
+    }
+
+    /**
+     * Collapses the identical rows of the data
+     *
+     * @param transactions - the encoded data
+     * @param numItems     - the number of distinct encoded items
+     * @return the distinct rows with their weights
+     */
+    public static WeightedTransactions of(List<ItemSet> transactions, int numItems) {
+        boolean[] keptItems = new boolean[numItems];
+        Arrays.fill(keptItems, true);
+        return collapse(transactions, null, keptItems, 0, true);
+    }
+
+    /**
+     * Compacts the rows for the candidates of the next level. Does nothing if no item or row can be dropped.
+     *
+     * @param candidates - the candidates of the next level, all of the same size. They may only use items that
+     *                   the candidates of the earlier levels used too.
+     * @return the rows trimmed to the items of the candidates, without the rows that can't contain any of them
+     */
+    public WeightedTransactions compactFor(List<ItemSet> candidates) {
+        int size = candidates.isEmpty() ? Integer.MAX_VALUE : candidates.get(0).size();
+        boolean[] usedItems = new boolean[keptItems.length];
+        for (ItemSet candidate : candidates) {
+            for (int i = 0; i < candidate.size(); i++) {
+                usedItems[candidate.get(i)] = true;
+            }
+        }
+        return compact(usedItems, size);
+    }
+
+    /**
+     * Compacts the rows for itemsets of the given size made of the given items
+     *
+     * @param usedItems - the items to keep; only items that earlier compactions kept too
+     * @param size      - the size of the itemsets that will be counted
+     * @return the rows trimmed to the used items, without the rows that have fewer of them than the size
+     */
+    public WeightedTransactions compact(boolean[] usedItems, int size) {
+        boolean itemsDropped = false;
+        for (int item = 0; item < keptItems.length && !itemsDropped; item++) {
+            itemsDropped = keptItems[item] && !usedItems[item];
+        }
+        if (!itemsDropped && size <= minSize) {
+            return this;
+        }
+        // Dropping whole rows can't make two rows identical, only trimming items can
+        return collapse(rows, weights, usedItems, size, itemsDropped);
+    }
+
+    /**
+     * @param transactions - the rows to collapse
+     * @param weights      - the weight of every row, or null if every row stands for one transaction
+     * @param keptItems    - the items to keep in the rows
+     * @param minSize      - the number of kept items a row needs to be kept itself
+     * @param merge        - true to collapse rows that are identical after trimming
+     */
+    private static WeightedTransactions collapse(List<ItemSet> transactions, int[] weights, boolean[] keptItems, int minSize,
+                                                 boolean merge) {
+        HashMap<ItemSet, Integer> rowIndex = merge ? new HashMap<>() : null;
+        ArrayList<ItemSet> rows = new ArrayList<>();
+        int[] rowWeights = new int[Math.min(transactions.size(), 16)];
+
+        for (int t = 0; t < transactions.size(); t++) {
+            ItemSet row = trim(transactions.get(t), keptItems, minSize);
+            if (row == null) continue;
+
+            int weight = weights == null ? 1 : weights[t];
+            Integer index = merge ? rowIndex.putIfAbsent(row, rows.size()) : null;
+            if (index != null) {
+                rowWeights[index] += weight;
+            } else {
+                if (rows.size() == rowWeights.length) {
+                    rowWeights = Arrays.copyOf(rowWeights, rowWeights.length * 2);
+                }
+                rowWeights[rows.size()] = weight;
+                rows.add(row);
+            }
+        }
+        return new WeightedTransactions(rows, Arrays.copyOf(rowWeights, rows.size()), keptItems, minSize);
+    }
+
+    /**
+     * @return the row without the dropped items, or null if fewer than minSize items are left
+     */
+    private static ItemSet trim(ItemSet row, boolean[] keptItems, int minSize) {
+        int numKept = 0;
+        for (int i = 0; i < row.size(); i++) {
+            if (keptItems[row.get(i)]) numKept++;
+        }
+        if (numKept < minSize || numKept == 0) {
+            return null;
+        }
+        if (numKept == row.size()) {
+            return row;
+        }
+
+        int[] items = new int[numKept];
+        int n = 0;
+        for (int i = 0; i < row.size(); i++) {
+            if (keptItems[row.get(i)]) items[n++] = row.get(i);
+        }
+        return ItemSet.ofSorted(items);
+    }
+
+    /**
+     * @return the number of distinct encoded items, kept or not
+     */
+    public int getNumItems() {
+        return keptItems.length;
+    }
+
+    /**
+     * @return the number of distinct rows left
+     */
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * @param index - the position of a row
+     * @return the row, with its items sorted
+     */
+    public ItemSet get(int index) {
+        return rows.get(index);
+    }
+
+    /**
+     * @param index - the position of a row
+     * @return the number of transactions the row stands for
+     */
+    public int weight(int index) {
+        return weights[index];
+    }
+}
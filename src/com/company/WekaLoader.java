@@ -0,0 +1,80 @@
+package com.company;
+
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.SparseInstance;
+import weka.core.converters.ConverterUtils.DataSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Loads a file with Weka's {@link DataSource}, which reads formats other than ARFF as well, as long as they
+ * are appropriately formatted. Items are encoded the same way as Weka names them (i.e. "Class=democrat").
+ */
+public final class WekaLoader {
+
+    private WekaLoader() {
+    }
+
+    /**
+     * @param fileName - the file path of the data you want to read
+     * @return the encoded data
+     * @throws Exception - if {@link DataSource} can't read the file
+     */
+    public static EncodedDataset load(String fileName) throws Exception {
+        DataSource data = new DataSource(fileName);
+        Instances instances = data.getDataSet();
+        // setting class attribute if the data format does not provide this information
+        // For example, the XRFF format saves the class attribute information as well
+        if (instances.classIndex() == -1) {
+            instances.setClassIndex(instances.numAttributes() - 1);
+        }
+
+        // Gathering array of all attribute names
+        String[] attributeNames = new String[instances.numAttributes()];
+        for (int i = 0; i < attributeNames.length; i++) {
+            attributeNames[i] = instances.attribute(i).name();
+        }
+
+        ArrayList<String> itemNames = new ArrayList<>();
+        ArrayList<ItemSet> encodedInstances = new ArrayList<>(instances.numInstances());
+        HashMap<String, Integer> stringToIntegerEncoded = new HashMap<>();
+
+        for (Instance instance : instances) {
+            // Sparse instances only encode the values they store, instead of one item per attribute
+            if (instance instanceof SparseInstance) {
+                int[] encodedDataEntry = new int[instance.numValues()];
+                for (int v = 0; v < encodedDataEntry.length; v++) {
+                    int attributeIndex = instance.index(v);
+                    String encodedString = attributeNames[attributeIndex] + "=" + instance.toString(attributeIndex);
+                    encodedDataEntry[v] = encode(encodedString, itemNames, stringToIntegerEncoded);
+                }
+                encodedInstances.add(ItemSet.of(encodedDataEntry));
+                continue;
+            }
+
+            String[] split = instance.toString().split(",");
+            int[] encodedDataEntry = new int[split.length];
+            for (int i = 0; i < split.length; i++) {
+                encodedDataEntry[i] = encode(attributeNames[i] + "=" + split[i], itemNames, stringToIntegerEncoded);
+            }
+            encodedInstances.add(ItemSet.of(encodedDataEntry));
+        }
+
+        return new EncodedDataset(attributeNames, itemNames, encodedInstances);
+    }
+
+    /**
+     * @return the id of the encoded item, numbering items in order of first appearance
+     */
+    private static int encode(String encodedString, ArrayList<String> itemNames, HashMap<String, Integer> stringToIntegerEncoded) {
+        Integer item = stringToIntegerEncoded.get(encodedString);
+        if (item == null) {
+            item = itemNames.size();
+            itemNames.add(encodedString);
+            stringToIntegerEncoded.put(encodedString, item);
+        }
+        return item;
+    }
+}
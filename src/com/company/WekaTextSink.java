@@ -0,0 +1,142 @@
+package com.company;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes itemsets and rules as the Apriori report, in the format of Weka's Apriori output, as they arrive.
+ *
+ * The settings and the itemsets of every size are written right away. Like Weka, the report only lists the best
+ * rules, ranked: they are kept in a {@link TopKRules} heap as long as the number of rules to print, and written
+ * with the total once the sink is closed, so the rules never have to be in memory all at once.
+ */
+public class WekaTextSink implements ResultSink {
+    private final BufferedWriter writer;
+    private final String inputFilePath;
+    private final int numAttributes;
+    private final MiningConfig config;
+    private final String kind;
+    private final TopKRules bestRules;
+    private List<String> itemNames;
+    private long numRules = 0;
+    private boolean closed = false;
+
+    /**
+     * @param writer - where the report goes; it's flushed but not closed with the sink, so more can be appended
+     * @param inputFilePath - the file path of the mined data
+     * @param numAttributes - the number of attributes of the mined data
+     * @param config - the settings the job runs with
+     * @param numRulesToPrint - the most rules listed
+     */
+    public WekaTextSink(BufferedWriter writer, String inputFilePath, int numAttributes, MiningConfig config, int numRulesToPrint) {
+        this.writer = writer;
+        this.inputFilePath = inputFilePath;
+        this.numAttributes = numAttributes;
+        this.config = config;
+        this.kind = config.getItemSets() == MiningConfig.ItemSets.ALL ? "large" : config.getItemSets().name().toLowerCase();
+        this.bestRules = new TopKRules(numRulesToPrint);
+    }
+
+    @Override
+    public void begin(List<String> itemNames, int numInstances) throws IOException {
+        this.itemNames = itemNames;
+        int numSupportedInstances = (int)(config.getMinSupport()*numInstances);
+
+        writer.append("=======");
+        writer.newLine();
+        writer.append("Apriori");
+        writer.newLine();
+        writer.append("=======");
+        writer.newLine();
+
+        writer.newLine();
+        writer.append("Input file: ").append(inputFilePath);
+        writer.newLine();
+        writer.append("Number of Instances: ").append(String.valueOf(numInstances));
+        writer.newLine();
+        writer.append("Number of Attributes: ").append(String.valueOf(numAttributes));
+        writer.newLine();
+        writer.append("Minimum support: ").append(String.valueOf(config.getMinSupport())).append(" (").append(String.valueOf(numSupportedInstances)).append(" instances)");
+        writer.newLine();
+        writer.append("Minimum metric <confidence>: ").append(String.valueOf(config.getMinConfidence()));
+        writer.newLine();
+        writer.append("Generated sets of ").append(kind).append(" itemsets:");
+    }
+
+    @Override
+    public void startLevel(int k, int numItemSets) throws IOException {
+        writer.newLine();
+        writer.append("Size of set of ").append(kind).append(" itemsets L(").append(String.valueOf(k)).append("): ").append(String.valueOf(numItemSets));
+        writer.newLine();
+    }
+
+    @Override
+    public void itemSet(ItemSet itemSet, int count) throws IOException {
+        writer.append(itemSet.toString());
+        writer.newLine();
+    }
+
+    @Override
+    public void rule(AssociationRule rule) {
+        numRules++;
+        bestRules.offer(rule);
+    }
+
+    /**
+     * Writes the total and the best rules, or why there are none. Closing the sink again does nothing.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+
+        if (config.getItemSets() == MiningConfig.ItemSets.MAXIMAL) {
+            writer.newLine();
+            writer.append("Maximal itemsets don't keep the frequencies of their subsets, so no rules were generated.");
+            writer.newLine();
+            writer.flush();
+            return;
+        }
+
+        writeRules(writer, numRules, bestRules.sortedRules(), itemNames, config);
+        writer.flush();
+    }
+
+    /**
+     * Writes the number of rules and the best of them as Weka does
+     *
+     * @param writer - where the report goes
+     * @param numRules - the number of rules found
+     * @param bestRules - the rules to list, best first
+     * @param itemNames - the item names, indexed by item id
+     * @param config - the settings the rules were generated with
+     * @throws IOException - throws an IOException if {@link BufferedWriter} isn't functional
+     */
+    static void writeRules(BufferedWriter writer, long numRules, List<AssociationRule> bestRules, List<String> itemNames,
+                           MiningConfig config) throws IOException {
+        writer.newLine();
+
+        if (numRules == 0) {
+            writer.append("No rules found!");
+            writer.newLine();
+        } else {
+            // The top-K heap drops rules as soon as better ones arrive, so a full heap doesn't know how many there were
+            if (config.getTopK() > 0 && numRules == config.getTopK()) {
+                writer.append("Top ").append(String.valueOf(config.getTopK())).append(" rules found.");
+            } else {
+                writer.append("There were ").append(String.valueOf(numRules)).append(" rules found.");
+            }
+            writer.newLine();
+            writer.append("Best rules found:");
+            writer.newLine();
+
+            int ruleNum = 1;
+            for (AssociationRule rule : bestRules) {
+                writer.newLine();
+                writer.append("\t").append(String.valueOf(ruleNum)).append(". ").append(MiningResult.ruleToString(rule, itemNames));
+                ruleNum++;
+            }
+        }
+    }
+}
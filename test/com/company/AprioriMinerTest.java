@@ -0,0 +1,90 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Candidate generation and pair counting of {@link AprioriMiner}, with the transactions of {@link FPGrowthTest}
+ */
+public class AprioriMinerTest {
+    private static final List<ItemSet> TRANSACTIONS = Arrays.asList(
+            ItemSet.of(0, 1, 2), ItemSet.of(0, 1), ItemSet.of(1, 2), ItemSet.of(0, 2, 3), ItemSet.of(0, 1, 2, 3));
+
+    private static MiningMetrics.Level levelTwo(MiningMetrics metrics) {
+        return metrics.getLevels().get(1);
+    }
+
+    @Test
+    public void joinsOnlyItemSetsWithTheSamePrefix() {
+        List<ItemSet> frequent = Arrays.asList(ItemSet.of(0, 1), ItemSet.of(0, 2), ItemSet.of(0, 3), ItemSet.of(1, 2), ItemSet.of(2, 3));
+
+        // {1, 2} and {2, 3} share no prefix, so nothing starting with 1 or 2 is joined
+        assertEquals(Arrays.asList(ItemSet.of(0, 1, 2), ItemSet.of(0, 2, 3)), AprioriMiner.createCandidates(frequent, 3));
+    }
+
+    @Test
+    public void prunesCandidatesWithAnInfrequentSubset() {
+        List<ItemSet> frequent = Arrays.asList(ItemSet.of(0, 1), ItemSet.of(0, 2), ItemSet.of(0, 3), ItemSet.of(1, 2));
+        MiningMetrics metrics = new MiningMetrics();
+
+        // {0, 1, 3} and {0, 2, 3} lack {1, 3} and {2, 3}
+        try (MiningMetrics.Level level = metrics.startLevel(3)) {
+            assertEquals(Collections.singletonList(ItemSet.of(0, 1, 2)), AprioriMiner.createCandidates(frequent, 3, level));
+        }
+        assertEquals(2, metrics.getLevels().get(0).getCandidatesPruned());
+    }
+
+    @Test
+    public void sortsUnsortedItemSetsFirst() {
+        List<ItemSet> frequent = Arrays.asList(ItemSet.of(2), ItemSet.of(0), ItemSet.of(1));
+        assertEquals(Arrays.asList(ItemSet.of(0, 1), ItemSet.of(0, 2), ItemSet.of(1, 2)), AprioriMiner.createCandidates(frequent, 2));
+        assertEquals(Collections.emptyList(), AprioriMiner.createCandidates(Collections.singletonList(ItemSet.of(0, 1)), 3));
+    }
+
+    @Test
+    public void everyPairCountingFindsTheSameItemSets() {
+        ItemSetCountMap expected = new AprioriMiner(AprioriMiner.Counting.HORIZONTAL, 1).mine(TRANSACTIONS, 4, 2);
+
+        for (AprioriMiner.Counting counting : new AprioriMiner.Counting[]{AprioriMiner.Counting.HORIZONTAL, AprioriMiner.Counting.TRIE}) {
+            for (AprioriMiner.PairCounting pairCounting : AprioriMiner.PairCounting.values()) {
+                for (int numThreads : new int[]{1, 3}) {
+                    ItemSetCountMap frequent = new AprioriMiner(counting, numThreads, pairCounting).mine(TRANSACTIONS, 4, 2);
+                    for (ItemSet itemSet : expected.keys()) {
+                        if (expected.getOrDefault(itemSet, 0) >= 2) {
+                            assertEquals(counting + " " + pairCounting + " " + numThreads + " threads " + itemSet,
+                                    expected.getOrDefault(itemSet, 0), frequent.getOrDefault(itemSet, 0));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void countsEveryPairOfFrequentItemsInATriangle() {
+        MiningMetrics metrics = new MiningMetrics();
+        ItemSetCountMap frequent = new AprioriMiner(AprioriMiner.Counting.HORIZONTAL, 1, AprioriMiner.PairCounting.TRIANGULAR)
+                .mine(TRANSACTIONS, 4, 2, metrics);
+
+        assertEquals(6, levelTwo(metrics).getCandidatesGenerated());
+        assertEquals(5, levelTwo(metrics).getFrequentItemSets());
+        assertEquals(3, frequent.getOrDefault(ItemSet.of(0, 1), 0));
+        assertEquals(2, frequent.getOrDefault(ItemSet.of(2, 3), 0));
+    }
+
+    @Test
+    public void dropsPairsWhoseBucketIsInfrequent() {
+        MiningMetrics metrics = new MiningMetrics();
+        new AprioriMiner(AprioriMiner.Counting.TRIE, 1, AprioriMiner.PairCounting.DHP).mine(TRANSACTIONS, 4, 2, metrics);
+
+        // {1, 3} occurs once, and no other pair shares its bucket
+        assertEquals(1, levelTwo(metrics).getCandidatesPruned());
+        assertEquals(5, levelTwo(metrics).getCandidatesGenerated());
+        assertEquals(5, levelTwo(metrics).getFrequentItemSets());
+    }
+}
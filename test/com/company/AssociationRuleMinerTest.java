@@ -0,0 +1,211 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Mining jobs through the public API, with the transactions of {@link FPGrowthTest}
+ */
+public class AssociationRuleMinerTest {
+    private static final List<ItemSet> TRANSACTIONS = Arrays.asList(
+            ItemSet.of(0, 1, 2), ItemSet.of(0, 1), ItemSet.of(1, 2), ItemSet.of(0, 2, 3), ItemSet.of(0, 1, 2, 3));
+
+    private static EncodedDataset dataset() {
+        return new EncodedDataset(new String[]{"items"}, Arrays.asList("a", "b", "c", "d"), TRANSACTIONS);
+    }
+
+    private static MiningConfig config() {
+        return new MiningConfig().withMinSupport(0.4).withMinConfidence(0.6);
+    }
+
+    @Test
+    public void groupsTheFrequentItemSetsBySize() {
+        MiningResult result = new AssociationRuleMiner(config()).mine(dataset());
+
+        List<List<ItemSet>> levels = result.getFrequentItemSetsByLevel();
+        assertEquals(3, levels.size());
+        assertEquals(Arrays.asList(ItemSet.of(0), ItemSet.of(1), ItemSet.of(2), ItemSet.of(3)), levels.get(0));
+        assertEquals(5, levels.get(1).size());
+        assertEquals(Arrays.asList(ItemSet.of(0, 1, 2), ItemSet.of(0, 2, 3)), levels.get(2));
+        assertEquals(11, result.getNumFrequentItemSets());
+        assertEquals(2, result.getCount(ItemSet.of(0, 2, 3)));
+        assertEquals(-1, result.getCount(ItemSet.of(4)));
+        assertEquals("d 2 ==> a 2    <conf:(1.0)>    <sup:(0.4)>",
+                result.ruleToString(new AssociationRule(ItemSet.of(3), 2, ItemSet.of(0), 2, 1.0, 0.4)));
+    }
+
+    @Test
+    public void everyEngineFindsTheSameResult() {
+        MiningResult expected = new AssociationRuleMiner(config()).mine(dataset());
+
+        List<FrequentItemSetMiner> engines = new ArrayList<>(Arrays.asList(
+                FrequentItemSetMiner.FP_GROWTH, FrequentItemSetMiner.ECLAT, FrequentItemSetMiner.DECLAT));
+        for (AprioriMiner.Counting counting : AprioriMiner.Counting.values()) {
+            engines.add(new AprioriMiner(counting, 1));
+            engines.add(new AprioriMiner(counting, 3));
+        }
+
+        for (FrequentItemSetMiner engine : engines) {
+            MiningResult result = new AssociationRuleMiner(config().withEngine(engine)).mine(dataset());
+            assertEquals(expected.getFrequentItemSetsByLevel(), result.getFrequentItemSetsByLevel());
+            for (List<ItemSet> level : expected.getFrequentItemSetsByLevel()) {
+                for (ItemSet itemSet : level) {
+                    assertEquals(expected.getCount(itemSet), result.getCount(itemSet));
+                }
+            }
+            // Rules that tie on every sort key may come in any order
+            assertEquals(new HashSet<>(expected.getRules()), new HashSet<>(result.getRules()));
+        }
+    }
+
+    @Test
+    public void partitionedAndIncrementalJobsMatchMiningInMemory() throws IOException {
+        File all = File.createTempFile("miner", ".basket");
+        File first = File.createTempFile("miner", ".basket");
+        File second = File.createTempFile("miner", ".basket");
+        all.deleteOnExit();
+        first.deleteOnExit();
+        second.deleteOnExit();
+        try (PrintWriter allOut = new PrintWriter(all, "UTF-8");
+             PrintWriter firstOut = new PrintWriter(first, "UTF-8");
+             PrintWriter secondOut = new PrintWriter(second, "UTF-8")) {
+            for (int i = 0; i < TRANSACTIONS.size(); i++) {
+                StringBuilder line = new StringBuilder();
+                for (int j = 0; j < TRANSACTIONS.get(i).size(); j++) {
+                    line.append("abcd".charAt(TRANSACTIONS.get(i).get(j))).append(' ');
+                }
+                allOut.println(line);
+                (i < 3 ? firstOut : secondOut).println(line);
+            }
+        }
+
+        AssociationRuleMiner miner = new AssociationRuleMiner(config());
+        MiningResult expected = miner.mine(StreamingLoader.load(all.getPath()));
+
+        PartitionedMiner partitionedMiner = miner.partitioned(2);
+        MiningResult partitioned = miner.mine(partitionedMiner, all.getPath());
+        assertEquals(3, partitionedMiner.getNumPartitions());
+        assertEquals(expected.getFrequentItemSetsByLevel(), partitioned.getFrequentItemSetsByLevel());
+        assertEquals(new HashSet<>(expected.getRules()), new HashSet<>(partitioned.getRules()));
+        assertEquals(11, partitioned.getMetrics().getMining().getProduced());
+        assertEquals(true, partitioned.getMetrics().getMining().getNanos() > 0);
+        assertEquals(partitioned.getRules().size(), partitioned.getMetrics().getRules().getProduced());
+
+        ItemSetSnapshot snapshot = ItemSetSnapshot.of(miner.mine(StreamingLoader.load(first.getPath())), first);
+        assertEquals(true, snapshot.contains(first));
+        assertEquals(false, snapshot.contains(second));
+
+        MiningResult updated = miner.update(miner.incremental(snapshot), StreamingLoader.load(second.getPath()));
+        assertEquals(5, updated.getNumInstances());
+        assertEquals(new HashSet<>(expected.getRules()), new HashSet<>(updated.getRules()));
+        assertEquals(11, updated.getMetrics().getMining().getProduced());
+        assertEquals(true, updated.getMetrics().getMining().getNanos() > 0);
+        assertEquals(updated.getRules().size(), updated.getMetrics().getRules().getProduced());
+    }
+
+    @Test
+    public void minesClosedAndMaximalItemSetsOnRequest() {
+        MiningResult closed = new AssociationRuleMiner(config().withItemSets(MiningConfig.ItemSets.CLOSED)).mine(dataset());
+        assertEquals(8, closed.getNumFrequentItemSets());
+        assertEquals(-1, closed.getCount(ItemSet.of(3)));
+        assertEquals(11, closed.getRules().size());
+
+        MiningResult maximal = new AssociationRuleMiner(config().withItemSets(MiningConfig.ItemSets.MAXIMAL)).mine(dataset());
+        assertEquals(Arrays.asList(Collections.emptyList(), Collections.emptyList(),
+                Arrays.asList(ItemSet.of(0, 1, 2), ItemSet.of(0, 2, 3))), maximal.getFrequentItemSetsByLevel());
+        assertEquals(0, maximal.getRules().size());
+
+        // Itemsets mined some other way are all the frequent ones, whatever the miner asks for
+        AssociationRuleMiner closedMiner = new AssociationRuleMiner(config().withItemSets(MiningConfig.ItemSets.CLOSED));
+        MiningResult withRules = closedMiner.withRules(dataset(), 5, FPGrowth.mine(TRANSACTIONS, 4, 2));
+        assertEquals(MiningConfig.ItemSets.ALL, withRules.getConfig().getItemSets());
+        assertEquals(11, withRules.getNumFrequentItemSets());
+    }
+
+    @Test
+    public void streamsOnlyTheFrequentItemSetsLevelByLevel() throws IOException {
+        for (MiningConfig config : Arrays.asList(config(), config().withItemSets(MiningConfig.ItemSets.CLOSED),
+                config().withItemSets(MiningConfig.ItemSets.MAXIMAL))) {
+            AssociationRuleMiner miner = new AssociationRuleMiner(config);
+            MiningResult expected = miner.mine(dataset());
+
+            List<List<ItemSet>> levels = new ArrayList<>();
+            List<AssociationRule> rules = new ArrayList<>();
+            boolean[] closed = {false};
+            MiningMetrics metrics = miner.mineTo(dataset(), new ResultSink() {
+                private int numItemSets = -1;
+
+                @Override
+                public void begin(List<String> itemNames, int numInstances) {
+                    assertEquals(dataset().getItemNames(), itemNames);
+                    assertEquals(5, numInstances);
+                }
+
+                @Override
+                public void startLevel(int k, int numItemSets) {
+                    assertEquals(levels.size() + 1, k);
+                    levels.add(new ArrayList<>());
+                    this.numItemSets = numItemSets;
+                }
+
+                @Override
+                public void itemSet(ItemSet itemSet, int count) {
+                    List<ItemSet> level = levels.get(levels.size() - 1);
+                    assertEquals(levels.size(), itemSet.size());
+                    assertEquals(expected.getCount(itemSet), count);
+                    level.add(itemSet);
+                    assertEquals(true, level.size() <= numItemSets);
+                }
+
+                @Override
+                public void rule(AssociationRule rule) {
+                    rules.add(rule);
+                }
+
+                @Override
+                public void close() {
+                    closed[0] = true;
+                }
+            });
+
+            for (List<ItemSet> level : levels) {
+                Collections.sort(level);
+            }
+            assertEquals(expected.getFrequentItemSetsByLevel(), levels);
+            assertEquals(new HashSet<>(expected.getRules()), new HashSet<>(rules));
+            assertEquals(expected.getNumFrequentItemSets(), metrics.getMining().getProduced());
+            assertEquals(rules.size(), metrics.getRules().getProduced());
+            assertEquals(true, closed[0]);
+        }
+    }
+
+    @Test
+    public void refusesInvalidSettings() {
+        MiningConfig config = new MiningConfig();
+        try {
+            config.withMinSupport(1.5);
+            fail("Support above 1");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Invalid minimum support 1.5", e.getMessage());
+        }
+        try {
+            config.withTopK(-1);
+            fail("Negative top k");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Invalid number of top rules -1", e.getMessage());
+        }
+        assertEquals(0.55, config.getMinSupport(), 0.0);
+        assertEquals(Collections.emptyList(), new AssociationRuleMiner(config).mine(dataset()).getRules());
+    }
+}
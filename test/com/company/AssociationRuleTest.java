@@ -0,0 +1,39 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Identity and rounding of rules
+ */
+public class AssociationRuleTest {
+
+    @Test
+    public void sameSidesAreTheSameRule() {
+        AssociationRule rule = new AssociationRule(ItemSet.of(1, 2), 4, ItemSet.of(3), 3, 0.75, 0.3);
+        AssociationRule recounted = new AssociationRule(ItemSet.of(2, 1), 8, ItemSet.of(3), 6, 0.75, 0.3);
+        AssociationRule reversed = new AssociationRule(ItemSet.of(3), 3, ItemSet.of(1, 2), 3, 1.0, 0.3);
+
+        assertEquals(rule, recounted);
+        assertEquals(rule.hashCode(), recounted.hashCode());
+        assertFalse(rule.equals(reversed));
+
+        HashSet<AssociationRule> rules = new HashSet<>();
+        rules.add(rule);
+        rules.add(recounted);
+        rules.add(reversed);
+        assertEquals(2, rules.size());
+    }
+
+    @Test
+    public void roundsLikeTheOutput() {
+        AssociationRule rule = new AssociationRule(ItemSet.of(1), 3, ItemSet.of(2), 2, 2.0 / 3.0, 0.125);
+        assertEquals(0.67, rule.getRoundedConfidence(), 0.0);
+        assertEquals(0.13, rule.getRoundedSupport(), 0.0);
+        assertEquals(0.5, AssociationRule.round(0.499999, 2), 0.0);
+    }
+}
@@ -0,0 +1,59 @@
+package com.company;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Adding and removing transactions in canonical order
+ */
+public class CanTreeTest {
+
+    @Test
+    public void sharesPrefixesAndDropsEmptyNodes() {
+        CanTree tree = new CanTree();
+        tree.add(ItemSet.of(0, 1, 2));
+        tree.add(ItemSet.of(0, 1));
+        tree.add(ItemSet.of(0, 3));
+        assertEquals(3, tree.getNumTransactions());
+        assertEquals(4, tree.getNumNodes());
+
+        tree.remove(ItemSet.of(0, 1, 2));
+        assertEquals(2, tree.getNumTransactions());
+        assertEquals(3, tree.getNumNodes());
+
+        // Removing the last transaction through 1 drops it along with nothing else
+        tree.remove(ItemSet.of(0, 1));
+        assertEquals(2, tree.getNumNodes());
+    }
+
+    @Test
+    public void minesThePathsThatTransactionsEndAt() {
+        CanTree tree = new CanTree();
+        tree.add(ItemSet.of(0, 1, 2));
+        tree.add(ItemSet.of(0, 1));
+        tree.add(ItemSet.of(0, 1));
+        tree.add(ItemSet.of(1, 2));
+
+        ItemSetCountMap frequent = tree.mine(3, 2);
+        assertEquals(5, frequent.size());
+        assertEquals(3, frequent.getOrDefault(ItemSet.of(0), -1));
+        assertEquals(4, frequent.getOrDefault(ItemSet.of(1), -1));
+        assertEquals(2, frequent.getOrDefault(ItemSet.of(2), -1));
+        assertEquals(3, frequent.getOrDefault(ItemSet.of(0, 1), -1));
+        assertEquals(2, frequent.getOrDefault(ItemSet.of(1, 2), -1));
+    }
+
+    @Test
+    public void refusesTransactionsItNeverHad() {
+        CanTree tree = new CanTree();
+        tree.add(ItemSet.of(0, 1));
+        try {
+            tree.remove(ItemSet.of(0, 2));
+        } catch (IllegalStateException e) {
+            return;
+        }
+        fail("A transaction that was never added was removed");
+    }
+}
@@ -0,0 +1,51 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * One-pass counting of a level's candidates through the trie
+ */
+public class CandidateTrieTest {
+    private static final List<ItemSet> TRANSACTIONS = Arrays.asList(
+            ItemSet.of(0, 1, 2), ItemSet.of(0, 1), ItemSet.of(1, 2), ItemSet.of(0, 2, 3), ItemSet.of(0, 1, 2, 3));
+
+    private static int[] count(List<ItemSet> candidates) {
+        CandidateTrie trie = new CandidateTrie(candidates);
+        for (ItemSet transaction : TRANSACTIONS) {
+            trie.count(transaction);
+        }
+        return trie.getCounts();
+    }
+
+    @Test
+    public void countsInCandidateOrder() {
+        // Not in lexicographic order, so the counts have to follow the given order rather than the trie's
+        List<ItemSet> candidates = Arrays.asList(ItemSet.of(2, 3), ItemSet.of(0, 1), ItemSet.of(1, 3), ItemSet.of(0, 2));
+        assertArrayEquals(new int[]{2, 3, 1, 3}, count(candidates));
+    }
+
+    @Test
+    public void countsDeeperLevels() {
+        List<ItemSet> candidates = Arrays.asList(ItemSet.of(0, 1, 2), ItemSet.of(0, 2, 3), ItemSet.of(1, 2, 3), ItemSet.of(0, 1, 3));
+        assertArrayEquals(new int[]{2, 2, 1, 1}, count(candidates));
+        assertArrayEquals(new int[]{1}, count(Collections.singletonList(ItemSet.of(0, 1, 2, 3))));
+    }
+
+    @Test
+    public void skipsShortTransactions() {
+        CandidateTrie trie = new CandidateTrie(Collections.singletonList(ItemSet.of(0, 1, 2)));
+        trie.count(ItemSet.of(0, 1));
+        trie.count(ItemSet.of());
+        assertArrayEquals(new int[]{0}, trie.getCounts());
+
+        CandidateTrie empty = new CandidateTrie(Collections.emptyList());
+        empty.count(ItemSet.of(0, 1));
+        assertArrayEquals(new int[0], empty.getCounts());
+    }
+}
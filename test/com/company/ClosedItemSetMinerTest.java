@@ -0,0 +1,70 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Closed and maximal itemsets of the transactions of {@link FPGrowthTest}:
+ * <pre>
+ * t0: 0 1 2
+ * t1: 0 1
+ * t2: 1 2
+ * t3: 0 2 3
+ * t4: 0 1 2 3
+ * </pre>
+ */
+public class ClosedItemSetMinerTest {
+    private static final List<ItemSet> TRANSACTIONS = Arrays.asList(
+            ItemSet.of(0, 1, 2), ItemSet.of(0, 1), ItemSet.of(1, 2), ItemSet.of(0, 2, 3), ItemSet.of(0, 1, 2, 3));
+
+    private static void assertCounts(ItemSetCountMap expected, ItemSetCountMap actual) {
+        assertEquals("number of itemsets", expected.size(), actual.size());
+        for (ItemSet itemSet : expected.keys()) {
+            assertEquals("count of " + itemSet, expected.getOrDefault(itemSet, -1), actual.getOrDefault(itemSet, -1));
+        }
+    }
+
+    @Test
+    public void keepsOnlyItemSetsWithoutAnEquallyFrequentSuperset() {
+        // 3 never occurs without 0 and 2, so {3}, {0 3} and {2 3} all collapse into {0 2 3}
+        ItemSetCountMap expected = new ItemSetCountMap();
+        expected.put(ItemSet.of(0), 4);
+        expected.put(ItemSet.of(1), 4);
+        expected.put(ItemSet.of(2), 4);
+        expected.put(ItemSet.of(0, 1), 3);
+        expected.put(ItemSet.of(0, 2), 3);
+        expected.put(ItemSet.of(1, 2), 3);
+        expected.put(ItemSet.of(0, 1, 2), 2);
+        expected.put(ItemSet.of(0, 2, 3), 2);
+        assertCounts(expected, ClosedItemSetMiner.mine(TRANSACTIONS, 4, 2, false));
+
+        // Every transaction holds a single closed itemset of its own at the lowest count
+        ItemSetCountMap all = ClosedItemSetMiner.mine(TRANSACTIONS, 4, 1, false);
+        assertEquals(1, all.getOrDefault(ItemSet.of(0, 1, 2, 3), -1));
+        assertEquals(-1, all.getOrDefault(ItemSet.of(3), -1));
+    }
+
+    @Test
+    public void keepsOnlyItemSetsWithoutAFrequentSuperset() {
+        ItemSetCountMap expected = new ItemSetCountMap();
+        expected.put(ItemSet.of(0, 1, 2), 2);
+        expected.put(ItemSet.of(0, 2, 3), 2);
+        assertCounts(expected, ClosedItemSetMiner.mine(TRANSACTIONS, 4, 2, true));
+
+        expected = new ItemSetCountMap();
+        expected.put(ItemSet.of(0, 1), 3);
+        expected.put(ItemSet.of(0, 2), 3);
+        expected.put(ItemSet.of(1, 2), 3);
+        assertCounts(expected, ClosedItemSetMiner.mine(TRANSACTIONS, 4, 3, true));
+    }
+
+    @Test
+    public void findsNothingAboveTheLargestCount() {
+        assertEquals(0, ClosedItemSetMiner.mine(TRANSACTIONS, 4, 6, false).size());
+        assertEquals(0, ClosedItemSetMiner.mine(TRANSACTIONS, 4, 6, true).size());
+    }
+}
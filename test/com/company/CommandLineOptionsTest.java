@@ -0,0 +1,195 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Parsing the command line into settings and the kind of run
+ */
+public class CommandLineOptionsTest {
+
+    @Test
+    public void readsPositionalArgumentsAndOptionsInAnyOrder() {
+        CommandLineOptions options = CommandLineOptions.parse(new String[]{
+                "--engine=FPGrowth", "in.arff", "0.3", "--topk=5", "0.8", "7", "out.txt", "y", "--loader=streaming"});
+
+        assertEquals("in.arff", options.getInputFilePath());
+        assertEquals("out.txt", options.getOutputFilePath());
+        assertEquals(7, options.getNumRulesToPrint());
+        assertTrue(options.isTestRunTime());
+        assertTrue(options.isStreamingLoader());
+        assertFalse(options.isUseCache());
+        assertEquals(CommandLineOptions.Mode.BATCH, options.getMode());
+
+        MiningConfig config = options.toConfig();
+        assertEquals(0.3, config.getMinSupport(), 0.0);
+        assertEquals(0.8, config.getMinConfidence(), 0.0);
+        assertEquals(5, config.getTopK());
+        assertSame(FrequentItemSetMiner.FP_GROWTH, config.getEngine());
+    }
+
+    @Test
+    public void fallsBackToTheDefaultsForInvalidValues() {
+        CommandLineOptions options = CommandLineOptions.parse(new String[]{
+                "in.arff", "1.5", "-0.1", "-3", "out.txt", "maybe",
+                "--threads=x", "--topk=z", "--partition-rows=-2", "--window=5q", "--emit-every=soon", "--counting=diagonal", "--unknown"});
+
+        assertEquals(10, options.getNumRulesToPrint());
+        assertFalse(options.isTestRunTime());
+        assertEquals(0, options.getPartitionRows());
+        assertEquals(0, options.getWindowSize());
+        assertEquals(0, options.getWindowMillis());
+        assertEquals(10000, options.getEmitEveryMillis());
+        assertEquals(CommandLineOptions.Mode.BATCH, options.getMode());
+
+        MiningConfig config = options.toConfig();
+        assertEquals(0.55, config.getMinSupport(), 0.0);
+        assertEquals(0.9, config.getMinConfidence(), 0.0);
+        assertEquals(0, config.getTopK());
+        AprioriMiner engine = (AprioriMiner) config.getEngine();
+        assertEquals(AprioriMiner.Counting.HORIZONTAL, engine.getCounting());
+        assertEquals(1, engine.getNumThreads());
+    }
+
+    @Test
+    public void picksTheKindOfRun() throws IOException {
+        CommandLineOptions window = CommandLineOptions.parse(new String[]{"-", "--window=30s", "--emit-every=100"});
+        assertEquals(CommandLineOptions.Mode.WINDOW, window.getMode());
+        assertEquals(30000, window.getWindowMillis());
+        assertEquals(100, window.getEmitEveryTransactions());
+        assertEquals(0, window.getEmitEveryMillis());
+
+        assertEquals(CommandLineOptions.Mode.PARTITIONED,
+                CommandLineOptions.parse(new String[]{"--partition-rows=1000"}).getMode());
+
+        // Without a snapshot yet the first run mines from scratch, partitioned if asked, and writes one
+        File snapshot = File.createTempFile("options", ".snapshot");
+        snapshot.deleteOnExit();
+        File missing = new File(snapshot.getPath() + ".missing");
+        CommandLineOptions first = CommandLineOptions.parse(new String[]{"--incremental=" + missing.getPath(), "--partition-rows=1000"});
+        assertEquals(CommandLineOptions.Mode.PARTITIONED, first.getMode());
+        assertEquals(missing.getPath(), first.getSnapshotFilePath());
+
+        CommandLineOptions next = CommandLineOptions.parse(new String[]{"--incremental=" + snapshot.getPath(), "--partition-rows=1000"});
+        assertEquals(CommandLineOptions.Mode.INCREMENTAL, next.getMode());
+        assertEquals(0, next.getPartitionRows());
+
+        assertNull(CommandLineOptions.parse(new String[]{"--incremental="}).getSnapshotFilePath());
+
+        CommandLineOptions sweep = CommandLineOptions.parse(new String[]{"in.arff", "0.3", "0.8", "--sweep-confidence=0.9, 0.7"});
+        assertEquals(CommandLineOptions.Mode.SWEEP, sweep.getMode());
+        assertArrayEquals(new double[]{0.3}, sweep.getSweepSupports(), 0.0);
+        assertArrayEquals(new double[]{0.9, 0.7}, sweep.getSweepConfidences(), 0.0);
+
+        // Sweeps need the whole data in memory
+        assertEquals(CommandLineOptions.Mode.PARTITIONED,
+                CommandLineOptions.parse(new String[]{"--sweep-support=0.1,0.2", "--partition-rows=1000"}).getMode());
+        assertEquals(CommandLineOptions.Mode.BATCH,
+                CommandLineOptions.parse(new String[]{"--sweep-support=0.1,1.2"}).getMode());
+    }
+
+    @Test
+    public void minesClosedItemSetsForNonRedundantRules() {
+        assertEquals(MiningConfig.ItemSets.CLOSED,
+                CommandLineOptions.parse(new String[]{"--rules=nonredundant"}).toConfig().getItemSets());
+        assertEquals(MiningConfig.ItemSets.MAXIMAL,
+                CommandLineOptions.parse(new String[]{"--itemsets=Maximal"}).toConfig().getItemSets());
+
+        // Only a single run in memory can mine closed or maximal itemsets
+        assertEquals(MiningConfig.ItemSets.ALL,
+                CommandLineOptions.parse(new String[]{"--itemsets=closed", "--window=100"}).toConfig().getItemSets());
+        assertEquals(MiningConfig.ItemSets.ALL,
+                CommandLineOptions.parse(new String[]{"--itemsets=closed", "--sweep-support=0.2,0.3"}).toConfig().getItemSets());
+    }
+
+    @Test
+    public void countsPairsFromCandidatesUnderVerticalCounting() {
+        AprioriMiner dhp = (AprioriMiner) CommandLineOptions.parse(new String[]{"--pairs=DHP"}).toConfig().getEngine();
+        assertEquals(AprioriMiner.PairCounting.DHP, dhp.getPairCounting());
+
+        AprioriMiner vertical = (AprioriMiner) CommandLineOptions.parse(new String[]{"--pairs=triangular", "--counting=vertical"})
+                .toConfig().getEngine();
+        assertEquals(AprioriMiner.Counting.VERTICAL, vertical.getCounting());
+        assertEquals(AprioriMiner.PairCounting.CANDIDATES, vertical.getPairCounting());
+    }
+
+    @Test
+    public void writesTheMetricsNextToTheOutput() {
+        CommandLineOptions json = CommandLineOptions.parse(new String[]{"vote.arff", "0.5", "0.9", "10", "out.txt", "--metrics=JSON"});
+        assertEquals(new File("out.metrics.json"), json.getMetricsFile());
+        assertTrue(json.isJsonMetrics());
+        assertEquals(new File("result.prom"), CommandLineOptions.parse(new String[]{"--metrics=prometheus"}).getMetricsFile());
+
+        assertNull(CommandLineOptions.parse(new String[]{"--metrics=xml"}).getMetricsFile());
+        assertNull(CommandLineOptions.parse(new String[]{"--metrics=json", "--sweep-support=0.3,0.4"}).getMetricsFile());
+    }
+
+    @Test
+    public void picksWorkersAndCoordinators() {
+        CommandLineOptions worker = CommandLineOptions.parse(new String[]{"shard.arff", "--worker=7001", "--counting=vertical",
+                "--pairs=dhp", "--engine=eclat", "--worker-timeout=30s"});
+        assertEquals(CommandLineOptions.Mode.WORKER, worker.getMode());
+        assertEquals(7001, worker.getWorkerPort());
+        assertEquals(InetAddress.getLoopbackAddress(), worker.getWorkerBindAddress());
+        assertEquals(30000, worker.getWorkerTimeoutMillis());
+        AprioriMiner counter = (AprioriMiner) worker.toConfig().getEngine();
+        assertEquals(AprioriMiner.Counting.HORIZONTAL, counter.getCounting());
+        assertEquals(AprioriMiner.PairCounting.CANDIDATES, counter.getPairCounting());
+
+        CommandLineOptions coordinator = CommandLineOptions.parse(new String[]{
+                "--workers=localhost:7001, 127.0.0.1:7002", "--partition-rows=100", "--itemsets=closed"});
+        assertEquals(CommandLineOptions.Mode.DISTRIBUTED, coordinator.getMode());
+        assertEquals(Arrays.asList(new InetSocketAddress("localhost", 7001), new InetSocketAddress("127.0.0.1", 7002)),
+                coordinator.getWorkerAddresses());
+        assertEquals(0, coordinator.getPartitionRows());
+        assertEquals(MiningConfig.ItemSets.ALL, coordinator.toConfig().getItemSets());
+
+        assertEquals(CommandLineOptions.Mode.BATCH, CommandLineOptions.parse(new String[]{"--worker=70000"}).getMode());
+        assertEquals(CommandLineOptions.Mode.BATCH, CommandLineOptions.parse(new String[]{"--worker=x"}).getMode());
+        assertNull(CommandLineOptions.parse(new String[]{"--workers=localhost"}).getWorkerAddresses());
+        assertNull(CommandLineOptions.parse(new String[]{"--workers=localhost:7001,:7002"}).getWorkerAddresses());
+        assertNull(CommandLineOptions.parse(new String[]{"--workers=localhost:port"}).getWorkerAddresses());
+        assertEquals(DistributedMiner.DEFAULT_TIMEOUT_MILLIS,
+                CommandLineOptions.parse(new String[]{"--worker-timeout=-5s"}).getWorkerTimeoutMillis());
+    }
+
+    @Test
+    public void streamsOnlySingleRunsInMemory() {
+        CommandLineOptions csv = CommandLineOptions.parse(new String[]{"--stream=CSV", "--metrics=json"});
+        assertEquals(CommandLineOptions.Mode.STREAM, csv.getMode());
+        assertEquals("csv", csv.getStreamFormat());
+        assertEquals(new File("result.metrics.json"), csv.getMetricsFile());
+
+        assertEquals(CommandLineOptions.Mode.BATCH, CommandLineOptions.parse(new String[]{"--stream=xml"}).getMode());
+        assertEquals(CommandLineOptions.Mode.BATCH, CommandLineOptions.parse(new String[]{"--stream=none"}).getMode());
+        assertEquals(CommandLineOptions.Mode.SWEEP,
+                CommandLineOptions.parse(new String[]{"--stream=jsonl", "--sweep-support=0.3,0.4"}).getMode());
+
+        CommandLineOptions partitioned = CommandLineOptions.parse(new String[]{"--stream=binary", "--partition-rows=1000"});
+        assertEquals(CommandLineOptions.Mode.PARTITIONED, partitioned.getMode());
+        assertEquals("none", partitioned.getStreamFormat());
+    }
+
+    @Test
+    public void parsesDurationsWithAUnit() {
+        assertEquals(500, CommandLineOptions.parseDurationMillis("500ms"));
+        assertEquals(300000, CommandLineOptions.parseDurationMillis("5m"));
+        assertEquals(7200000, CommandLineOptions.parseDurationMillis("2h"));
+        assertEquals(-1, CommandLineOptions.parseDurationMillis("500"));
+        assertEquals(-1, CommandLineOptions.parseDurationMillis("s"));
+        assertEquals(-1, CommandLineOptions.parseDurationMillis("99999999999999999999s"));
+        assertEquals(-1, CommandLineOptions.parseCount("12x"));
+    }
+}
@@ -0,0 +1,156 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * A coordinator and its workers over loopback sockets, with the transactions of {@link AssociationRuleMinerTest}
+ * split in two shards that encode their items differently
+ */
+public class DistributedMinerTest {
+    private static final List<String> NAMES = Arrays.asList("a", "b", "c", "d");
+
+    private static EncodedDataset firstShard() {
+        return new EncodedDataset(new String[]{"items"}, NAMES,
+                Arrays.asList(ItemSet.of(0, 1, 2), ItemSet.of(0, 1), ItemSet.of(1, 2)));
+    }
+
+    private static EncodedDataset secondShard() {
+        // d=0, c=1, b=2, a=3
+        return new EncodedDataset(new String[]{"items"}, Arrays.asList("d", "c", "b", "a"),
+                Arrays.asList(ItemSet.of(0, 1, 3), ItemSet.of(0, 1, 2, 3)));
+    }
+
+    /**
+     * Serves the shard's jobs on a thread until the returned socket is closed
+     */
+    private static ServerSocket startWorker(EncodedDataset shard, AprioriMiner counter) throws IOException {
+        ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread thread = new Thread(() -> {
+            try {
+                new CountingWorker(shard, counter).serve(server, 5000);
+            } catch (IOException e) {
+                // The test fails on the coordinator's side
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return server;
+    }
+
+    private static InetSocketAddress addressOf(ServerSocket server) {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getLocalPort());
+    }
+
+    @Test(timeout = 20000)
+    public void minesTheShardsLikeOneProcess() throws IOException {
+        AssociationRuleMiner miner = new AssociationRuleMiner(new MiningConfig().withMinSupport(0.4).withMinConfidence(0.6));
+        List<ItemSet> all = new ArrayList<>(firstShard().getInstances());
+        all.add(ItemSet.of(0, 2, 3));
+        all.add(ItemSet.of(0, 1, 2, 3));
+        MiningResult expected = miner.mine(new EncodedDataset(new String[]{"items"}, NAMES, all));
+
+        try (ServerSocket first = startWorker(firstShard(), new AprioriMiner(AprioriMiner.Counting.HORIZONTAL, 1));
+             ServerSocket second = startWorker(secondShard(), new AprioriMiner(AprioriMiner.Counting.TRIE, 2))) {
+            // Workers serve one job after another
+            for (int job = 0; job < 2; job++) {
+                MiningResult result;
+                try (DistributedMiner distributedMiner = DistributedMiner.connect(Arrays.asList(addressOf(first), addressOf(second)))) {
+                    assertEquals(5, distributedMiner.getNumInstances());
+                    assertEquals(2, distributedMiner.getNumWorkers());
+                    result = miner.mine(distributedMiner);
+                }
+
+                assertEquals(NAMES, result.getItemNames());
+                assertEquals(expected.getFrequentItemSetsByLevel(), result.getFrequentItemSetsByLevel());
+                for (List<ItemSet> level : expected.getFrequentItemSetsByLevel()) {
+                    for (ItemSet itemSet : level) {
+                        assertEquals(expected.getCount(itemSet), result.getCount(itemSet));
+                    }
+                }
+                assertEquals(new HashSet<>(expected.getRules()), new HashSet<>(result.getRules()));
+
+                MiningMetrics metrics = result.getMetrics();
+                assertEquals(11, metrics.getMining().getProduced());
+                assertEquals(4, metrics.getLevels().size());
+                assertEquals(-1, metrics.getLevels().get(0).getRowsScanned());
+                assertEquals(result.getRules().size(), metrics.getRules().getProduced());
+            }
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void namesTheWorkerThatDoesNotAnswer() throws IOException {
+        // Accepts connections into its backlog but never speaks
+        try (ServerSocket silent = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            try {
+                DistributedMiner.connect(Collections.singletonList(addressOf(silent)), 300);
+                fail("A silent worker");
+            } catch (IOException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Worker " + addressOf(silent) + " didn't answer"));
+            }
+        }
+    }
+
+    @Test
+    public void rejectsItemSetsThatAreNotSortedOrOutOfRange() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        CountingProtocol.writeItemSets(out, Arrays.asList(ItemSet.of(0, 2), ItemSet.of(1, 3)));
+        assertEquals(Arrays.asList(ItemSet.of(0, 2), ItemSet.of(1, 3)),
+                CountingProtocol.readItemSets(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 4));
+
+        try {
+            CountingProtocol.readItemSets(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 3);
+            fail("Item 3 of 3 items");
+        } catch (IOException e) {
+            assertEquals("Invalid item 3 in an itemset", e.getMessage());
+        }
+
+        int[][] invalid = {
+                {1, 2, 2, 1},
+                {-1, 1},
+                {Integer.MAX_VALUE, 0},
+        };
+        for (int[] ints : invalid) {
+            ByteArrayOutputStream invalidBytes = new ByteArrayOutputStream();
+            DataOutputStream invalidOut = new DataOutputStream(invalidBytes);
+            for (int value : ints) {
+                invalidOut.writeInt(value);
+            }
+            try {
+                CountingProtocol.readItemSets(new DataInputStream(new ByteArrayInputStream(invalidBytes.toByteArray())), 4);
+                fail("Invalid itemsets " + Arrays.toString(ints));
+            } catch (IOException e) {
+                // Rejected before anything of the size given is allocated
+            }
+        }
+    }
+
+    @Test
+    public void refusesVerticalCountingInWorkers() {
+        try {
+            new CountingWorker(firstShard(), new AprioriMiner(AprioriMiner.Counting.VERTICAL, 1));
+            fail("Vertical counting");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Workers count horizontally or with the trie", e.getMessage());
+        }
+    }
+}
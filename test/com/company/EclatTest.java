@@ -0,0 +1,62 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Eclat with tidsets and with dEclat diffsets on dense data, where every item is in five of six transactions:
+ * <pre>
+ * t0: 0 1 2 3
+ * t1: 0 1 2
+ * t2: 0 1 3
+ * t3: 0 2 3
+ * t4: 1 2 3
+ * t5: 0 1 2 3
+ * </pre>
+ * Every pair occurs 4 times, every triple 3 times and all four items twice.
+ */
+public class EclatTest {
+    private static final List<ItemSet> TRANSACTIONS = Arrays.asList(ItemSet.of(0, 1, 2, 3), ItemSet.of(0, 1, 2),
+            ItemSet.of(0, 1, 3), ItemSet.of(0, 2, 3), ItemSet.of(1, 2, 3), ItemSet.of(0, 1, 2, 3));
+
+    private static void assertMines(int minCount, int expectedSize) {
+        for (boolean useDiffsets : new boolean[]{false, true}) {
+            String engine = useDiffsets ? "dEclat" : "Eclat";
+            ItemSetCountMap counts = Eclat.mine(TRANSACTIONS, 5, minCount, useDiffsets);
+            assertEquals(engine + " at " + minCount, expectedSize, counts.size());
+            counts.forEach((itemSet, count) -> assertEquals(engine + " count of " + itemSet, 6 - itemSet.size(), count));
+        }
+    }
+
+    @Test
+    public void minesEveryLevel() {
+        assertMines(2, 15);
+        assertMines(3, 14);
+        assertMines(4, 10);
+        assertMines(5, 4);
+        assertMines(6, 0);
+    }
+
+    @Test
+    public void skipsItemsThatNeverOccur() {
+        // Item 4 is in no transaction, so it mustn't show up even when every count is enough
+        assertMines(0, 15);
+    }
+
+    @Test
+    public void diffsetsOfSparseItems() {
+        // 0 and 1 never occur together, so the diffset of {0, 1} is all of t(0)
+        List<ItemSet> transactions = Arrays.asList(ItemSet.of(0, 2), ItemSet.of(1, 2), ItemSet.of(0, 2), ItemSet.of(1));
+        for (boolean useDiffsets : new boolean[]{false, true}) {
+            ItemSetCountMap counts = Eclat.mine(transactions, 3, 1, useDiffsets);
+            assertEquals(5, counts.size());
+            assertEquals(2, counts.getOrDefault(ItemSet.of(0, 2), -1));
+            assertEquals(1, counts.getOrDefault(ItemSet.of(1, 2), -1));
+            assertEquals(-1, counts.getOrDefault(ItemSet.of(0, 1), -1));
+        }
+    }
+}
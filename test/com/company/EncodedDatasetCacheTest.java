@@ -0,0 +1,73 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Writing the cache next to its source file and reading it back, or not, when the source changed
+ */
+public class EncodedDatasetCacheTest {
+
+    private static File source(String content) throws IOException {
+        File file = File.createTempFile("encoded-cache", ".arff");
+        file.deleteOnExit();
+        EncodedDatasetCache.cacheFileFor(file.getPath()).deleteOnExit();
+        try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+            out.print(content);
+        }
+        return file;
+    }
+
+    private static EncodedDataset dataset() {
+        ArrayList<ItemSet> instances = new ArrayList<>();
+        instances.add(ItemSet.of(0, 2));
+        instances.add(ItemSet.of(1, 3));
+        instances.add(ItemSet.of());
+        instances.add(ItemSet.of(0, 3));
+        return new EncodedDataset(new String[]{"gr\u00f6\u00dfe", "farbe"},
+                new ArrayList<>(Arrays.asList("gr\u00f6\u00dfe=s", "gr\u00f6\u00dfe=l", "farbe='dunkel rot'", "farbe=blau")), instances);
+    }
+
+    @Test
+    public void readsWhatWasWritten() throws IOException {
+        File source = source("the source only needs a size and a modification time");
+        EncodedDataset dataset = dataset();
+        EncodedDatasetCache.write(source.getPath(), dataset);
+
+        EncodedDataset cached = EncodedDatasetCache.read(source.getPath());
+        assertArrayEquals(dataset.getAttributeNames(), cached.getAttributeNames());
+        assertEquals(dataset.getItemNames(), cached.getItemNames());
+        assertEquals(dataset.getInstances(), cached.getInstances());
+    }
+
+    @Test
+    public void ignoresAStaleCache() throws IOException {
+        File source = source("before");
+        EncodedDatasetCache.write(source.getPath(), dataset());
+        try (PrintWriter out = new PrintWriter(new FileOutputStream(source, true))) {
+            out.print(" and after");
+        }
+        assertNull(EncodedDatasetCache.read(source.getPath()));
+    }
+
+    @Test
+    public void ignoresAMissingOrForeignCache() throws IOException {
+        File source = source("no cache yet");
+        assertNull(EncodedDatasetCache.read(source.getPath()));
+
+        try (PrintWriter out = new PrintWriter(EncodedDatasetCache.cacheFileFor(source.getPath()), "UTF-8")) {
+            out.print("not an encoded dataset");
+        }
+        assertNull(EncodedDatasetCache.read(source.getPath()));
+    }
+}
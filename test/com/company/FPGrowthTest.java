@@ -0,0 +1,87 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * FP-growth on data small enough to count by hand:
+ * <pre>
+ * t0: 0 1 2
+ * t1: 0 1
+ * t2: 1 2
+ * t3: 0 2 3
+ * t4: 0 1 2 3
+ * </pre>
+ */
+public class FPGrowthTest {
+    private static final List<ItemSet> TRANSACTIONS = Arrays.asList(
+            ItemSet.of(0, 1, 2), ItemSet.of(0, 1), ItemSet.of(1, 2), ItemSet.of(0, 2, 3), ItemSet.of(0, 1, 2, 3));
+
+    private static void assertCounts(ItemSetCountMap expected, ItemSetCountMap actual) {
+        assertEquals("number of frequent itemsets", expected.size(), actual.size());
+        for (ItemSet itemSet : expected.keys()) {
+            assertEquals("count of " + itemSet, expected.getOrDefault(itemSet, -1), actual.getOrDefault(itemSet, -1));
+        }
+    }
+
+    @Test
+    public void minesEveryFrequentItemSet() {
+        ItemSetCountMap expected = new ItemSetCountMap();
+        expected.put(ItemSet.of(0), 4);
+        expected.put(ItemSet.of(1), 4);
+        expected.put(ItemSet.of(2), 4);
+        expected.put(ItemSet.of(3), 2);
+        expected.put(ItemSet.of(0, 1), 3);
+        expected.put(ItemSet.of(0, 2), 3);
+        expected.put(ItemSet.of(1, 2), 3);
+        expected.put(ItemSet.of(0, 3), 2);
+        expected.put(ItemSet.of(2, 3), 2);
+        expected.put(ItemSet.of(0, 1, 2), 2);
+        expected.put(ItemSet.of(0, 2, 3), 2);
+        assertCounts(expected, FPGrowth.mine(TRANSACTIONS, 4, 2));
+    }
+
+    @Test
+    public void dropsInfrequentItemsFromTheTree() {
+        ItemSetCountMap expected = new ItemSetCountMap();
+        expected.put(ItemSet.of(0), 4);
+        expected.put(ItemSet.of(1), 4);
+        expected.put(ItemSet.of(2), 4);
+        expected.put(ItemSet.of(0, 1), 3);
+        expected.put(ItemSet.of(0, 2), 3);
+        expected.put(ItemSet.of(1, 2), 3);
+        assertCounts(expected, FPGrowth.mine(TRANSACTIONS, 4, 3));
+        assertCounts(new ItemSetCountMap(), FPGrowth.mine(TRANSACTIONS, 4, 6));
+    }
+
+    @Test
+    public void minesASinglePath() {
+        // Every transaction is the same, so the tree is one path and every subset of it is frequent
+        List<ItemSet> transactions = Collections.nCopies(3, ItemSet.of(1, 4, 6));
+        ItemSetCountMap expected = new ItemSetCountMap();
+        for (ItemSet itemSet : Arrays.asList(ItemSet.of(1), ItemSet.of(4), ItemSet.of(6), ItemSet.of(1, 4), ItemSet.of(1, 6),
+                ItemSet.of(4, 6), ItemSet.of(1, 4, 6))) {
+            expected.put(itemSet, 3);
+        }
+        assertCounts(expected, FPGrowth.mine(transactions, 7, 3));
+    }
+
+    @Test
+    public void minesSharedPrefixes() {
+        // The three transactions share 0 in the tree but split below it
+        ArrayList<ItemSet> transactions = new ArrayList<>(Arrays.asList(ItemSet.of(0, 1), ItemSet.of(0, 2), ItemSet.of(0, 1, 2)));
+        ItemSetCountMap expected = new ItemSetCountMap();
+        expected.put(ItemSet.of(0), 3);
+        expected.put(ItemSet.of(1), 2);
+        expected.put(ItemSet.of(2), 2);
+        expected.put(ItemSet.of(0, 1), 2);
+        expected.put(ItemSet.of(0, 2), 2);
+        assertCounts(expected, FPGrowth.mine(transactions, 3, 2));
+    }
+}
@@ -0,0 +1,111 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Updating a snapshot of old baskets with a new batch, compared with mining old and new data together
+ */
+public class IncrementalMinerTest {
+    private static final String[] OLD = {"a b", "a b", "a c", "b c"};
+    private static final String[] NEW = {"c d", "c d", "c"};
+
+    private static File baskets(String... lines) throws IOException {
+        File file = File.createTempFile("incremental", ".basket");
+        file.deleteOnExit();
+        try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+            for (String line : lines) {
+                out.println(line);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * The snapshot a first run over the old baskets at 40% support (two of four baskets) leaves behind
+     */
+    private static ItemSetSnapshot snapshotOf(File oldFile) throws IOException {
+        EncodedDataset old = StreamingLoader.load(oldFile.getPath());
+        ArrayList<ItemSetSnapshot.SourceFile> sourceFiles = new ArrayList<>();
+        sourceFiles.add(new ItemSetSnapshot.SourceFile(oldFile, new int[]{0, 1, 2}));
+        return new ItemSetSnapshot(0.4, old.getNumInstances(), old.getAttributeNames(), new ArrayList<>(old.getItemNames()),
+                sourceFiles, FPGrowth.mine(old.getInstances(), old.getNumItems(), 2));
+    }
+
+    private static void assertSameAsMiningEverything(ItemSetCountMap frequent, int minCount) throws IOException {
+        ArrayList<String> all = new ArrayList<>(Arrays.asList(OLD));
+        all.addAll(Arrays.asList(NEW));
+        EncodedDataset everything = StreamingLoader.load(baskets(all.toArray(new String[0])).getPath());
+        ItemSetCountMap expected = FPGrowth.mine(everything.getInstances(), everything.getNumItems(), minCount);
+
+        assertEquals(expected.size(), frequent.size());
+        expected.forEach((itemSet, count) -> assertEquals(count, frequent.getOrDefault(itemSet, -1)));
+    }
+
+    @Test
+    public void onlyRescansCandidatesFrequentInTheBatch() throws IOException {
+        IncrementalMiner miner = new IncrementalMiner(snapshotOf(baskets(OLD)), 0.4);
+        ItemSetCountMap frequent = miner.update(StreamingLoader.load(baskets(NEW).getPath()));
+
+        assertEquals(7, miner.getNumInstances());
+        assertEquals(Arrays.asList("a", "b", "c", "d"), miner.getNames().getItemNames());
+        // The new item d is the only candidate the old data had to be scanned for; ac and bc are pruned
+        assertEquals(1, miner.getNumRescans());
+        assertEquals(1, miner.getNumRescanned());
+        assertSameAsMiningEverything(frequent, 3);
+    }
+
+    @Test
+    public void staysExactBelowTheSnapshotSupport() throws IOException {
+        IncrementalMiner miner = new IncrementalMiner(snapshotOf(baskets(OLD)), 0.25);
+        ItemSetCountMap frequent = miner.update(StreamingLoader.load(baskets(NEW).getPath()));
+        assertSameAsMiningEverything(frequent, 2);
+    }
+
+    @Test
+    public void snapshotSurvivesAWriteAndRead() throws IOException {
+        File batchFile = baskets(NEW);
+        IncrementalMiner miner = new IncrementalMiner(snapshotOf(baskets(OLD)), 0.4);
+        miner.update(StreamingLoader.load(batchFile.getPath()));
+
+        File file = File.createTempFile("incremental", ".snapshot");
+        file.deleteOnExit();
+        miner.toSnapshot(batchFile).write(file);
+        ItemSetSnapshot snapshot = ItemSetSnapshot.read(file);
+
+        assertEquals(0.4, snapshot.getMinSup(), 0.0);
+        assertEquals(7, snapshot.getNumInstances());
+        assertEquals(Arrays.asList("a", "b", "c", "d"), snapshot.getItemNames());
+        assertEquals(2, snapshot.getSourceFiles().size());
+        // The batch's own c and d are the global 2 and 3
+        assertArrayEquals(new int[]{2, 3}, snapshot.getSourceFiles().get(1).getGlobalItemIds());
+        assertEquals(5, snapshot.getCounts().getOrDefault(ItemSet.of(2), -1));
+        assertEquals(2, snapshot.getCounts().getOrDefault(ItemSet.of(0, 1), -1));
+    }
+
+    @Test
+    public void refusesChangedOldData() throws IOException {
+        File oldFile = baskets(OLD);
+        ItemSetSnapshot snapshot = snapshotOf(oldFile);
+        try (PrintWriter out = new PrintWriter(new FileOutputStream(oldFile, true))) {
+            out.println("a d");
+        }
+
+        try {
+            new IncrementalMiner(snapshot, 0.4).update(StreamingLoader.load(baskets(NEW).getPath()));
+        } catch (IOException e) {
+            return;
+        }
+        fail("A changed old file was rescanned");
+    }
+}
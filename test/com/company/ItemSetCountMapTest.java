@@ -0,0 +1,65 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Counting, merging and growing the open-addressing map
+ */
+public class ItemSetCountMapTest {
+
+    @Test
+    public void putAndAdd() {
+        ItemSetCountMap counts = new ItemSetCountMap();
+        assertTrue(counts.isEmpty());
+        assertEquals(-1, counts.getOrDefault(ItemSet.of(1), -1));
+
+        counts.put(ItemSet.of(1), 4);
+        assertEquals(6, counts.add(ItemSet.of(1), 2));
+        assertEquals(3, counts.add(ItemSet.of(2, 1), 3));
+        counts.put(ItemSet.of(1, 2), 5);
+
+        assertEquals(2, counts.size());
+        assertEquals(6, counts.getOrDefault(ItemSet.of(1), -1));
+        assertEquals(5, counts.getOrDefault(ItemSet.of(1, 2), -1));
+        assertTrue(counts.containsKey(ItemSet.of(2, 1)));
+        assertFalse(counts.containsKey(ItemSet.of(2)));
+    }
+
+    @Test
+    public void growsPastItsCapacity() {
+        ItemSetCountMap counts = new ItemSetCountMap(4);
+        for (int i = 0; i < 1000; i++) {
+            counts.add(ItemSet.of(i, i + 1), i);
+        }
+        assertEquals(1000, counts.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, counts.getOrDefault(ItemSet.of(i, i + 1), -1));
+        }
+        assertEquals(1000, new HashSet<>(counts.keys()).size());
+    }
+
+    @Test
+    public void mergesAndVisits() {
+        ItemSetCountMap counts = new ItemSetCountMap();
+        counts.put(ItemSet.of(1), 2);
+        counts.put(ItemSet.of(2), 3);
+        ItemSetCountMap other = new ItemSetCountMap();
+        other.put(ItemSet.of(2), 4);
+        other.put(ItemSet.of(3), 1);
+
+        counts.addAll(other);
+        assertEquals(2, counts.getOrDefault(ItemSet.of(1), -1));
+        assertEquals(7, counts.getOrDefault(ItemSet.of(2), -1));
+        assertEquals(1, counts.getOrDefault(ItemSet.of(3), -1));
+
+        int[] total = {0};
+        counts.forEach((itemSet, count) -> total[0] += count);
+        assertEquals(10, total[0]);
+    }
+}
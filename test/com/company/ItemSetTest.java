@@ -0,0 +1,68 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The sorted array form of an itemset and the set operations mining and rule generation rely on
+ */
+public class ItemSetTest {
+
+    @Test
+    public void sortsAndDropsDuplicates() {
+        assertArrayEquals(new int[]{1, 3, 7}, ItemSet.of(7, 3, 1, 3).toArray());
+        assertArrayEquals(new int[]{2, 5}, ItemSet.of(Arrays.asList(5, 2, 5)).toArray());
+        assertEquals(0, ItemSet.of().size());
+        assertEquals(ItemSet.of(1, 2), ItemSet.of(2, 1));
+        assertEquals(ItemSet.of(1, 2).hashCode(), ItemSet.of(2, 1).hashCode());
+        assertEquals("[1, 2]", ItemSet.of(2, 1).toString());
+    }
+
+    @Test
+    public void containment() {
+        ItemSet itemSet = ItemSet.of(1, 4, 6, 9);
+        assertTrue(itemSet.contains(6));
+        assertFalse(itemSet.contains(5));
+        assertTrue(itemSet.containsAll(ItemSet.of(1, 9)));
+        assertTrue(itemSet.containsAll(ItemSet.of()));
+        assertFalse(itemSet.containsAll(ItemSet.of(1, 5)));
+        assertFalse(ItemSet.of(1).containsAll(itemSet));
+    }
+
+    @Test
+    public void joinHelpers() {
+        assertTrue(ItemSet.of(1, 2, 3).sharesPrefixWith(ItemSet.of(1, 2, 5)));
+        assertFalse(ItemSet.of(1, 2, 3).sharesPrefixWith(ItemSet.of(1, 4, 5)));
+        assertFalse(ItemSet.of(1, 2).sharesPrefixWith(ItemSet.of(1, 2, 5)));
+        assertEquals(ItemSet.of(1, 2, 3, 8), ItemSet.of(1, 2, 3).append(8));
+        assertEquals(3, ItemSet.of(1, 2, 3).last());
+        assertEquals(ItemSet.of(1, 3), ItemSet.of(1, 2, 3).without(1));
+        assertEquals(ItemSet.of(2, 3), ItemSet.of(1, 2, 3).without(0));
+    }
+
+    @Test
+    public void unionAndMinus() {
+        assertEquals(ItemSet.of(1, 2, 3, 5, 8), ItemSet.of(1, 3, 5).union(ItemSet.of(2, 3, 8)));
+        assertEquals(ItemSet.of(1, 3), ItemSet.of(1, 3).union(ItemSet.of()));
+        assertEquals(ItemSet.of(1, 5), ItemSet.of(1, 3, 5).minus(ItemSet.of(2, 3, 8)));
+        assertEquals(ItemSet.of(), ItemSet.of(1, 3).minus(ItemSet.of(1, 3)));
+    }
+
+    @Test
+    public void ordersLikeLists() {
+        List<ItemSet> itemSets = new ArrayList<>(Arrays.asList(
+                ItemSet.of(2), ItemSet.of(1, 3), ItemSet.of(1), ItemSet.of(1, 2, 9), ItemSet.of(1, 2)));
+        Collections.sort(itemSets);
+        assertEquals(Arrays.asList(ItemSet.of(1), ItemSet.of(1, 2), ItemSet.of(1, 2, 9), ItemSet.of(1, 3), ItemSet.of(2)),
+                itemSets);
+    }
+}
@@ -0,0 +1,115 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Metrics of mining jobs, with the transactions of {@link FPGrowthTest}
+ */
+public class MiningMetricsTest {
+    private static final List<ItemSet> TRANSACTIONS = Arrays.asList(
+            ItemSet.of(0, 1, 2), ItemSet.of(0, 1), ItemSet.of(1, 2), ItemSet.of(0, 2, 3), ItemSet.of(0, 1, 2, 3));
+
+    private static MiningResult mine(FrequentItemSetMiner engine) {
+        EncodedDataset dataset = new EncodedDataset(new String[]{"items"}, Arrays.asList("a", "b", "c", "d"), TRANSACTIONS);
+        return new AssociationRuleMiner(new MiningConfig().withMinSupport(0.4).withMinConfidence(0.6).withEngine(engine)).mine(dataset);
+    }
+
+    @Test
+    public void recordsEveryAprioriLevel() {
+        MiningResult result = mine(new AprioriMiner(AprioriMiner.Counting.HORIZONTAL, 1));
+        MiningMetrics metrics = result.getMetrics();
+
+        // {1, 2, 3} is pruned since {1, 3} isn't frequent, and the last level generates no candidates
+        List<MiningMetrics.Level> levels = metrics.getLevels();
+        assertEquals(4, levels.size());
+        int[] generated = {4, 6, 2, 0};
+        int[] pruned = {0, 0, 1, 0};
+        int[] frequent = {4, 5, 2, 0};
+        for (int i = 0; i < levels.size(); i++) {
+            assertEquals(i + 1, levels.get(i).getK());
+            assertEquals(generated[i], levels.get(i).getCandidatesGenerated());
+            assertEquals(pruned[i], levels.get(i).getCandidatesPruned());
+            assertEquals(frequent[i], levels.get(i).getFrequentItemSets());
+            assertEquals(true, levels.get(i).getPeakHeapBytes() > 0);
+        }
+
+        assertEquals(11, metrics.getMining().getProduced());
+        assertEquals(result.getRules().size(), metrics.getRules().getProduced());
+        assertEquals(true, metrics.getMining().getNanos() > 0);
+    }
+
+    @Test
+    public void timesEnginesThatArentLevelWise() {
+        MiningMetrics metrics = mine(FrequentItemSetMiner.FP_GROWTH).getMetrics();
+        assertEquals(0, metrics.getLevels().size());
+        assertEquals(11, metrics.getMining().getProduced());
+        assertEquals(true, metrics.getMining().getNanos() > 0);
+    }
+
+    @Test
+    public void closingTwiceKeepsTheFirstMeasurement() throws InterruptedException {
+        MiningMetrics metrics = new MiningMetrics();
+        MiningMetrics.Phase phase = metrics.getMining().start();
+        phase.produced(3);
+        phase.close();
+        long nanos = phase.getNanos();
+        Thread.sleep(5);
+        phase.close();
+        assertEquals(nanos, phase.getNanos());
+        assertEquals(3, phase.getProduced());
+
+        MiningMetrics.Level level = metrics.startLevel(1);
+        level.close();
+        long peak = level.getPeakHeapBytes();
+        level.close();
+        assertEquals(peak, level.getPeakHeapBytes());
+    }
+
+    @Test
+    public void endsThePhaseWhenTheJobFails() {
+        MiningMetrics metrics = new MiningMetrics();
+        try (MiningMetrics.Phase phase = metrics.getRules().start()) {
+            phase.produced(1);
+            throw new IllegalStateException("failed");
+        } catch (IllegalStateException e) {
+            assertEquals("failed", e.getMessage());
+        }
+        assertEquals(true, metrics.getRules().getNanos() > 0);
+        assertEquals(1, metrics.getRules().getProduced());
+    }
+
+    @Test
+    public void writesJsonAndPrometheus() throws IOException {
+        MiningMetrics metrics = mine(new AprioriMiner(AprioriMiner.Counting.HORIZONTAL, 1)).getMetrics();
+        File json = File.createTempFile("metrics", ".json");
+        File prom = File.createTempFile("metrics", ".prom");
+        json.deleteOnExit();
+        prom.deleteOnExit();
+
+        metrics.writeJson(json);
+        String jsonText = new String(Files.readAllBytes(json.toPath()), StandardCharsets.UTF_8);
+        if (!jsonText.contains("{\"k\": 3, \"candidates_generated\": 2, \"candidates_pruned\": 1, \"frequent_itemsets\": 2, ")) {
+            fail(jsonText);
+        }
+        if (!jsonText.contains("\"mining\": {\"frequent_itemsets\": 11, ")) {
+            fail(jsonText);
+        }
+
+        metrics.writePrometheus(prom);
+        List<String> lines = Files.readAllLines(prom.toPath(), StandardCharsets.UTF_8);
+        assertEquals("# HELP apriori_level_candidates_generated Candidates counted at the level", lines.get(0));
+        assertEquals("# TYPE apriori_level_candidates_generated gauge", lines.get(1));
+        assertEquals("apriori_level_candidates_generated{level=\"1\"} 4", lines.get(2));
+        assertEquals(true, lines.contains("apriori_phase_produced{phase=\"mining\"} 11"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The min-max basis of the transactions of {@link FPGrowthTest}, at a count of 2. Its minimal generators are the
+ * single items, the pairs of 0, 1 and 2, {0 1 2}, and {3}, whose closure is {0 2 3}.
+ */
+public class NonRedundantRulesTest {
+    private static final List<ItemSet> TRANSACTIONS = Arrays.asList(
+            ItemSet.of(0, 1, 2), ItemSet.of(0, 1), ItemSet.of(1, 2), ItemSet.of(0, 2, 3), ItemSet.of(0, 1, 2, 3));
+
+    private static ArrayList<AssociationRule> basis(double minConf, int topK) {
+        ItemSetCountMap closed = ClosedItemSetMiner.mine(TRANSACTIONS, 4, 2, false);
+        return NonRedundantRules.generate(TRANSACTIONS, closed,
+                new MiningConfig().withMinSupport(0.4).withMinConfidence(minConf).withTopK(topK));
+    }
+
+    private static AssociationRule rule(ItemSet premise, ItemSet implication) {
+        return new AssociationRule(premise, 0, implication, 0, 0.0, 0.0);
+    }
+
+    @Test
+    public void keepsOneExactRulePerGeneratorClosure() {
+        // The five rules with a confidence of 1 all follow from this one
+        ArrayList<AssociationRule> rules = basis(0.9, 0);
+        assertEquals(1, rules.size());
+        AssociationRule rule = rules.get(0);
+        assertEquals(rule(ItemSet.of(3), ItemSet.of(0, 2)), rule);
+        assertEquals(2, rule.getPremiseCount());
+        assertEquals(2, rule.getImplicationCount());
+        assertEquals(1.0, rule.getConfidence(), 0.0);
+        assertEquals(0.4, rule.getSupport(), 0.0);
+    }
+
+    @Test
+    public void concludesWithClosedItemSetsOnly() {
+        ArrayList<AssociationRule> rules = basis(0.6, 0);
+        HashSet<AssociationRule> expected = new HashSet<>(Arrays.asList(
+                rule(ItemSet.of(3), ItemSet.of(0, 2)),
+                rule(ItemSet.of(0), ItemSet.of(1)), rule(ItemSet.of(1), ItemSet.of(0)),
+                rule(ItemSet.of(0), ItemSet.of(2)), rule(ItemSet.of(2), ItemSet.of(0)),
+                rule(ItemSet.of(1), ItemSet.of(2)), rule(ItemSet.of(2), ItemSet.of(1)),
+                rule(ItemSet.of(0, 1), ItemSet.of(2)), rule(ItemSet.of(0, 2), ItemSet.of(1)), rule(ItemSet.of(1, 2), ItemSet.of(0)),
+                rule(ItemSet.of(0, 2), ItemSet.of(3))));
+        assertEquals(expected, new HashSet<>(rules));
+
+        // Not {0 3} ==> {2}: its premise isn't a generator, since {3} is just as frequent
+        assertTrue(!rules.contains(rule(ItemSet.of(0, 3), ItemSet.of(2))));
+        for (int i = 1; i < rules.size(); i++) {
+            assertTrue(rules.get(i - 1).getConfidence() >= rules.get(i).getConfidence());
+        }
+    }
+
+    @Test
+    public void keepsTheBestRulesOfTheBasis() {
+        ArrayList<AssociationRule> rules = basis(0.6, 1);
+        assertEquals(Arrays.asList(rule(ItemSet.of(3), ItemSet.of(0, 2))), rules);
+    }
+}
@@ -0,0 +1,85 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Chunked counting on several threads against counting the same rows on one
+ */
+public class ParallelCounterTest {
+
+    /**
+     * Row t holds item i whenever t is a multiple of i + 1, so item i is in every (i + 1)-th row
+     */
+    private static List<ItemSet> rows(int numRows, int numItems) {
+        ArrayList<ItemSet> rows = new ArrayList<>();
+        for (int t = 0; t < numRows; t++) {
+            ArrayList<Integer> row = new ArrayList<>();
+            for (int i = 0; i < numItems; i++) {
+                if (t % (i + 1) == 0) row.add(i);
+            }
+            rows.add(ItemSet.of(row));
+        }
+        return rows;
+    }
+
+    private static int[] countItems(List<ItemSet> rows, int numItems, int numThreads) {
+        ParallelCounter counter = new ParallelCounter(numThreads);
+        try {
+            return counter.count(rows.size(), numItems, (from, to, counts) -> {
+                for (int t = from; t < to; t++) {
+                    for (int i = 0; i < rows.get(t).size(); i++) {
+                        counts[rows.get(t).get(i)]++;
+                    }
+                }
+            });
+        } finally {
+            counter.shutdown();
+        }
+    }
+
+    @Test
+    public void sumsEveryChunk() {
+        List<ItemSet> rows = rows(1000, 6);
+        // 1000 rows, then every second, third, ... row
+        int[] expected = {1000, 500, 334, 250, 200, 167};
+        for (int numThreads : new int[]{1, 2, 3, 8}) {
+            assertArrayEquals(numThreads + " threads", expected, countItems(rows, 6, numThreads));
+        }
+    }
+
+    @Test
+    public void fewerRowsThanChunks() {
+        assertArrayEquals(new int[]{3, 2, 1}, countItems(rows(3, 3), 3, 4));
+        assertArrayEquals(new int[]{0, 0, 0}, countItems(Collections.emptyList(), 3, 4));
+    }
+
+    @Test
+    public void sharesOneTrie() {
+        List<ItemSet> rows = rows(2000, 5);
+        List<ItemSet> candidates = Arrays.asList(ItemSet.of(0, 1), ItemSet.of(1, 2), ItemSet.of(1, 3), ItemSet.of(2, 4));
+        CandidateTrie trie = new CandidateTrie(candidates);
+        for (ItemSet row : rows) {
+            trie.count(row);
+        }
+
+        ParallelCounter counter = new ParallelCounter(4);
+        try {
+            int[] counts = counter.count(rows.size(), candidates.size(), (from, to, chunkCounts) -> {
+                for (int t = from; t < to; t++) {
+                    trie.count(rows.get(t), chunkCounts);
+                }
+            });
+            assertArrayEquals(trie.getCounts(), counts);
+            assertArrayEquals(new int[]{1000, 334, 500, 134}, counts);
+        } finally {
+            counter.shutdown();
+        }
+    }
+}
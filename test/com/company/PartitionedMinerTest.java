@@ -0,0 +1,67 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Both SON passes over a small basket file
+ */
+public class PartitionedMinerTest {
+
+    // With three rows per partition: a and b are only frequent together in the first partition,
+    // c only in the second and d only in the third
+    private static final String[] BASKETS = {
+            "a b", "a b", "a b",
+            "c", "c d", "a",
+            "d", "d", "c"
+    };
+
+    private static String baskets() throws IOException {
+        File file = File.createTempFile("partitioned", ".basket");
+        file.deleteOnExit();
+        try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+            for (String basket : BASKETS) {
+                out.println(basket);
+            }
+        }
+        return file.getPath();
+    }
+
+    private static PartitionedMiner miner(double minSup, int partitionRows) {
+        return new PartitionedMiner(minSup, partitionRows, FPGrowth::mine);
+    }
+
+    @Test
+    public void countsLocallyFrequentItemSetsExactly() throws IOException {
+        PartitionedMiner miner = miner(0.4, 3);
+        ItemSetCountMap frequent = miner.mine(baskets());
+
+        assertEquals(9, miner.getNumInstances());
+        assertEquals(3, miner.getNumPartitions());
+        // a, b, ab, c and d are each frequent in one partition, but only a reaches 4 of 9 overall
+        assertEquals(5, miner.getNumCandidates());
+        assertEquals(1, frequent.size());
+        // The a in the second partition wasn't frequent there, but pass two still counts it
+        assertEquals(4, frequent.getOrDefault(ItemSet.of(0), 0));
+        assertEquals("a", miner.getNames().getItemNames().get(0));
+    }
+
+    @Test
+    public void matchesMiningEverythingAtOnce() throws IOException {
+        String fileName = baskets();
+        EncodedDataset dataset = StreamingLoader.load(fileName);
+        ItemSetCountMap expected = FPGrowth.mine(dataset.getInstances(), dataset.getItemNames().size(), 3);
+
+        // Four rows per partition leaves a last partition of one row
+        PartitionedMiner miner = miner(0.3, 4);
+        ItemSetCountMap frequent = miner.mine(fileName);
+        assertEquals(3, miner.getNumPartitions());
+        assertEquals(expected.size(), frequent.size());
+        expected.forEach((itemSet, count) -> assertEquals(count, frequent.getOrDefault(itemSet, 0)));
+    }
+}
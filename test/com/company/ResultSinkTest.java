@@ -0,0 +1,119 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The output formats of {@link ResultSink}, fed by hand
+ */
+public class ResultSinkTest {
+    // Quotes, a comma and a space, which every text format has to keep inside one field
+    private static final List<String> ITEM_NAMES = Arrays.asList("say \"hi\", ok", "b=n");
+    private static final AssociationRule RULE = new AssociationRule(ItemSet.of(0), 4, ItemSet.of(1), 2, 0.5, 0.2);
+
+    private static File tempFile() throws IOException {
+        File file = File.createTempFile("sink", ".out");
+        file.deleteOnExit();
+        return file;
+    }
+
+    private static void writeSample(ResultSink sink) throws IOException {
+        try (ResultSink out = sink) {
+            out.begin(ITEM_NAMES, 10);
+            out.startLevel(2, 1);
+            out.itemSet(ItemSet.of(0, 1), 2);
+            out.rule(RULE);
+        }
+    }
+
+    @Test
+    public void writesItemNamesAsJsonArrays() throws IOException {
+        File jsonLines = tempFile();
+        writeSample(new JsonLinesSink(jsonLines));
+        assertEquals(Arrays.asList(
+                "{\"type\":\"itemset\",\"items\":[\"say \\\"hi\\\", ok\",\"b=n\"],\"count\":2,\"support\":0.2}",
+                "{\"type\":\"rule\",\"premise\":[\"say \\\"hi\\\", ok\"],\"premise_count\":4,\"implication\":[\"b=n\"],"
+                        + "\"implication_count\":2,\"confidence\":0.5,\"support\":0.2}"),
+                Files.readAllLines(jsonLines.toPath(), StandardCharsets.UTF_8));
+
+        // The same JSON arrays, with every quote doubled inside a quoted CSV field
+        File csv = tempFile();
+        writeSample(new CsvSink(csv));
+        assertEquals(Arrays.asList(
+                "type,premise,implication,premise_count,count,confidence,support",
+                "itemset,\"[\"\"say \\\"\"hi\\\"\", ok\"\",\"\"b=n\"\"]\",,,2,,0.2",
+                "rule,\"[\"\"say \\\"\"hi\\\"\", ok\"\"]\",\"[\"\"b=n\"\"]\",4,2,0.5,0.2"),
+                Files.readAllLines(csv.toPath(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void writesABinaryHeaderAndTrailer() throws IOException {
+        File binary = tempFile();
+        writeSample(new BinaryResultSink(binary));
+
+        try (DataInputStream in = new DataInputStream(new FileInputStream(binary))) {
+            assertEquals(0x41525253, in.readInt());
+            assertEquals(1, in.readInt());
+            assertEquals(10, in.readInt());
+            assertEquals(2, in.readInt());
+            assertEquals(12, in.readInt());
+            in.skipBytes(12);
+            assertEquals(3, in.readInt());
+            // "b=n" is padded to 4 bytes, so the records stay aligned
+            in.skipBytes(4);
+
+            assertEquals(1, in.readInt());
+            assertEquals(2, in.readInt());
+            assertEquals(2, in.readInt());
+            assertEquals(0, in.readInt());
+            assertEquals(1, in.readInt());
+
+            assertEquals(2, in.readInt());
+            assertEquals(4, in.readInt());
+            assertEquals(2, in.readInt());
+            assertEquals(0.5, in.readDouble(), 0.0);
+            assertEquals(0.2, in.readDouble(), 0.0);
+            in.skipBytes(16);
+
+            assertEquals(0, in.readInt());
+            assertEquals(1L, in.readLong());
+            assertEquals(1L, in.readLong());
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    public void listsOnlyTheBestRulesInTheWekaReport() throws IOException {
+        StringWriter report = new StringWriter();
+        BufferedWriter writer = new BufferedWriter(report);
+        MiningConfig config = new MiningConfig().withMinSupport(0.2).withMinConfidence(0.5);
+        try (ResultSink sink = new WekaTextSink(writer, "in.basket", 1, config, 2)) {
+            sink.begin(ITEM_NAMES, 10);
+            sink.startLevel(1, 1);
+            sink.itemSet(ItemSet.of(1), 5);
+            sink.rule(RULE);
+            sink.rule(new AssociationRule(ItemSet.of(1), 2, ItemSet.of(0), 2, 1.0, 0.2));
+            sink.rule(new AssociationRule(ItemSet.of(1), 3, ItemSet.of(0), 2, 0.67, 0.2));
+        }
+
+        String text = report.toString();
+        assertTrue(text.contains("Minimum support: 0.2 (2 instances)"));
+        assertTrue(text.contains("Size of set of large itemsets L(1): 1"));
+        assertTrue(text.contains("There were 3 rules found."));
+        assertTrue(text.endsWith("\t1. b=n 2 ==> say \"hi\", ok 2    <conf:(1.0)>    <sup:(0.2)>"
+                + System.lineSeparator() + "\t2. b=n 3 ==> say \"hi\", ok 2    <conf:(0.67)>    <sup:(0.2)>"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * ap-genrules over the frequent itemsets of five transactions:
+ * <pre>
+ * t0: 0 1 2
+ * t1: 0 1
+ * t2: 1 2
+ * t3: 0 2 3
+ * t4: 0 1 2 3
+ * </pre>
+ */
+public class RuleGeneratorTest {
+
+    private static ItemSetCountMap frequentItemSets() {
+        return FPGrowth.mine(Arrays.asList(ItemSet.of(0, 1, 2), ItemSet.of(0, 1), ItemSet.of(1, 2),
+                ItemSet.of(0, 2, 3), ItemSet.of(0, 1, 2, 3)), 4, 2);
+    }
+
+    private static AssociationRule rule(ItemSet premise, ItemSet implication) {
+        return new AssociationRule(premise, 0, implication, 0, 0.0, 0.0);
+    }
+
+    @Test
+    public void findsEveryConfidentRule() {
+        ArrayList<AssociationRule> rules = RuleGenerator.generateAll(frequentItemSets(), 5, 0.4, 0.9);
+
+        // Only 3 never occurs without 0 and 2
+        HashSet<AssociationRule> expected = new HashSet<>(Arrays.asList(
+                rule(ItemSet.of(0, 3), ItemSet.of(2)),
+                rule(ItemSet.of(2, 3), ItemSet.of(0)),
+                rule(ItemSet.of(3), ItemSet.of(0, 2)),
+                rule(ItemSet.of(3), ItemSet.of(0)),
+                rule(ItemSet.of(3), ItemSet.of(2))));
+        assertEquals(expected, new HashSet<>(rules));
+
+        for (AssociationRule rule : rules) {
+            assertEquals(1.0, rule.getConfidence(), 0.0);
+            assertEquals(2, rule.getImplicationCount());
+        }
+    }
+
+    @Test
+    public void skipsItemSetsBelowTheSupport() {
+        // At 0.6 only the pairs of 0, 1 and 2 are left, each implying the other with 3 of 4
+        ArrayList<AssociationRule> rules = RuleGenerator.generateAll(frequentItemSets(), 5, 0.6, 0.7);
+        assertEquals(6, rules.size());
+        for (AssociationRule rule : rules) {
+            assertEquals(0.75, rule.getConfidence(), 1e-9);
+            assertEquals(0.6, rule.getSupport(), 1e-9);
+        }
+    }
+
+    @Test
+    public void sortsBestFirst() {
+        ArrayList<AssociationRule> rules = RuleGenerator.generate(frequentItemSets(), 5,
+                new MiningConfig().withMinSupport(0.4).withMinConfidence(0.5));
+        for (int i = 1; i < rules.size(); i++) {
+            assertTrue(rules.get(i - 1).getConfidence() >= rules.get(i).getConfidence());
+        }
+
+        ArrayList<AssociationRule> top = RuleGenerator.generate(frequentItemSets(), 5,
+                new MiningConfig().withMinSupport(0.4).withMinConfidence(0.5).withTopK(3));
+        assertEquals(3, top.size());
+        for (AssociationRule rule : top) {
+            assertEquals(1.0, rule.getConfidence(), 0.0);
+        }
+    }
+
+    @Test
+    public void reportsSubsetsThatWereNotCounted() {
+        ItemSetCountMap frequentItemSets = new ItemSetCountMap();
+        frequentItemSets.put(ItemSet.of(0), 3);
+        frequentItemSets.put(ItemSet.of(0, 1), 2);
+        try {
+            RuleGenerator.generateAll(frequentItemSets, 4, 0.5, 0.5);
+            fail("The count of {1} is missing");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("was not counted"));
+        }
+    }
+}
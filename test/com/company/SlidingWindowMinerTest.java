@@ -0,0 +1,111 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Count and time windows over basket lines, and the item dictionary they keep
+ */
+public class SlidingWindowMinerTest {
+
+    @Test
+    public void minesOnlyTheLastTransactions() {
+        SlidingWindowMiner window = new SlidingWindowMiner(3, 0);
+        window.add("a b", 0);
+        window.add("a b", 0);
+        window.add("c", 0);
+        window.add("c d", 0);
+        window.add("c d", 0);
+
+        assertEquals(3, window.size());
+        assertEquals(5, window.getNumSeen());
+        // The window holds c, "c d" and "c d"
+        ItemSetCountMap frequent = window.mine(0.6);
+        assertEquals(3, frequent.size());
+        assertEquals(3, frequent.getOrDefault(ItemSet.of(2), -1));
+        assertEquals(2, frequent.getOrDefault(ItemSet.of(3), -1));
+        assertEquals(2, frequent.getOrDefault(ItemSet.of(2, 3), -1));
+    }
+
+    @Test
+    public void expiresByTime() {
+        SlidingWindowMiner window = new SlidingWindowMiner(0, 1000);
+        window.add("a", 0);
+        window.add("a b", 500);
+        window.add("b", 900);
+
+        window.expire(999);
+        assertEquals(3, window.size());
+        window.expire(1000);
+        assertEquals(2, window.size());
+        window.expire(1600);
+        assertEquals(1, window.size());
+        assertEquals(1, window.mine(1.0).getOrDefault(ItemSet.of(1), -1));
+    }
+
+    @Test
+    public void forgetsItemsThatLeftTheWindow() {
+        SlidingWindowMiner window = new SlidingWindowMiner(2, 0);
+        window.add("a b", 0);
+        window.add("b c", 0);
+        assertEquals(Arrays.asList("a", "b", "c"), window.getItemNames());
+
+        // a leaves with the first transaction once "c d" is in
+        window.add("c d", 0);
+        assertEquals(3, window.getNumItems());
+        assertEquals(Arrays.asList(null, "b", "c", "d"), window.getItemNames());
+
+        // b leaves next, and the new e and f take the two free ids instead of growing the dictionary
+        window.add("c", 0);
+        window.add("e f c", 0);
+        assertEquals(Arrays.asList("f", "e", "c", null), window.getItemNames());
+        assertEquals(3, window.getNumItems());
+        assertEquals(2, window.mine(1.0).getOrDefault(ItemSet.of(2), -1));
+        assertEquals(1, window.mine(0.5).getOrDefault(ItemSet.of(0, 1, 2), -1));
+    }
+
+    @Test
+    public void countsDuplicatesOnce() {
+        SlidingWindowMiner window = new SlidingWindowMiner(1, 0);
+        window.add("a a b", 0);
+        window.add("c", 0);
+
+        // a was counted once, so it's gone along with b
+        assertEquals(1, window.getNumItems());
+        assertEquals(Arrays.asList(null, null, "c"), window.getItemNames());
+    }
+
+    @Test
+    public void namesAreReadOnly() {
+        SlidingWindowMiner window = new SlidingWindowMiner(1, 0);
+        window.add("a", 0);
+        try {
+            window.getItemNames().set(0, "b");
+        } catch (UnsupportedOperationException e) {
+            return;
+        }
+        fail("The item names could be changed");
+    }
+
+    @Test
+    public void followsAFeedUntilItEnds() throws IOException, InterruptedException {
+        byte[] feed = "a b\nb c\nc d\n\nd e\ne f\n".getBytes(StandardCharsets.UTF_8);
+        SlidingWindowMiner window = new SlidingWindowMiner(2, 0);
+        ArrayList<String> emits = new ArrayList<>();
+
+        try (TailReader reader = new TailReader(new ByteArrayInputStream(feed), false)) {
+            window.follow(reader, 2, 0, (current, now) -> emits.add(current.getNumSeen() + ":" + current.getNumItems()));
+        }
+
+        // Every second transaction, and the fifth one that was left at the end; the blank line isn't one
+        assertEquals(Arrays.asList("2:3", "4:3", "5:3"), emits);
+    }
+}
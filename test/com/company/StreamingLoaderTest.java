@@ -0,0 +1,126 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Encoding of small ARFF and CSV files without Weka
+ */
+public class StreamingLoaderTest {
+
+    private static String write(String suffix, String... lines) throws IOException {
+        File file = File.createTempFile("streaming-loader", suffix);
+        file.deleteOnExit();
+        try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+            for (String line : lines) {
+                out.println(line);
+            }
+        }
+        return file.getPath();
+    }
+
+    @Test
+    public void loadsArff() throws IOException {
+        EncodedDataset dataset = StreamingLoader.load(write(".arff",
+                "% a comment",
+                "@relation weather",
+                "@attribute outlook {sunny, 'over cast'}",
+                "@attribute play {yes, no}",
+                "",
+                "@data",
+                "sunny,no",
+                "'over cast', yes",
+                "sunny,?",
+                "% another comment",
+                "sunny,no"));
+
+        assertArrayEquals(new String[]{"outlook", "play"}, dataset.getAttributeNames());
+        // Items are numbered in order of first appearance and quoted the way Weka prints them
+        assertEquals(Arrays.asList("outlook=sunny", "play=no", "outlook='over cast'", "play=yes", "play=?"), dataset.getItemNames());
+        assertEquals(4, dataset.getNumInstances());
+        assertEquals(ItemSet.of(0, 1), dataset.getInstances().get(0));
+        assertEquals(ItemSet.of(2, 3), dataset.getInstances().get(1));
+        assertEquals(ItemSet.of(0, 4), dataset.getInstances().get(2));
+        assertEquals(ItemSet.of(0, 1), dataset.getInstances().get(3));
+    }
+
+    @Test
+    public void loadsCsvWithHeader() throws IOException {
+        EncodedDataset dataset = StreamingLoader.load(write(".csv",
+                "colour,size",
+                "red,small",
+                "",
+                "\"dark red\",small"));
+
+        assertArrayEquals(new String[]{"colour", "size"}, dataset.getAttributeNames());
+        assertEquals(Arrays.asList("colour=red", "size=small", "colour='dark red'"), dataset.getItemNames());
+        assertEquals(ItemSet.of(2, 1), dataset.getInstances().get(1));
+    }
+
+    @Test
+    public void loadsSparseArffWithoutTheMissingValues() throws IOException {
+        EncodedDataset dataset = StreamingLoader.load(write(".arff",
+                "@attribute bread {f, t}",
+                "@attribute milk {f, t}",
+                "@attribute 'ice cream' {f, t, 'some more'}",
+                "@data",
+                "{0 t, 2 t}",
+                "{1 t}",
+                "{}",
+                "{2 'some more', 0 t}"));
+
+        assertEquals(Arrays.asList("bread=t", "ice cream=t", "milk=t", "ice cream='some more'"), dataset.getItemNames());
+        assertEquals(4, dataset.getNumInstances());
+        assertEquals(ItemSet.of(0, 1), dataset.getInstances().get(0));
+        assertEquals(ItemSet.of(2), dataset.getInstances().get(1));
+        assertEquals(ItemSet.of(), dataset.getInstances().get(2));
+        assertEquals(ItemSet.of(3, 0), dataset.getInstances().get(3));
+    }
+
+    @Test
+    public void loadsBaskets() throws IOException {
+        String fileName = write(".dat",
+                "1 5 9",
+                "",
+                "5,9  12",
+                "9\t1");
+        assertTrue(StreamingLoader.isBasketFile(fileName));
+
+        EncodedDataset dataset = StreamingLoader.load(fileName);
+        assertArrayEquals(new String[]{"items"}, dataset.getAttributeNames());
+        // Items are named after themselves and empty lines aren't transactions
+        assertEquals(Arrays.asList("1", "5", "9", "12"), dataset.getItemNames());
+        assertEquals(3, dataset.getNumInstances());
+        assertEquals(ItemSet.of(0, 1, 2), dataset.getInstances().get(0));
+        assertEquals(ItemSet.of(1, 2, 3), dataset.getInstances().get(1));
+        assertEquals(ItemSet.of(0, 2), dataset.getInstances().get(2));
+    }
+
+    private static void assertRejected(String message, String suffix, String... lines) throws IOException {
+        String fileName = write(suffix, lines);
+        try {
+            StreamingLoader.load(fileName);
+        } catch (IOException e) {
+            return;
+        }
+        fail(message + " was accepted");
+    }
+
+    @Test
+    public void rejectsMalformedFiles() throws IOException {
+        assertRejected("an ARFF file without @data", ".arff", "@attribute a {x}", "x");
+        assertRejected("a row with too few values", ".arff", "@attribute a {x}", "@attribute b {y}", "@data", "x");
+        assertRejected("an empty CSV file", ".csv");
+        assertRejected("an unterminated sparse instance", ".arff", "@attribute a {x}", "@data", "{0 x");
+        assertRejected("a sparse index past the attributes", ".arff", "@attribute a {x}", "@data", "{1 x}");
+    }
+}
@@ -0,0 +1,95 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Seeded transactions and the two output formats
+ */
+public class SyntheticDataGeneratorTest {
+
+    private static File tempFile(String suffix) throws IOException {
+        File file = File.createTempFile("synthetic", suffix);
+        file.deleteOnExit();
+        return file;
+    }
+
+    @Test
+    public void sameSeedGivesTheSameData() {
+        SyntheticDataGenerator first = new SyntheticDataGenerator(10, 4, 100, 50, 7);
+        SyntheticDataGenerator second = new SyntheticDataGenerator(10, 4, 100, 50, 7);
+        for (int i = 0; i < 200; i++) {
+            assertArrayEquals(first.nextTransaction(), second.nextTransaction());
+        }
+    }
+
+    @Test
+    public void transactionsAreSortedDistinctItems() {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(10, 4, 100, 50, 3);
+        long totalLength = 0;
+        for (int i = 0; i < 1000; i++) {
+            int[] transaction = generator.nextTransaction();
+            assertTrue(transaction.length > 0);
+            for (int j = 0; j < transaction.length; j++) {
+                assertTrue(transaction[j] >= 0 && transaction[j] < 100);
+                assertTrue(j == 0 || transaction[j - 1] < transaction[j]);
+            }
+            totalLength += transaction.length;
+        }
+        // Corruption and carried over patterns keep the average a little under T
+        double average = totalLength / 1000.0;
+        assertTrue("average length " + average, average > 5 && average < 12);
+    }
+
+    @Test(timeout = 5000)
+    public void stopsAtTheItemsThePatternsHold() {
+        // One pattern of about two items can never fill a transaction of ten
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(10, 2, 100, 1, 1);
+        ItemSet seen = ItemSet.of();
+        for (int i = 0; i < 100; i++) {
+            seen = seen.union(ItemSet.ofSorted(generator.nextTransaction()));
+        }
+        assertTrue(seen.size() < 10);
+    }
+
+    @Test
+    public void writesEncodedData() throws IOException {
+        File file = tempFile(".enc");
+        new SyntheticDataGenerator(5, 3, 20, 10, 11).writeEncoded(file, 50);
+
+        EncodedDataset dataset = EncodedDatasetCache.readFile(file);
+        SyntheticDataGenerator expected = new SyntheticDataGenerator(5, 3, 20, 10, 11);
+        assertEquals(50, dataset.getNumInstances());
+        assertEquals(20, dataset.getItemNames().size());
+        for (ItemSet instance : dataset.getInstances()) {
+            assertEquals(ItemSet.ofSorted(expected.nextTransaction()), instance);
+        }
+    }
+
+    @Test
+    public void writesSparseArffAndBaskets() throws IOException {
+        File arff = tempFile(".arff");
+        File baskets = tempFile(".basket");
+        new SyntheticDataGenerator(5, 3, 20, 10, 11).writeArff(arff, 30);
+        new SyntheticDataGenerator(5, 3, 20, 10, 11).writeBaskets(baskets, 30);
+
+        EncodedDataset fromArff = StreamingLoader.load(arff.getPath());
+        EncodedDataset fromBaskets = StreamingLoader.load(baskets.getPath());
+        SyntheticDataGenerator expected = new SyntheticDataGenerator(5, 3, 20, 10, 11);
+        assertEquals(20, fromArff.getAttributeNames().length);
+        assertEquals(30, fromArff.getNumInstances());
+        assertEquals(30, fromBaskets.getNumInstances());
+        // Only the items present in a transaction are written, so both hold the same number of items per row
+        for (int i = 0; i < 30; i++) {
+            int length = expected.nextTransaction().length;
+            assertEquals(length, fromArff.getInstances().get(i).size());
+            assertEquals(length, fromBaskets.getInstances().get(i).size());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * A support and confidence grid mined once, with the transactions of {@link FPGrowthTest}
+ */
+public class ThresholdSweepTest {
+    private static final EncodedDataset DATASET = new EncodedDataset(new String[]{"items"}, Arrays.asList("a", "b", "c", "d"),
+            Arrays.asList(ItemSet.of(0, 1, 2), ItemSet.of(0, 1), ItemSet.of(1, 2), ItemSet.of(0, 2, 3), ItemSet.of(0, 1, 2, 3)));
+
+    @Test
+    public void matchesMiningEveryPairOnItsOwn() throws InterruptedException {
+        double[] supports = {0.6, 0.4};
+        double[] confidences = {0.9, 0.6, 0.7};
+        List<MiningResult> results = new ThresholdSweep(new MiningConfig(), 2).run(DATASET, supports, confidences);
+        assertEquals(6, results.size());
+
+        int i = 0;
+        for (double support : supports) {
+            for (double confidence : confidences) {
+                MiningResult result = results.get(i++);
+                assertEquals(support, result.getConfig().getMinSupport(), 0.0);
+                assertEquals(confidence, result.getConfig().getMinConfidence(), 0.0);
+
+                MiningConfig config = new MiningConfig().withMinSupport(support).withMinConfidence(confidence);
+                MiningResult expected = new AssociationRuleMiner(config).mine(DATASET);
+                assertEquals(expected.getFrequentItemSetsByLevel(), result.getFrequentItemSetsByLevel());
+                assertEquals(new HashSet<>(expected.getRules()), new HashSet<>(result.getRules()));
+            }
+        }
+
+        // 0.6 keeps the three pairs of a, b and c; their rules all have a confidence of 0.75
+        assertEquals(0, results.get(0).getRules().size());
+        assertEquals(6, results.get(1).getRules().size());
+        assertEquals(6, results.get(2).getRules().size());
+    }
+
+    @Test
+    public void keepsTheBestRulesOfEverySupport() throws InterruptedException {
+        List<MiningResult> results = new ThresholdSweep(new MiningConfig().withTopK(2), 1)
+                .run(DATASET, new double[]{0.4}, new double[]{0.5});
+        assertEquals(2, results.get(0).getRules().size());
+        for (AssociationRule rule : results.get(0).getRules()) {
+            assertEquals(1.0, rule.getConfidence(), 0.0);
+        }
+    }
+
+    @Test
+    public void needsAtLeastOnePair() throws InterruptedException {
+        try {
+            new ThresholdSweep(new MiningConfig(), 1).run(DATASET, new double[0], new double[]{0.5});
+            fail("The grid has no support");
+        } catch (IllegalArgumentException e) {
+            assertEquals("A sweep needs at least one support and one confidence", e.getMessage());
+        }
+    }
+}
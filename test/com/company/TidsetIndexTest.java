@@ -0,0 +1,83 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Counts of the vertical layout, on five transactions small enough to count by hand:
+ * <pre>
+ * t0: 0 1 2
+ * t1: 0 1
+ * t2: 1 2
+ * t3: 0 2 3
+ * t4: 0 1 2 3
+ * </pre>
+ */
+public class TidsetIndexTest {
+    private static final List<ItemSet> INSTANCES = Arrays.asList(
+            ItemSet.of(0, 1, 2), ItemSet.of(0, 1), ItemSet.of(1, 2), ItemSet.of(0, 2, 3), ItemSet.of(0, 1, 2, 3));
+
+    @Test
+    public void countsSingleItems() {
+        TidsetIndex index = new TidsetIndex(INSTANCES, 4);
+        assertEquals(4, index.count(ItemSet.of(0)));
+        assertEquals(4, index.count(ItemSet.of(1)));
+        assertEquals(4, index.count(ItemSet.of(2)));
+        assertEquals(2, index.count(ItemSet.of(3)));
+    }
+
+    @Test
+    public void countsJoinedLevels() {
+        TidsetIndex index = new TidsetIndex(INSTANCES, 4);
+        for (int item = 0; item < 4; item++) {
+            index.count(ItemSet.of(item));
+        }
+        index.advanceLevel(Arrays.asList(ItemSet.of(0), ItemSet.of(1), ItemSet.of(2), ItemSet.of(3)));
+
+        assertEquals(3, index.count(ItemSet.of(0, 1)));
+        assertEquals(3, index.count(ItemSet.of(0, 2)));
+        assertEquals(3, index.count(ItemSet.of(1, 2)));
+        assertEquals(1, index.count(ItemSet.of(1, 3)));
+        assertEquals(2, index.count(ItemSet.of(2, 3)));
+        // {1, 3} isn't frequent, so {1, 2, 3} has to be counted without the tidset of that parent
+        index.advanceLevel(Arrays.asList(ItemSet.of(0, 1), ItemSet.of(0, 2), ItemSet.of(1, 2), ItemSet.of(2, 3)));
+
+        assertEquals(2, index.count(ItemSet.of(0, 1, 2)));
+        assertEquals(1, index.count(ItemSet.of(1, 2, 3)));
+    }
+
+    @Test
+    public void countsAfterReset() {
+        TidsetIndex index = new TidsetIndex(INSTANCES, 4);
+        index.count(ItemSet.of(0));
+        index.count(ItemSet.of(3));
+        index.advanceLevel(Arrays.asList(ItemSet.of(0), ItemSet.of(3)));
+        index.reset();
+
+        assertEquals(2, index.count(ItemSet.of(0, 3)));
+    }
+
+    @Test
+    public void countsAcrossWords() {
+        // More than two 64-bit words of transactions; item 0 is in every third one and item 1 in every other one
+        ArrayList<ItemSet> instances = new ArrayList<>();
+        for (int tid = 0; tid < 150; tid++) {
+            ArrayList<Integer> instance = new ArrayList<>();
+            if (tid % 3 == 0) instance.add(0);
+            if (tid % 2 == 0) instance.add(1);
+            instances.add(ItemSet.of(instance));
+        }
+        instances.add(ItemSet.of(1));
+
+        TidsetIndex index = new TidsetIndex(instances, 2);
+        assertEquals(50, index.count(ItemSet.of(0)));
+        assertEquals(76, index.count(ItemSet.of(1)));
+        index.advanceLevel(Arrays.asList(ItemSet.of(0), ItemSet.of(1)));
+        assertEquals(25, index.count(ItemSet.of(0, 1)));
+    }
+}
@@ -0,0 +1,66 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Bounded heap of the best rules
+ */
+public class TopKRulesTest {
+
+    private static AssociationRule rule(int item, double confidence, int implicationCount) {
+        return new AssociationRule(ItemSet.of(item), 10, ItemSet.of(item + 100), implicationCount, confidence, 0.1);
+    }
+
+    @Test
+    public void keepsTheBestK() {
+        TopKRules topK = new TopKRules(3);
+        topK.offer(rule(1, 0.5, 5));
+        topK.offer(rule(2, 0.9, 9));
+        assertEquals(0.0, topK.minimumConfidence(), 0.0);
+
+        topK.offer(rule(3, 0.7, 7));
+        assertEquals(0.5, topK.minimumConfidence(), 0.0);
+
+        topK.offer(rule(4, 0.8, 8));
+        topK.offer(rule(5, 0.6, 6));
+        assertEquals(0.7, topK.minimumConfidence(), 0.0);
+
+        ArrayList<AssociationRule> rules = topK.sortedRules();
+        assertEquals(3, rules.size());
+        assertEquals(rule(2, 0.9, 9), rules.get(0));
+        assertEquals(rule(4, 0.8, 8), rules.get(1));
+        assertEquals(rule(3, 0.7, 7), rules.get(2));
+    }
+
+    @Test
+    public void breaksConfidenceTiesOnCounts() {
+        TopKRules topK = new TopKRules(1);
+        topK.offer(rule(1, 0.8, 4));
+        topK.offer(rule(2, 0.8, 8));
+        topK.offer(rule(3, 0.8, 6));
+        assertEquals(rule(2, 0.8, 8), topK.sortedRules().get(0));
+    }
+
+    @Test
+    public void keepsTheFirstOfTiedRules() {
+        TopKRules topK = new TopKRules(2);
+        topK.offer(rule(1, 0.8, 8));
+        topK.offer(rule(2, 0.8, 8));
+        topK.offer(rule(3, 0.8, 8));
+        topK.offer(rule(4, 0.9, 9));
+        assertEquals(Arrays.asList(rule(4, 0.9, 9), rule(1, 0.8, 8)), topK.sortedRules());
+    }
+
+    @Test
+    public void keepsNothingForZero() {
+        TopKRules topK = new TopKRules(0);
+        topK.offer(rule(1, 1.0, 10));
+        assertTrue(topK.sortedRules().isEmpty());
+    }
+}
@@ -0,0 +1,55 @@
+package com.company;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Collapsing and trimming the rows of {@link WeightedTransactions}
+ */
+public class WeightedTransactionsTest {
+    private static final List<ItemSet> TRANSACTIONS = Arrays.asList(
+            ItemSet.of(0, 1, 2), ItemSet.of(0, 1), ItemSet.of(0, 1, 2), ItemSet.of(1, 3), ItemSet.of(0, 1, 3), ItemSet.of(2));
+
+    @Test
+    public void collapsesIdenticalRows() {
+        WeightedTransactions rows = WeightedTransactions.of(TRANSACTIONS, 4);
+        assertEquals(5, rows.size());
+        assertEquals(ItemSet.of(0, 1, 2), rows.get(0));
+        assertEquals(2, rows.weight(0));
+        assertEquals(1, rows.weight(1));
+    }
+
+    @Test
+    public void trimsUnusedItemsAndShortRows() {
+        WeightedTransactions rows = WeightedTransactions.of(TRANSACTIONS, 4)
+                .compactFor(Arrays.asList(ItemSet.of(0, 1), ItemSet.of(1, 2)));
+
+        // Without item 3, {0, 1, 3} joins {0, 1}, and {1, 3} and {2} are too short for a pair
+        assertEquals(2, rows.size());
+        assertEquals(ItemSet.of(0, 1, 2), rows.get(0));
+        assertEquals(2, rows.weight(0));
+        assertEquals(ItemSet.of(0, 1), rows.get(1));
+        assertEquals(2, rows.weight(1));
+
+        assertSame(rows, rows.compactFor(Arrays.asList(ItemSet.of(0, 2), ItemSet.of(1, 2))));
+        assertEquals(0, rows.compactFor(Collections.emptyList()).size());
+    }
+
+    @Test
+    public void countsLikeTheOriginalRows() {
+        List<ItemSet> candidates = Arrays.asList(ItemSet.of(0, 1), ItemSet.of(0, 2), ItemSet.of(1, 3));
+        CandidateTrie trie = new CandidateTrie(candidates);
+        WeightedTransactions rows = WeightedTransactions.of(TRANSACTIONS, 4).compactFor(candidates);
+        int[] counts = new int[candidates.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            trie.count(rows.get(i), rows.weight(i), counts);
+        }
+        assertEquals(Arrays.toString(new int[]{4, 2, 2}), Arrays.toString(counts));
+    }
+}